@@ -14,7 +14,6 @@ import java.nio.file.Files;
 import java.security.*;
 import java.security.spec.PKCS8EncodedKeySpec;
 import java.security.spec.X509EncodedKeySpec;
-import java.util.concurrent.Executor;
 
 @Setter
 @Getter
@@ -33,6 +32,16 @@ public class BlockchainConfig {
     private boolean enableMining = true;
     private int miningThreads = 2;
     private long blockTimeTargetMs = 10000;
+    private boolean adaptiveBlockSize = true;
+    private int minBlockSize = 10;
+    private int maxBlockSize = 1000;
+    private long rateSampleIntervalMs = 1000;
+    private int sequencerRingSize = 8192;
+    private int auditParallelism = 0;   // 0 = one worker per core
+    private int blockPageSize = 200;
+    private int merkleCacheSize = 1024;
+    private String walDirectory = "blockchain-wal";
+    private long walSizeBytes = 64L * 1024 * 1024;
 
     // File paths for persistent keys
     private static final String PRIVATE_KEY_FILE = "blockchain_private.key";
@@ -90,13 +99,20 @@ public class BlockchainConfig {
         return new KeyPair(publicKey, privateKey);
     }
 
-    @Bean(name = "blockchainTaskExecutor")
-    public Executor blockchainTaskExecutor() {
+    /**
+     * Dedicated pool for proof-of-work nonce search, shared by every
+     * election's sequencer thread while it waits for its block to be mined.
+     * Each search uses {@code miningThreads} workers, so with the pool the
+     * same size concurrent elections mine one block after another rather than
+     * in parallel. Mining is CPU-bound; a larger pool would only time-slice
+     * the same cores.
+     */
+    @Bean(name = "blockMiningExecutor")
+    public ThreadPoolTaskExecutor blockMiningExecutor() {
         ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
         executor.setCorePoolSize(miningThreads);
-        executor.setMaxPoolSize(miningThreads * 2);
-        executor.setQueueCapacity(500);
-        executor.setThreadNamePrefix("blockchain-");
+        executor.setMaxPoolSize(miningThreads);
+        executor.setThreadNamePrefix("miner-");
         executor.initialize();
         return executor;
     }
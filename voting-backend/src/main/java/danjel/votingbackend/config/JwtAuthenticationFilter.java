@@ -1,14 +1,17 @@
 package danjel.votingbackend.config;
 
 import danjel.votingbackend.security.JwtAuthenticationToken;
+import danjel.votingbackend.service.AccountRevocationList;
 import danjel.votingbackend.service.AuthService;
 import danjel.votingbackend.service.JwtService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.lang.NonNull;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
@@ -28,18 +31,30 @@ import java.util.UUID;
  *   Admin JWT  → subject = email,       userType claim = "ADMIN"
  *
  * AuthService.loadUserByUsernameAndType() handles both cases correctly.
+ *
+ * With auth.stateless-tokens (the default) the signed claims are trusted
+ * until the token expires and no account is loaded; tokens of disabled or
+ * locked accounts are refused through {@link AccountRevocationList}.
+ * Setting it to false restores the per-request account lookup.
  */
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
     private static final Logger logger = LoggerFactory.getLogger(JwtAuthenticationFilter.class);
 
-    private final JwtService  jwtService;
-    private final AuthService authService;
-
-    public JwtAuthenticationFilter(JwtService jwtService, AuthService authService) {
-        this.jwtService  = jwtService;
-        this.authService = authService;
+    private final JwtService            jwtService;
+    private final AuthService           authService;
+    private final AccountRevocationList revocationList;
+    private final boolean               statelessTokens;
+
+    public JwtAuthenticationFilter(JwtService jwtService,
+                                   AuthService authService,
+                                   AccountRevocationList revocationList,
+                                   @Value("${auth.stateless-tokens:true}") boolean statelessTokens) {
+        this.jwtService      = jwtService;
+        this.authService     = authService;
+        this.revocationList  = revocationList;
+        this.statelessTokens = statelessTokens;
     }
 
     @Override
@@ -59,28 +74,40 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         final String jwt = authHeader.substring(7);
 
         try {
+            // Verified and parsed once; every claim below is read from it
+            final Claims claims = jwtService.parseClaims(jwt);
+
             // For voters: jwtSubject = nationalId
             // For admins: jwtSubject = email
-            final String jwtSubject = jwtService.extractUsername(jwt);
+            final String jwtSubject = claims.getSubject();
 
             if (jwtSubject != null
                     && SecurityContextHolder.getContext().getAuthentication() == null) {
 
-                String userType = jwtService.extractUserType(jwt);
+                String userType = jwtService.extractUserType(claims);
                 if (userType == null) userType = "VOTER";
 
-                UserDetails userDetails = authService.loadUserByUsernameAndType(jwtSubject, userType);
+                // Stateless: the signature and expiry were checked by parseClaims,
+                // so only revoked accounts need refusing — no account lookup.
+                boolean valid;
+                if (statelessTokens) {
+                    valid = !revocationList.isRevoked(userType, jwtSubject);
+                    if (!valid) logger.warn("Rejected token of revoked account  type={}", userType);
+                } else {
+                    UserDetails userDetails = authService.loadUserByUsernameAndType(jwtSubject, userType);
+                    valid = jwtService.isTokenValid(claims, userDetails);
+                }
 
-                if (jwtService.isTokenValid(jwt, userDetails)) {
+                if (valid) {
 
                     // Extract voter token fields (safe even if null)
-                    String voterIdStr = jwtService.extractVoterId(jwt);
-                    String role = jwtService.extractRole(jwt);
-                    String county = jwtService.extractCounty(jwt);
-                    String municipality = jwtService.extractMunicipality(jwt);
+                    String voterIdStr = jwtService.extractVoterId(claims);
+                    String role = jwtService.extractRole(claims);
+                    String county = jwtService.extractCounty(claims);
+                    String municipality = jwtService.extractMunicipality(claims);
 
                     // ✅ Extract deviceId (for binding)
-                    String deviceId = jwtService.extractDeviceId(jwt);
+                    String deviceId = jwtService.extractDeviceId(claims);
 
                     UUID voterId = null;
                     try {
@@ -66,6 +66,15 @@ public class SecurityConfig {
                         .requestMatchers("/api/v1/elections/*/start").hasRole("ADMIN")
                         .requestMatchers("/api/v1/elections/*/close").hasRole("ADMIN")
 
+                        // Running tallies and turnout: election staff only, never voters
+                        .requestMatchers(HttpMethod.GET,
+                                "/api/v1/elections/*/results",
+                                "/api/v1/elections/*/results/**",
+                                "/api/v1/elections/*/turnout").hasAnyRole("ADMIN", "ELECTION_OFFICIAL")
+
+                        // Polling-station gateways relay other voters' signed ballots
+                        .requestMatchers(HttpMethod.POST, "/api/v1/vote/batch").hasRole("ADMIN")
+
                         // Voter endpoints
                         .requestMatchers("/api/v1/vote/**").hasAnyRole("VOTER", "ADMIN")
                         .requestMatchers("/api/v1/verification/**").hasAnyRole("VOTER", "ADMIN")
@@ -3,10 +3,16 @@ package danjel.votingbackend.controller;
 import danjel.votingbackend.dto.election.CandidateResponse;
 import danjel.votingbackend.dto.election.ElectionRequest;
 import danjel.votingbackend.dto.election.ElectionResponse;
+import danjel.votingbackend.dto.election.LiveResultsResponse;
 import danjel.votingbackend.dto.election.PartyResponse;
+import danjel.votingbackend.dto.election.RegionalResultsResponse;
+import danjel.votingbackend.dto.election.TurnoutSeriesResponse;
 import danjel.votingbackend.model.Voter;
 import danjel.votingbackend.service.AuthService;
 import danjel.votingbackend.service.ElectionService;
+import danjel.votingbackend.service.LiveTallyService;
+import danjel.votingbackend.service.RegionalResultsService;
+import danjel.votingbackend.service.TurnoutTimelineService;
 import danjel.votingbackend.utils.enums.AlbanianCounty;
 import danjel.votingbackend.utils.enums.AlbanianMunicipality;
 import danjel.votingbackend.utils.enums.ElectionStatus;
@@ -20,12 +26,14 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -35,10 +43,18 @@ public class ElectionController {
 
     private final ElectionService electionService;
     private final AuthService authService;
+    private final LiveTallyService liveTallyService;
+    private final RegionalResultsService regionalResultsService;
+    private final TurnoutTimelineService turnoutTimelineService;
 
-    public ElectionController(ElectionService electionService, AuthService authService) {
+    public ElectionController(ElectionService electionService, AuthService authService,
+                              LiveTallyService liveTallyService, RegionalResultsService regionalResultsService,
+                              TurnoutTimelineService turnoutTimelineService) {
         this.electionService = electionService;
         this.authService = authService;
+        this.liveTallyService = liveTallyService;
+        this.regionalResultsService = regionalResultsService;
+        this.turnoutTimelineService = turnoutTimelineService;
     }
 
     // ==================== Admin Endpoints ====================
@@ -255,4 +271,53 @@ public class ElectionController {
         List<PartyResponse> parties = electionService.getPartiesForElection(electionId);
         return ResponseEntity.ok(parties);
     }
+
+    @Operation(
+            summary = "Get live results",
+            description = "Returns current vote counts per candidate and party from the in-memory tally, "
+                    + "optionally restricted to one county or municipality. Admins and election officials only.",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @GetMapping("/{electionId}/results")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ELECTION_OFFICIAL')")
+    public ResponseEntity<LiveResultsResponse> getLiveResults(
+            @Parameter(description = "Election ID") @PathVariable String electionId,
+            @Parameter(description = "Restrict to a county") @RequestParam(required = false) AlbanianCounty county,
+            @Parameter(description = "Restrict to a municipality") @RequestParam(required = false) AlbanianMunicipality municipality) {
+        return ResponseEntity.ok(liveTallyService.results(electionId, county, municipality));
+    }
+
+    @Operation(
+            summary = "Get regional results",
+            description = "Returns sealed-vote results nationally and per county and municipality in one response. "
+                    + "Votes are included once their block is sealed. Admins and election officials only.",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @GetMapping("/{electionId}/results/regional")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ELECTION_OFFICIAL')")
+    public ResponseEntity<RegionalResultsResponse> getRegionalResults(
+            @Parameter(description = "Election ID") @PathVariable String electionId) {
+        return ResponseEntity.ok(regionalResultsService.regionalResults(electionId));
+    }
+
+    @Operation(
+            summary = "Get turnout over time",
+            description = "Returns votes cast per time bucket between two instants (default: the last 24 hours), "
+                    + "for the whole election or one county. Admins and election officials only.",
+            security = @SecurityRequirement(name = "Bearer Authentication")
+    )
+    @GetMapping("/{electionId}/turnout")
+    @PreAuthorize("hasAnyRole('ADMIN', 'ELECTION_OFFICIAL')")
+    public ResponseEntity<TurnoutSeriesResponse> getTurnout(
+            @Parameter(description = "Election ID") @PathVariable String electionId,
+            @Parameter(description = "Range start (ISO date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @Parameter(description = "Range end (ISO date-time)")
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @Parameter(description = "Restrict to a county") @RequestParam(required = false) AlbanianCounty county,
+            @Parameter(description = "Bucket size in minutes") @RequestParam(defaultValue = "1") int step) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minusDays(1);
+        return ResponseEntity.ok(turnoutTimelineService.turnout(electionId, start, end, county, step));
+    }
 }
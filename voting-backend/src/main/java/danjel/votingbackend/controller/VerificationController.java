@@ -1,5 +1,6 @@
 package danjel.votingbackend.controller;
 
+import danjel.votingbackend.dto.ChainValidationReport;
 import danjel.votingbackend.dto.VerificationResponse;
 import danjel.votingbackend.service.BlockchainService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -8,8 +9,10 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.Map;
 
@@ -71,27 +74,40 @@ public class VerificationController {
 
     @Operation(
             summary = "Validate election blockchain",
-            description = "Validates the full integrity of the blockchain for a given election"
+            description = "Validates the blocks added since the last verified checkpoint. " +
+                    "With full=true every block is re-verified from genesis (audit mode)."
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Validation result"),
+            @ApiResponse(responseCode = "200", description = "Validation report"),
             @ApiResponse(responseCode = "404", description = "Election not found")
     })
     @GetMapping("/blockchain/{electionId}/validate")
-    public ResponseEntity<Map<String, Object>> validateBlockchain(
+    public ResponseEntity<ChainValidationReport> validateBlockchain(
+            @Parameter(description = "Election ID") @PathVariable String electionId,
+            @Parameter(description = "Re-verify the whole chain instead of only new blocks")
+            @RequestParam(defaultValue = "false") boolean full) {
+
+        return ResponseEntity.ok(blockchainService.validateChain(electionId, full));
+    }
+
+    @Operation(
+            summary = "Export election blockchain",
+            description = "Streams every block with its vote hashes as newline-delimited JSON, " +
+                    "so observers can re-verify the chain independently"
+    )
+    @GetMapping(value = "/blockchain/{electionId}/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportBlockchain(
             @Parameter(description = "Election ID") @PathVariable String electionId) {
 
-        return ResponseEntity.ok(Map.of(
-                "electionId",        electionId,
-                "chainValid",        blockchainService.validateChain(electionId),
-                "blockCount",        blockchainService.getBlockCount(electionId),
-                "totalTransactions", blockchainService.getTotalTransactions(electionId)
-        ));
+        StreamingResponseBody body = out -> blockchainService.exportChain(electionId, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
     }
 
     @Operation(
             summary = "Get blockchain statistics",
-            description = "Returns block count, transaction count, and chain validity for an election"
+            description = "Returns block count, transaction count, chain validity and the latest mining hash rate for an election"
     )
     @GetMapping("/blockchain/{electionId}/stats")
     public ResponseEntity<Map<String, Object>> getBlockchainStats(
@@ -101,7 +117,10 @@ public class VerificationController {
                 "electionId",        electionId,
                 "blockCount",        blockchainService.getBlockCount(electionId),
                 "totalTransactions", blockchainService.getTotalTransactions(electionId),
-                "chainValid",        blockchainService.validateChain(electionId)
+                "chainValid",        blockchainService.validateChain(electionId),
+                "miningHashRate",    blockchainService.getMiningHashRate(electionId),
+                "ingestRate",        blockchainService.getIngestRate(electionId),
+                "targetBlockSize",   blockchainService.getTargetBlockSize(electionId)
         ));
     }
 }
\ No newline at end of file
@@ -1,9 +1,13 @@
 package danjel.votingbackend.controller;
 
+import danjel.votingbackend.dto.BatchVoteRequest;
+import danjel.votingbackend.dto.BatchVoteResponse;
+import danjel.votingbackend.dto.VoteIntakeResponse;
 import danjel.votingbackend.dto.VoteRequest;
 import danjel.votingbackend.dto.VoteResponse;
 import danjel.votingbackend.dto.election.CandidateResponse;
 import danjel.votingbackend.service.JwtService;
+import danjel.votingbackend.service.VoteIntakeService;
 import danjel.votingbackend.service.VotingService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -28,12 +32,15 @@ import java.util.List;
 @SecurityRequirement(name = "Bearer Authentication")
 public class VotingController {
 
-    private final VotingService votingService;
-    private final JwtService    jwtService;
+    private final VotingService     votingService;
+    private final JwtService        jwtService;
+    private final VoteIntakeService voteIntakeService;
 
-    public VotingController(VotingService votingService, JwtService jwtService) {
-        this.votingService = votingService;
-        this.jwtService    = jwtService;
+    public VotingController(VotingService votingService, JwtService jwtService,
+                            VoteIntakeService voteIntakeService) {
+        this.votingService     = votingService;
+        this.jwtService        = jwtService;
+        this.voteIntakeService = voteIntakeService;
     }
 
     // ── Cast vote ─────────────────────────────────────────────────────────────
@@ -66,6 +73,72 @@ public class VotingController {
         return ResponseEntity.ok(votingService.castVote(voterId, request));
     }
 
+    // ── Cast vote asynchronously ──────────────────────────────────────────────
+
+    @Operation(
+            summary = "Accept a vote for asynchronous casting",
+            description = """
+                    Runs the same checks as POST /api/v1/vote, stores the vote and returns
+                    202 with a receipt token straight away. The vote is cast shortly after
+                    by a background worker; poll GET /api/v1/vote/receipt/{receiptToken}
+                    for the outcome. Once cast, the token also works with
+                    GET /api/v1/verification/vote/receipt/{token}.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Vote accepted",
+                    content = @Content(schema = @Schema(implementation = VoteIntakeResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Invalid vote or voter not eligible"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated")
+    })
+    @PostMapping("/async")
+    public ResponseEntity<VoteIntakeResponse> acceptVote(
+            HttpServletRequest httpRequest,
+            @Valid @RequestBody VoteRequest request) {
+
+        String voterId = extractVoterId(httpRequest);
+        return ResponseEntity.accepted().body(voteIntakeService.accept(voterId, request));
+    }
+
+    @Operation(
+            summary = "Status of an accepted vote",
+            description = "PENDING until the vote is cast, then CAST with its vote hash, or REJECTED with the reason"
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Status retrieved"),
+            @ApiResponse(responseCode = "400", description = "Receipt not found"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated")
+    })
+    @GetMapping("/receipt/{receiptToken}")
+    public ResponseEntity<VoteIntakeResponse> getIntakeStatus(
+            @Parameter(description = "Receipt token returned on acceptance") @PathVariable String receiptToken) {
+        return ResponseEntity.ok(voteIntakeService.status(receiptToken));
+    }
+
+    // ── Cast votes in batch ───────────────────────────────────────────────────
+
+    @Operation(
+            summary = "Cast a batch of votes",
+            description = """
+                    Submits ballots relayed by a polling-station gateway in one request.
+                    Each ballot names its voter and carries that voter's device signature,
+                    and is checked exactly like a single vote. Rejected ballots do not
+                    affect the others; the response lists one result per ballot, in order.
+                    Requires the ADMIN role.
+                    """
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Batch processed; see per-ballot results",
+                    content = @Content(schema = @Schema(implementation = BatchVoteResponse.class))),
+            @ApiResponse(responseCode = "400", description = "Malformed batch"),
+            @ApiResponse(responseCode = "401", description = "Not authenticated"),
+            @ApiResponse(responseCode = "403", description = "Caller is not an admin")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<BatchVoteResponse> castVotes(@Valid @RequestBody BatchVoteRequest request) {
+        return ResponseEntity.ok(votingService.castVotes(request.getBallots()));
+    }
+
     // ── Get candidates ────────────────────────────────────────────────────────
 
     @Operation(
@@ -0,0 +1,34 @@
+package danjel.votingbackend.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Ballots relayed by a polling-station gateway. Each ballot carries the
+ * voter it belongs to and is signed by that voter's registered device key,
+ * exactly as a single {@link VoteRequest} would be.
+ */
+@Setter
+@Getter
+public class BatchVoteRequest {
+
+    public static final int MAX_BALLOTS = 500;
+
+    @NotEmpty(message = "At least one ballot is required")
+    @Size(max = MAX_BALLOTS, message = "At most " + MAX_BALLOTS + " ballots per batch")
+    private List<@Valid SignedBallot> ballots;
+
+    @Setter
+    @Getter
+    public static class SignedBallot extends VoteRequest {
+
+        @NotBlank(message = "Voter ID is required")
+        private String voterId;
+    }
+}
@@ -0,0 +1,20 @@
+package danjel.votingbackend.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+/**
+ * Outcome of a batch, one {@link VoteResponse} per ballot in request order.
+ * Rejected ballots have {@code success = false} and the reason as message;
+ * they do not affect the other ballots.
+ */
+@Setter
+@Getter
+public class BatchVoteResponse {
+
+    private int accepted;
+    private int rejected;
+    private List<VoteResponse> results;
+}
@@ -0,0 +1,44 @@
+package danjel.votingbackend.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Outcome of one chain validation run.
+ *
+ * Incremental runs only check the blocks after the stored checkpoint;
+ * {@code fullAudit} runs re-check every block from genesis.
+ */
+@Setter
+@Getter
+public class ChainValidationReport {
+
+    private String electionId;
+    private boolean chainValid;
+    private boolean fullAudit;
+
+    /** Block the run started after (the previous checkpoint), or null from genesis. */
+    private Long checkedFromBlock;
+    private long blocksChecked;
+    /** Checkpoint stored after the run; unchanged when the run failed. */
+    private Long checkpointBlock;
+
+    private Long firstInvalidBlock;
+    private String failureReason;
+
+    private long elapsedMs;
+    private double blocksPerSecond;
+
+    public ChainValidationReport() {}
+
+    public ChainValidationReport(String electionId, boolean fullAudit) {
+        this.electionId = electionId;
+        this.fullAudit = fullAudit;
+    }
+
+    public void fail(long blockNumber, String reason) {
+        this.chainValid = false;
+        this.firstInvalidBlock = blockNumber;
+        this.failureReason = reason;
+    }
+}
@@ -0,0 +1,45 @@
+package danjel.votingbackend.dto;
+
+import danjel.votingbackend.model.Block;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One line of a chain export: everything needed to recompute the block's
+ * Merkle root and hash and to check its validator signature offline.
+ */
+@Setter
+@Getter
+public class ExportedBlock {
+
+    private long blockNumber;
+    private String blockHash;
+    private String previousHash;
+    private String merkleRoot;
+    private LocalDateTime timestamp;
+    private long nonce;
+    private int difficulty;
+    private Integer headerVersion;
+    private String validatorSignature;
+    private List<String> voteHashes;
+
+    public ExportedBlock() {}
+
+    public static ExportedBlock from(Block block) {
+        ExportedBlock exported = new ExportedBlock();
+        exported.setBlockNumber(block.getBlockNumber());
+        exported.setBlockHash(block.getBlockHash());
+        exported.setPreviousHash(block.getPreviousHash());
+        exported.setMerkleRoot(block.getMerkleRoot());
+        exported.setTimestamp(block.getTimestamp());
+        exported.setNonce(block.getNonce());
+        exported.setDifficulty(block.getDifficulty());
+        exported.setHeaderVersion(block.getHeaderVersion());
+        exported.setValidatorSignature(block.getValidatorSignature());
+        exported.setVoteHashes(List.copyOf(block.getVoteHashes()));
+        return exported;
+    }
+}
@@ -0,0 +1,50 @@
+package danjel.votingbackend.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Inclusion proof for one vote in a block's Merkle tree.
+ *
+ * To verify: start from {@code leafHash}, and for every step hash the running
+ * value together with {@code step.hash} — sibling on the LEFT means
+ * H(sibling ‖ running), on the RIGHT means H(running ‖ sibling). The result
+ * must equal {@code merkleRoot}, which is committed to by the block hash.
+ *
+ * For treeVersion ≥ 3 all hashes are hex-encoded raw digests and nodes are
+ * hashed as raw bytes. For older blocks the values are the legacy strings
+ * (Base64 leaves, hex inner nodes) and nodes are hashed as concatenated text.
+ */
+@Setter
+@Getter
+public class MerkleProof {
+
+    private String voteHash;
+    private String leafHash;
+    private int leafIndex;
+    private int leafCount;
+    private String merkleRoot;
+    private int treeVersion;
+    private List<Step> path = new ArrayList<>();
+
+    public MerkleProof() {}
+
+    public enum Side { LEFT, RIGHT }
+
+    @Setter
+    @Getter
+    public static class Step {
+        private String hash;
+        private Side side;
+
+        public Step() {}
+
+        public Step(String hash, Side side) {
+            this.hash = hash;
+            this.side = side;
+        }
+    }
+}
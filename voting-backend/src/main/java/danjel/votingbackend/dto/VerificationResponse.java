@@ -16,7 +16,7 @@ public class VerificationResponse {
     private String blockHash;
     private LocalDateTime voteTimestamp;
     private LocalDateTime verificationTimestamp;
-    private String merkleProof;
+    private MerkleProof merkleProof;
     private boolean blockchainConsistent;
     private String message;
     private String electionId;
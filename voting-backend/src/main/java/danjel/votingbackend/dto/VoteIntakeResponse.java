@@ -0,0 +1,26 @@
+package danjel.votingbackend.dto;
+
+import danjel.votingbackend.utils.enums.IntakeStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Returned with 202 when a vote is accepted for asynchronous casting, and by
+ * the receipt status endpoint afterwards.
+ */
+@Setter
+@Getter
+public class VoteIntakeResponse {
+
+    private String        receiptToken;
+    private IntakeStatus  status;
+    private String        message;
+    private LocalDateTime acceptedAt;
+    private LocalDateTime processedAt;
+
+    /** Set once cast; the vote can then be verified like any other. */
+    private String voteHash;
+    private String verificationCode;
+}
@@ -0,0 +1,32 @@
+package danjel.votingbackend.dto.election;
+
+import danjel.votingbackend.utils.enums.AlbanianCounty;
+import danjel.votingbackend.utils.enums.AlbanianMunicipality;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * Vote counts served from the live tally, for the whole election or one
+ * region. Candidates and parties are keyed by id, ordered by votes.
+ */
+@Setter
+@Getter
+public class LiveResultsResponse {
+
+    private String electionId;
+    private AlbanianCounty county;
+    private AlbanianMunicipality municipality;
+    private long totalVotes;
+    private Map<String, Long> candidates = Map.of();
+    private Map<String, Long> parties = Map.of();
+    /** Only for whole-election results. */
+    private Map<AlbanianCounty, Long> counties;
+    /** Municipalities within the requested scope; absent for a single municipality. */
+    private Map<AlbanianMunicipality, Long> municipalities;
+    private LocalDateTime asOf;
+
+    public LiveResultsResponse() {}
+}
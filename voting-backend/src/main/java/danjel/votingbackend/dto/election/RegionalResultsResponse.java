@@ -0,0 +1,52 @@
+package danjel.votingbackend.dto.election;
+
+import danjel.votingbackend.utils.enums.AlbanianCounty;
+import danjel.votingbackend.utils.enums.AlbanianMunicipality;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sealed-vote results of one election, nationally and per county and
+ * municipality. Parties and candidates are keyed by id, ordered by votes.
+ */
+@Setter
+@Getter
+public class RegionalResultsResponse {
+
+    private String electionId;
+    private long totalVotes;
+    private Map<String, Long> parties = new LinkedHashMap<>();
+    private Map<String, Long> candidates = new LinkedHashMap<>();
+    private List<CountyResult> counties = new ArrayList<>();
+    /** Time of the latest block counted in these results. */
+    private LocalDateTime asOf;
+
+    public RegionalResultsResponse() {}
+
+    @Setter
+    @Getter
+    public static class CountyResult {
+        private AlbanianCounty county;
+        private String countyName;
+        private long totalVotes;
+        private Map<String, Long> parties = new LinkedHashMap<>();
+        private Map<String, Long> candidates = new LinkedHashMap<>();
+        private List<MunicipalityResult> municipalities = new ArrayList<>();
+    }
+
+    @Setter
+    @Getter
+    public static class MunicipalityResult {
+        private AlbanianMunicipality municipality;
+        private String municipalityName;
+        private long totalVotes;
+        private Map<String, Long> parties = new LinkedHashMap<>();
+        private Map<String, Long> candidates = new LinkedHashMap<>();
+    }
+}
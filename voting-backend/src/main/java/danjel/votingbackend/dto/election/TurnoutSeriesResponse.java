@@ -0,0 +1,39 @@
+package danjel.votingbackend.dto.election;
+
+import danjel.votingbackend.utils.enums.AlbanianCounty;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Votes cast per time bucket for one election, optionally one county.
+ * Every bucket in the range is present, including empty ones.
+ */
+@Setter
+@Getter
+public class TurnoutSeriesResponse {
+
+    private String electionId;
+    private AlbanianCounty county;
+    private LocalDateTime from;
+    private LocalDateTime to;
+    private int stepMinutes;
+    private long totalVotes;
+    private List<Point> points = new ArrayList<>();
+
+    public TurnoutSeriesResponse() {}
+
+    @Getter
+    public static class Point {
+        private final LocalDateTime start;
+        private final long votes;
+
+        public Point(LocalDateTime start, long votes) {
+            this.start = start;
+            this.votes = votes;
+        }
+    }
+}
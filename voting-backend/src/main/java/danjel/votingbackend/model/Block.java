@@ -1,6 +1,9 @@
 package danjel.votingbackend.model;
 
 
+import danjel.votingbackend.model.converter.Base64Hash256Converter;
+import danjel.votingbackend.model.converter.HexHash256Converter;
+import danjel.votingbackend.utils.Hash256;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
@@ -27,13 +30,16 @@ public class Block extends BaseEntity {
     @Column(nullable = false)
     private LocalDateTime timestamp;
 
-    @Column(nullable = false, unique = true, length = 2048)
+    @Convert(converter = HexHash256Converter.class)
+    @Column(nullable = false, unique = true, length = Hash256.LENGTH)
     private String blockHash;
 
-    @Column(nullable = false, length = 2048)
+    @Convert(converter = HexHash256Converter.class)
+    @Column(nullable = false, length = Hash256.LENGTH)
     private String previousHash;
 
-    @Column(nullable = false, length = 64)
+    @Convert(converter = HexHash256Converter.class)
+    @Column(nullable = false, length = Hash256.LENGTH)
     private String merkleRoot;
 
     @Column(nullable = false)
@@ -42,9 +48,38 @@ public class Block extends BaseEntity {
     @Column(nullable = false)
     private int difficulty;
 
+    /**
+     * Header serialization the block hash was computed over
+     * (see service.blockchain.BlockHeader). Null for blocks mined before
+     * versioning was introduced — those use the legacy text layout.
+     */
+    @Column
+    private Integer headerVersion;
+
+    /**
+     * Merkle leaves in block order. The order is stored in leaf_index: the
+     * Merkle root, proofs and block_vote_index leaf numbers all depend on it,
+     * and the database does not return collection rows in insertion order.
+     *
+     * Databases created before leaf_index existed get the column added empty
+     * and need it filled before blocks are loaded again — from
+     * block_vote_index where a block was indexed, otherwise in the physical
+     * row order the leaves were previously read back in:
+     *
+     *   UPDATE block_vote_hashes h SET leaf_index = i.leaf_index
+     *     FROM block_vote_index i
+     *     WHERE i.block_id = h.block_id AND i.vote_hash = encode(h.vote_hash, 'base64');
+     *   UPDATE block_vote_hashes h SET leaf_index = o.n
+     *     FROM (SELECT ctid, row_number() OVER (PARTITION BY block_id ORDER BY ctid) - 1 AS n
+     *           FROM block_vote_hashes) o
+     *     WHERE h.ctid = o.ctid AND h.leaf_index IS NULL;
+     *   ALTER TABLE block_vote_hashes ALTER COLUMN leaf_index SET NOT NULL;
+     */
     @ElementCollection
     @CollectionTable(name = "block_vote_hashes", joinColumns = @JoinColumn(name = "block_id"))
-    @Column(name = "vote_hash")
+    @OrderColumn(name = "leaf_index")
+    @Convert(converter = Base64Hash256Converter.class)
+    @Column(name = "vote_hash", length = Hash256.LENGTH)
     private List<String> voteHashes = new ArrayList<>();
 
     @ManyToOne(fetch = FetchType.LAZY)
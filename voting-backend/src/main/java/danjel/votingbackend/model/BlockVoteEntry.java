@@ -0,0 +1,70 @@
+package danjel.votingbackend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+/**
+ * Block-membership index: which block a vote hash was sealed into, and at
+ * which leaf of that block's Merkle tree.
+ *
+ * Written in the same transaction as the block itself. Receipt checks use
+ * it to go straight to the block and leaf instead of searching the
+ * block_vote_hashes collection table.
+ *
+ * The vote hash is the primary key and, unlike the other hash columns, is
+ * stored as Base64 text: JPA does not apply converters to @Id attributes.
+ * Rows are always inserted, never merged, so {@link #isNew()} is true until
+ * the row has been persisted or loaded — this keeps saveAll a batched INSERT
+ * without a SELECT per row.
+ */
+@Entity
+@Table(name = "block_vote_index", indexes = {
+        @Index(name = "idx_block_vote_index_block", columnList = "block_id")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class BlockVoteEntry implements Persistable<String> {
+
+    @Id
+    @Column(name = "vote_hash", length = 64, nullable = false)
+    private String voteHash;
+
+    @Column(name = "block_id", length = 36, nullable = false)
+    private String blockId;
+
+    @Column(name = "block_number", nullable = false)
+    private Long blockNumber;
+
+    @Column(name = "leaf_index", nullable = false)
+    private int leafIndex;
+
+    @Transient
+    private boolean persisted;
+
+    public BlockVoteEntry(String voteHash, String blockId, Long blockNumber, int leafIndex) {
+        this.voteHash    = voteHash;
+        this.blockId     = blockId;
+        this.blockNumber = blockNumber;
+        this.leafIndex   = leafIndex;
+    }
+
+    @Override
+    public String getId() {
+        return voteHash;
+    }
+
+    @Override
+    public boolean isNew() {
+        return !persisted;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        this.persisted = true;
+    }
+}
@@ -0,0 +1,48 @@
+package danjel.votingbackend.model;
+
+import danjel.votingbackend.model.converter.HexHash256Converter;
+import danjel.votingbackend.utils.Hash256;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Highest block of an election whose chain has been verified (hash,
+ * signature and link back to genesis). Incremental validation starts after
+ * this block instead of re-checking the whole chain.
+ *
+ * The block hash is stored so a later rewrite of the checkpointed block is
+ * caught. Blocks before it are only re-checked by a full audit.
+ */
+@Entity
+@Table(name = "chain_checkpoints")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ChainCheckpoint {
+
+    @Id
+    @Column(name = "election_id", length = 36, nullable = false)
+    private String electionId;
+
+    @Column(name = "block_number", nullable = false)
+    private Long blockNumber;
+
+    @Convert(converter = HexHash256Converter.class)
+    @Column(name = "block_hash", nullable = false, length = Hash256.LENGTH)
+    private String blockHash;
+
+    @Column(name = "verified_at", nullable = false)
+    private LocalDateTime verifiedAt;
+
+    /** When the whole chain was last re-verified from genesis; null if never. */
+    @Column(name = "full_audit_at")
+    private LocalDateTime fullAuditAt;
+
+    public ChainCheckpoint(String electionId) {
+        this.electionId = electionId;
+    }
+}
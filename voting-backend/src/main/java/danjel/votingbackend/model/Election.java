@@ -68,7 +68,11 @@ public class Election extends BaseEntity {
     @Column(nullable = false)
     private long totalEligibleVoters = 0;
 
-    @Column(nullable = false)
+    /**
+     * Maintained only by ElectionVoteCounter's bulk updates; excluded from
+     * entity updates so saving an election never overwrites the count.
+     */
+    @Column(nullable = false, updatable = false)
     private long totalVotesCast = 0;
 
     @Column
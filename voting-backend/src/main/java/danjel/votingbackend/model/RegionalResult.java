@@ -0,0 +1,63 @@
+package danjel.votingbackend.model;
+
+import danjel.votingbackend.utils.enums.AlbanianCounty;
+import danjel.votingbackend.utils.enums.AlbanianMunicipality;
+import danjel.votingbackend.utils.enums.ResultChoice;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Rollup of sealed votes per election, municipality and choice.
+ *
+ * One row per (election, municipality, choice type, choice id). TOTAL rows
+ * count every sealed vote in the municipality and use an empty choice id;
+ * PARTY and CANDIDATE rows count votes for that party or candidate. County
+ * figures are the sum of their municipalities.
+ *
+ * Rows are upserted in the same transaction that seals a block, so the
+ * table always matches the anchored votes exactly. Pending votes are not
+ * included until their block is sealed.
+ */
+@Entity
+@Table(name = "regional_results", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_regional_result",
+                columnNames = {"election_id", "municipality", "choice_type", "choice_id"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class RegionalResult {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "election_id", length = 36, nullable = false)
+    private String electionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "county", nullable = false)
+    private AlbanianCounty county;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "municipality", nullable = false)
+    private AlbanianMunicipality municipality;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "choice_type", length = 16, nullable = false)
+    private ResultChoice choiceType;
+
+    /** Party or candidate id; empty for TOTAL rows. */
+    @Column(name = "choice_id", length = 36, nullable = false)
+    private String choiceId;
+
+    @Column(name = "votes", nullable = false)
+    private long votes;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,40 @@
+package danjel.votingbackend.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * Persisted turnout of one election for one minute.
+ *
+ * {@code epochMinute} is the minute's start as minutes since 1970-01-01T00:00 in
+ * the same local time as {@code Vote.timestamp}. {@code counts} packs the
+ * minute's vote counts as big-endian longs: index 0 is the whole election,
+ * index 1 + ordinal is each
+ * {@link danjel.votingbackend.utils.enums.AlbanianCounty}. Each snapshot
+ * overwrites the row with the in-memory bucket, so the last write always
+ * holds the full count.
+ */
+@Entity
+@Table(name = "turnout_snapshots", uniqueConstraints = {
+        @UniqueConstraint(name = "uq_turnout_snapshot", columnNames = {"election_id", "epoch_minute"})
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class TurnoutSnapshot {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "election_id", length = 36, nullable = false)
+    private String electionId;
+
+    @Column(name = "epoch_minute", nullable = false)
+    private long epochMinute;
+
+    @Column(name = "counts", nullable = false)
+    private byte[] counts;
+}
@@ -1,5 +1,8 @@
 package danjel.votingbackend.model;
 
+import danjel.votingbackend.model.converter.Base64Hash256Converter;
+import danjel.votingbackend.model.converter.HexHash256Converter;
+import danjel.votingbackend.utils.Hash256;
 import danjel.votingbackend.utils.enums.AlbanianCounty;
 import danjel.votingbackend.utils.enums.AlbanianMunicipality;
 import jakarta.persistence.*;
@@ -19,10 +22,16 @@ import java.time.LocalDateTime;
         @Index(name = "idx_vote_blockchain_tx",  columnList = "blockchainTransactionId"),
         @Index(name = "idx_vote_timestamp",      columnList = "timestamp"),
         @Index(name = "idx_vote_county",         columnList = "county"),
-        @Index(name = "idx_vote_municipality",   columnList = "municipality")
+        @Index(name = "idx_vote_municipality",   columnList = "municipality"),
+        @Index(name = "idx_vote_block_number",   columnList = "blockNumber")
+}, uniqueConstraints = {
+        // One ballot per voter per election, enforced by the insert itself
+        @UniqueConstraint(name = Vote.VOTER_ELECTION_CONSTRAINT, columnNames = {"voterHash", "election_id"})
 })
 public class Vote extends BaseEntity {
 
+    public static final String VOTER_ELECTION_CONSTRAINT = "uq_vote_voter_election";
+
     // ── Mandatory relations ───────────────────────────────────────────────────
 
     @ManyToOne(fetch = FetchType.LAZY)
@@ -51,27 +60,32 @@ public class Vote extends BaseEntity {
      * SHA-256(voterId + electionId + salt) — links the ballot to a voter
      * without exposing the voter's identity.
      */
-    @Column(nullable = false, length = 2048)
+    @Convert(converter = Base64Hash256Converter.class)
+    @Column(nullable = false, length = Hash256.LENGTH)
     private String voterHash;
 
     @Column(nullable = false, length = 2048)
     private String encryptedVoteData;
 
-    @Column(nullable = false, unique = true, length = 2048)
+    @Convert(converter = Base64Hash256Converter.class)
+    @Column(nullable = false, unique = true, length = Hash256.LENGTH)
     private String voteHash;
 
     // ── Blockchain anchoring ──────────────────────────────────────────────────
 
-    @Column(length = 2048)
+    @Convert(converter = HexHash256Converter.class)
+    @Column(length = Hash256.LENGTH)
     private String blockchainTransactionId;
 
     @Column
     private Long blockNumber;
 
-    @Column( length = 2048)
+    @Convert(converter = HexHash256Converter.class)
+    @Column(length = Hash256.LENGTH)
     private String previousBlockHash;
 
-    @Column( length = 2048)
+    @Convert(converter = HexHash256Converter.class)
+    @Column(length = Hash256.LENGTH)
     private String currentBlockHash;
 
     // ── Metadata ──────────────────────────────────────────────────────────────
@@ -0,0 +1,107 @@
+package danjel.votingbackend.model;
+
+import danjel.votingbackend.utils.enums.IntakeStatus;
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * A vote accepted by POST /api/v1/vote/async and waiting to be cast.
+ *
+ * The row is the durable queue entry: it is written when the vote is
+ * accepted and cast later by VoteIntakeService in batches. The voter is
+ * never stored in the clear: {@code voterRef} is the voter id sealed with a
+ * server-side key and only opened when the row is cast, so a row — or a
+ * dead tuple, WAL segment or backup of it — does not link a voter to their
+ * choice without that key, the same secret that protects Vote.voterHash.
+ * The ballot payload is still cleared as soon as the row is processed;
+ * afterwards only the receipt token, the outcome and (once cast) the vote
+ * hash remain.
+ *
+ * Databases created before voterRef replaced the plaintext voter_id column
+ * keep that column, and its old values, until it is dropped once no row
+ * is PENDING:
+ *
+ *   ALTER TABLE vote_intake DROP COLUMN voter_id;
+ */
+@Entity
+@Table(name = "vote_intake", indexes = {
+        @Index(name = "idx_vote_intake_status", columnList = "status")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+public class VoteIntake extends BaseEntity {
+
+    @Column(nullable = false, unique = true)
+    private String receiptToken;
+
+    @Enumerated(EnumType.STRING)
+    @Column(length = 16, nullable = false)
+    private IntakeStatus status = IntakeStatus.PENDING;
+
+    @Column(length = 36, nullable = false)
+    private String electionId;
+
+    // ── Ballot payload (cleared once processed) ───────────────────────────────
+
+    /** Base64 of the AES-GCM sealed voter id; see VoteIntakeService. */
+    @Column(length = 128)
+    private String voterRef;
+
+    @Column(length = 36)
+    private String candidateId;
+
+    @Column(length = 36)
+    private String partyId;
+
+    @Column(length = 2048)
+    private String encryptedVoteData;
+
+    @Column(length = 2048)
+    private String digitalSignature;
+
+    @Column
+    private String nonce;
+
+    @Column
+    private String votingStationId;
+
+    // ── Outcome ───────────────────────────────────────────────────────────────
+
+    /** Base64 hash of the cast vote, for GET /verification/vote/{voteHash}. */
+    @Column
+    private String voteHash;
+
+    @Column
+    private String rejectionReason;
+
+    @Column
+    private LocalDateTime processedAt;
+
+    public void markCast(String voteHash) {
+        this.status   = IntakeStatus.CAST;
+        this.voteHash = voteHash;
+        finish();
+    }
+
+    public void markRejected(String reason) {
+        this.status          = IntakeStatus.REJECTED;
+        this.rejectionReason = reason;
+        finish();
+    }
+
+    private void finish() {
+        this.processedAt       = LocalDateTime.now();
+        this.voterRef          = null;
+        this.candidateId       = null;
+        this.partyId           = null;
+        this.encryptedVoteData = null;
+        this.digitalSignature  = null;
+        this.nonce             = null;
+        this.votingStationId   = null;
+    }
+}
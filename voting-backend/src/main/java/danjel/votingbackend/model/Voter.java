@@ -70,8 +70,9 @@ public class Voter extends BaseEntity {
     // ── Voting state ──────────────────────────────────────────────────────────
 
     /**
-     * Set of election IDs this voter has already cast a ballot for.
-     * Maintained alongside the Vote table for fast O(1) duplicate-vote checks.
+     * Election IDs this voter cast a ballot for before double voting moved to
+     * the unique (voterHash, election) constraint on votes. No longer
+     * written; kept so existing rows stay mapped.
      */
     @ElementCollection
     @CollectionTable(
@@ -117,14 +118,6 @@ public class Voter extends BaseEntity {
         return firstName + " " + lastName;
     }
 
-    public boolean hasVotedIn(String electionId) {
-        return votedElectionIds.contains(electionId);
-    }
-
-    public void recordVote(String electionId) {
-        votedElectionIds.add(electionId);
-    }
-
     /** Age check: must be ≥ 18 at the time of this call. */
     public boolean isAgeEligible() {
         return !LocalDate.now().minusYears(18).isBefore(dateOfBirth);
@@ -0,0 +1,20 @@
+package danjel.votingbackend.model.converter;
+
+import danjel.votingbackend.utils.Hash256;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/** Stores a Base64 SHA-256 string (vote and voter hashes) as its 32 raw bytes. */
+@Converter
+public class Base64Hash256Converter implements AttributeConverter<String, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(String base64) {
+        return base64 == null ? null : Hash256.fromBase64(base64).toBytes();
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] bytes) {
+        return bytes == null ? null : Hash256.of(bytes).toBase64();
+    }
+}
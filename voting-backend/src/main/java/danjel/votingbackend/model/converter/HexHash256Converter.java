@@ -0,0 +1,23 @@
+package danjel.votingbackend.model.converter;
+
+import danjel.votingbackend.utils.Hash256;
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+
+/**
+ * Stores a lowercase-hex SHA-256 string (block hashes, Merkle roots,
+ * transaction ids) as its 32 raw bytes.
+ */
+@Converter
+public class HexHash256Converter implements AttributeConverter<String, byte[]> {
+
+    @Override
+    public byte[] convertToDatabaseColumn(String hex) {
+        return hex == null ? null : Hash256.fromHex(hex).toBytes();
+    }
+
+    @Override
+    public String convertToEntityAttribute(byte[] bytes) {
+        return bytes == null ? null : Hash256.of(bytes).toHex();
+    }
+}
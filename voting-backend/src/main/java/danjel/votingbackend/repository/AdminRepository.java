@@ -20,6 +20,10 @@ public interface AdminRepository extends JpaRepository<Admin, String> {
 
     List<Admin> findByRole(AdminRole role);
 
+    /** Emails of disabled or locked admins, whose tokens are refused. */
+    @Query("SELECT a.email FROM Admin a WHERE a.enabled = false OR a.accountLocked = true")
+    List<String> findRevokedEmails();
+
     @Modifying
     @Query("UPDATE Admin a SET a.failedLoginAttempts = 0, a.accountLocked = false WHERE a.id = :adminId")
     void resetLoginAttempts(@Param("adminId") String adminId);
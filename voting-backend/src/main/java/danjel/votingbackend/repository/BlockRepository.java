@@ -1,6 +1,7 @@
 package danjel.votingbackend.repository;
 
 import danjel.votingbackend.model.Block;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -18,6 +19,8 @@ public interface BlockRepository extends JpaRepository<Block, String> {
 
     Optional<Block> findByBlockNumber(Long blockNumber);
 
+    Optional<Block> findByElectionIdAndBlockNumber(String electionId, Long blockNumber);
+
     @Query("SELECT b FROM Block b WHERE b.election.id = :electionId ORDER BY b.blockNumber DESC LIMIT 1")
     Optional<Block> findLatestBlock(@Param("electionId") String electionId);
 
@@ -30,6 +33,10 @@ public interface BlockRepository extends JpaRepository<Block, String> {
     @Query("SELECT SUM(b.transactionCount) FROM Block b WHERE b.election.id = :electionId")
     Long getTotalTransactionCount(@Param("electionId") String electionId);
 
+    /**
+     * Scans block_vote_hashes; only used for blocks sealed before the
+     * block_vote_index table existed.
+     */
     @Query("SELECT b FROM Block b WHERE b.election.id = :electionId AND :voteHash MEMBER OF b.voteHashes")
     Optional<Block> findBlockContainingVote(@Param("electionId") String electionId,
                                             @Param("voteHash") String voteHash);
@@ -39,4 +46,16 @@ public interface BlockRepository extends JpaRepository<Block, String> {
     @Query("SELECT b FROM Block b WHERE b.election.id = :electionId AND b.blockNumber > :fromBlock ORDER BY b.blockNumber ASC")
     List<Block> findBlocksAfter(@Param("electionId") String electionId,
                                 @Param("fromBlock") Long fromBlock);
+
+    /**
+     * Blocks numbered {@code fromBlock..toBlock} with their vote hashes fetched
+     * in the same query. Block numbers are dense per election, so a number
+     * range is a keyset page and needs no LIMIT next to the collection fetch.
+     */
+    @EntityGraph(attributePaths = "voteHashes")
+    @Query("SELECT b FROM Block b WHERE b.election.id = :electionId " +
+           "AND b.blockNumber BETWEEN :fromBlock AND :toBlock ORDER BY b.blockNumber ASC")
+    List<Block> findBlockRangeWithVoteHashes(@Param("electionId") String electionId,
+                                             @Param("fromBlock") Long fromBlock,
+                                             @Param("toBlock") Long toBlock);
 }
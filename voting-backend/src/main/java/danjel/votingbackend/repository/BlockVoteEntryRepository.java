@@ -0,0 +1,10 @@
+package danjel.votingbackend.repository;
+
+import danjel.votingbackend.model.BlockVoteEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/** Lookups by vote hash (the primary key) via findById. */
+@Repository
+public interface BlockVoteEntryRepository extends JpaRepository<BlockVoteEntry, String> {
+}
@@ -0,0 +1,9 @@
+package danjel.votingbackend.repository;
+
+import danjel.votingbackend.model.ChainCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ChainCheckpointRepository extends JpaRepository<ChainCheckpoint, String> {
+}
@@ -6,9 +6,11 @@ import danjel.votingbackend.utils.enums.ElectionType;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -61,4 +63,17 @@ public interface ElectionRepository extends JpaRepository<Election, String> {
 
     @Query("SELECT e FROM Election e LEFT JOIN FETCH e.candidates LEFT JOIN FETCH e.parties WHERE e.id = :id")
     Optional<Election> findByIdWithCandidatesAndParties(@Param("id") String id);
+
+    // ── Vote counter ──────────────────────────────────────────────────────────
+
+    /** Adds a batch of counted votes without loading the election. */
+    @Modifying
+    @Transactional
+    @Query("UPDATE Election e SET e.totalVotesCast = e.totalVotesCast + :delta WHERE e.id = :id")
+    int addVotesCast(@Param("id") String id, @Param("delta") long delta);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Election e SET e.totalVotesCast = :total WHERE e.id = :id")
+    int setVotesCast(@Param("id") String id, @Param("total") long total);
 }
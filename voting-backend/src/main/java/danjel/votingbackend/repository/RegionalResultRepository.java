@@ -0,0 +1,29 @@
+package danjel.votingbackend.repository;
+
+import danjel.votingbackend.model.RegionalResult;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface RegionalResultRepository extends JpaRepository<RegionalResult, Long> {
+
+    List<RegionalResult> findByElectionId(String electionId);
+
+    /** Election id → sealed votes counted in the rollup (sum of TOTAL rows). */
+    @Query("""
+            SELECT r.electionId, SUM(r.votes)
+            FROM RegionalResult r
+            WHERE r.choiceType = danjel.votingbackend.utils.enums.ResultChoice.TOTAL
+            GROUP BY r.electionId
+            """)
+    List<Object[]> sumTotalsByElection();
+
+    @Modifying
+    @Query("DELETE FROM RegionalResult r WHERE r.electionId = :electionId")
+    int deleteByElectionId(@Param("electionId") String electionId);
+}
@@ -0,0 +1,26 @@
+package danjel.votingbackend.repository;
+
+import danjel.votingbackend.model.TurnoutSnapshot;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface TurnoutSnapshotRepository extends JpaRepository<TurnoutSnapshot, Long> {
+
+    @Query("""
+            SELECT s FROM TurnoutSnapshot s
+            WHERE s.electionId = :electionId AND s.epochMinute BETWEEN :from AND :to
+            ORDER BY s.epochMinute
+            """)
+    List<TurnoutSnapshot> findRange(@Param("electionId") String electionId,
+                                    @Param("from") long from,
+                                    @Param("to") long to);
+
+    @Query("SELECT MAX(s.epochMinute) FROM TurnoutSnapshot s WHERE s.electionId = :electionId")
+    Optional<Long> findLatestMinute(@Param("electionId") String electionId);
+}
@@ -0,0 +1,23 @@
+package danjel.votingbackend.repository;
+
+import danjel.votingbackend.model.VoteIntake;
+import danjel.votingbackend.utils.enums.IntakeStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface VoteIntakeRepository extends JpaRepository<VoteIntake, String> {
+
+    Optional<VoteIntake> findByReceiptToken(String receiptToken);
+
+    /** Ids of accepted votes still to be cast, oldest first. Read at startup to refill the queue. */
+    @Query("SELECT i.id FROM VoteIntake i WHERE i.status = :status ORDER BY i.createdAt ASC")
+    List<String> findIdsByStatus(@Param("status") IntakeStatus status);
+
+    long countByElectionIdAndStatus(String electionId, IntakeStatus status);
+}
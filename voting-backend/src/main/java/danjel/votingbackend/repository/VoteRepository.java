@@ -6,9 +6,11 @@ import danjel.votingbackend.utils.enums.AlbanianMunicipality;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -81,6 +83,44 @@ public interface VoteRepository extends JpaRepository<Vote, String> {
             """)
     List<Object[]> countVotesByPartyInElection(@Param("electionId") String electionId);
 
+    /**
+     * Every election's votes grouped by candidate, party, county and
+     * municipality: election id, candidate id, party id, county,
+     * municipality, count. Read once at startup to seed the live tally.
+     */
+    @Query("""
+            SELECT v.election.id, c.id, p.id, v.county, v.municipality, COUNT(v)
+            FROM Vote v
+            LEFT JOIN v.candidate c
+            LEFT JOIN v.party p
+            GROUP BY v.election.id, c.id, p.id, v.county, v.municipality
+            """)
+    List<Object[]> countVotesByChoiceAndRegion();
+
+    /**
+     * Sealed votes of one election grouped by municipality, candidate and
+     * party: municipality, candidate id, party id, count. Used to rebuild the
+     * regional rollup.
+     */
+    @Query("""
+            SELECT v.municipality, c.id, p.id, COUNT(v)
+            FROM Vote v
+            LEFT JOIN v.candidate c
+            LEFT JOIN v.party p
+            WHERE v.election.id = :electionId AND v.blockNumber IS NOT NULL AND v.municipality IS NOT NULL
+            GROUP BY v.municipality, c.id, p.id
+            """)
+    List<Object[]> countSealedVotesByMunicipalityAndChoice(@Param("electionId") String electionId);
+
+    /** Election id → sealed votes with a municipality, for checking the regional rollup. */
+    @Query("""
+            SELECT v.election.id, COUNT(v)
+            FROM Vote v
+            WHERE v.blockNumber IS NOT NULL AND v.municipality IS NOT NULL
+            GROUP BY v.election.id
+            """)
+    List<Object[]> countSealedVotesByElection();
+
     @Query("SELECT v FROM Vote v WHERE v.election.id = :electionId AND v.verified = false")
     List<Vote> findUnverifiedVotes(@Param("electionId") String electionId);
 
@@ -89,9 +129,53 @@ public interface VoteRepository extends JpaRepository<Vote, String> {
                                           @Param("start") LocalDateTime start,
                                           @Param("end") LocalDateTime end);
 
+    /**
+     * Timestamp and county of every vote cast since {@code since}, without
+     * loading the entities. Used to rebuild the turnout buckets a crash may
+     * have left unsaved.
+     */
+    @Query("SELECT v.timestamp, v.county FROM Vote v WHERE v.election.id = :electionId AND v.timestamp >= :since")
+    List<Object[]> findTimestampsAndCountiesSince(@Param("electionId") String electionId,
+                                                  @Param("since") LocalDateTime since);
+
     /**
      * Find a block's votes by their hashes — used for Merkle-proof lookups.
      */
     @Query("SELECT v FROM Vote v WHERE v.voteHash IN :hashes")
     List<Vote> findByVoteHashes(@Param("hashes") List<String> hashes);
-}
\ No newline at end of file
+
+    // ── Blockchain anchoring ──────────────────────────────────────────────────
+
+    /**
+     * Elections with votes that were persisted but never sealed into a block —
+     * e.g. because the process died with them still in the pending queue.
+     */
+    @Query("SELECT DISTINCT v.election.id FROM Vote v WHERE v.blockNumber IS NULL")
+    List<String> findElectionIdsWithUnanchoredVotes();
+
+    @Query("SELECT v FROM Vote v WHERE v.election.id = :electionId AND v.blockNumber IS NULL ORDER BY v.timestamp ASC")
+    List<Vote> findUnanchoredVotes(@Param("electionId") String electionId);
+
+    /**
+     * Anchors every vote of a freshly mined block in one set-based UPDATE,
+     * instead of loading and saving each Vote entity separately.
+     * Bypasses the persistence context, so updatedAt is set explicitly.
+     */
+    @Modifying
+    @Transactional
+    @Query("""
+            UPDATE Vote v
+            SET v.blockNumber       = :blockNumber,
+                v.previousBlockHash = :previousBlockHash,
+                v.currentBlockHash  = :currentBlockHash,
+                v.verified          = true,
+                v.verifiedAt        = :verifiedAt,
+                v.updatedAt         = :verifiedAt
+            WHERE v.id IN :voteIds
+            """)
+    int anchorVotesToBlock(@Param("voteIds") List<String> voteIds,
+                           @Param("blockNumber") Long blockNumber,
+                           @Param("previousBlockHash") String previousBlockHash,
+                           @Param("currentBlockHash") String currentBlockHash,
+                           @Param("verifiedAt") LocalDateTime verifiedAt);
+}
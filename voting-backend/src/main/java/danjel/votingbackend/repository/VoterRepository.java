@@ -53,8 +53,9 @@ public interface VoterRepository extends JpaRepository<Voter, String> {
             "OR LOWER(v.lastName) LIKE LOWER(CONCAT('%', :name, '%'))")
     Page<Voter> searchByName(@Param("name") String name, Pageable pageable);
 
-    @Query("SELECT COUNT(v) FROM Voter v WHERE :electionId MEMBER OF v.votedElectionIds")
-    long countVotersWhoVotedInElection(@Param("electionId") String electionId);
+    /** National ids of disabled voters, whose tokens are refused. */
+    @Query("SELECT v.nationalId FROM Voter v WHERE v.enabled = false")
+    List<String> findDisabledNationalIds();
 
     // ── Updates ───────────────────────────────────────────────────────────────
 
@@ -1,7 +1,10 @@
 package danjel.votingbackend.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import danjel.votingbackend.model.DeviceRegistration;
 import danjel.votingbackend.repository.DeviceRegistrationRepository;
+import danjel.votingbackend.service.NonceValidationService;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -9,7 +12,8 @@ import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
+import javax.crypto.spec.SecretKeySpec;
+import java.time.Duration;
 
 /**
  * ══════════════════════════════════════════════════════════════
@@ -45,19 +49,33 @@ public class DeviceSecretRegistry {
     private final DeviceRegistrationRepository deviceRegistrationRepository;
 
     /**
-     * Look up the HMAC secret for the device that sent this request.
+     * Device ID → ready-to-use HMAC key. Devices without a secret are not
+     * cached: a registration on another instance could not evict the miss,
+     * and until it expired this instance would skip the HMAC check for that
+     * device. registerDevice writes through; the expiry bounds how long a
+     * secret re-registered on another instance stays stale here.
+     */
+    private final Cache<String, SecretKeySpec> deviceKeys = Caffeine.newBuilder()
+            .maximumSize(200_000)
+            .expireAfterWrite(Duration.ofMinutes(2))
+            .build();
+
+    /**
+     * Look up the HMAC key for the device that sent this request.
      *
      * Returns null if the device has not yet registered a secret — the interceptor
      * will fall back to timestamp+nonce-only validation in that case.
      */
-    public byte[] getSecretForRequest(HttpServletRequest request) {
+    public SecretKeySpec getKeyForRequest(HttpServletRequest request) {
         String deviceId = resolveDeviceId(request);
         if (deviceId == null) return null;
 
-        return deviceRegistrationRepository
-                .findByDeviceId(deviceId)
+        // A null result is not cached, so an unregistered device is looked up each time
+        return deviceKeys.get(deviceId, id -> deviceRegistrationRepository
+                .findByDeviceId(id)
                 .map(DeviceRegistration::getHmacSecret)
-                .orElse(null);
+                .map(DeviceSecretRegistry::toKey)
+                .orElse(null));
     }
 
     /**
@@ -79,11 +97,16 @@ public class DeviceSecretRegistry {
         registration.setRegisteredAt(java.time.Instant.now());
 
         deviceRegistrationRepository.save(registration);
+        deviceKeys.put(deviceId, toKey(hmacSecret));
         log.info("Device registered: deviceId={}, voterId={}", deviceId, voterId);
     }
 
     // ─── Private helpers ────────────────────────────────────────────────────────
 
+    private static SecretKeySpec toKey(byte[] hmacSecret) {
+        return new SecretKeySpec(hmacSecret, NonceValidationService.HMAC_ALGORITHM);
+    }
+
     /**
      * Device ID resolution order:
      *   1. JWT claim (preferred — authenticated and tamper-evident)
@@ -10,6 +10,7 @@ import org.springframework.http.MediaType;
 import org.springframework.stereotype.Component;
 import org.springframework.web.servlet.HandlerInterceptor;
 
+import javax.crypto.spec.SecretKeySpec;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
@@ -73,12 +74,12 @@ public class ReplayPreventionInterceptor implements HandlerInterceptor {
         // use the overloaded validateTimestampAndNonceOnly() for /auth/id-card.
         // For all voting endpoints a registered secret is required.
         String path = request.getRequestURI();
-        byte[] deviceSecret = deviceSecretRegistry.getSecretForRequest(request);
+        SecretKeySpec deviceKey = deviceSecretRegistry.getKeyForRequest(request);
 
         // ── 3. Validate nonce + timestamp (+ HMAC if secret available) ────────────
         try {
-            if (deviceSecret != null) {
-                nonceValidationService.validate(nonce, timestamp, path, signature, deviceSecret);
+            if (deviceKey != null) {
+                nonceValidationService.validate(nonce, timestamp, path, signature, deviceKey);
             } else {
                 // Migration mode: timestamp + nonce only, no HMAC verification yet
                 // TODO: Remove this branch once all clients register device secrets
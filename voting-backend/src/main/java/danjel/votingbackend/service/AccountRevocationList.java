@@ -0,0 +1,81 @@
+package danjel.votingbackend.service;
+
+import danjel.votingbackend.repository.AdminRepository;
+import danjel.votingbackend.repository.VoterRepository;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Accounts whose still-valid JWTs must no longer be honoured: disabled
+ * voters (by national id) and disabled or locked admins (by email).
+ *
+ * Lets JwtAuthenticationFilter trust signed claims without loading the
+ * account on every request. The lists are small, so exact hash sets are
+ * used rather than a probabilistic filter; a lookup is O(1) and never
+ * rejects a good account. They are reloaded from the database every
+ * {@code auth.revocation-refresh-ms}, which also picks up changes made
+ * outside this process, and changes made here are applied as soon as they
+ * commit.
+ */
+@Service
+public class AccountRevocationList {
+
+    private static final Logger logger = LoggerFactory.getLogger(AccountRevocationList.class);
+
+    private final VoterRepository voterRepository;
+    private final AdminRepository adminRepository;
+
+    private volatile Set<String> revokedVoters = ConcurrentHashMap.newKeySet();
+    private volatile Set<String> revokedAdmins = ConcurrentHashMap.newKeySet();
+
+    public AccountRevocationList(VoterRepository voterRepository,
+                                 AdminRepository adminRepository) {
+        this.voterRepository = voterRepository;
+        this.adminRepository = adminRepository;
+    }
+
+    /** {@code subject} is the JWT subject: national id for voters, email for admins. */
+    public boolean isRevoked(String userType, String subject) {
+        return "ADMIN".equals(userType)
+                ? revokedAdmins.contains(subject)
+                : revokedVoters.contains(subject);
+    }
+
+    /** Revokes an admin's tokens once the current transaction commits. */
+    public void revokeAdminAfterCommit(String email) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    revokedAdmins.add(email);
+                }
+            });
+        } else {
+            revokedAdmins.add(email);
+        }
+    }
+
+    @PostConstruct
+    @Scheduled(fixedDelayString = "${auth.revocation-refresh-ms:30000}",
+               initialDelayString = "${auth.revocation-refresh-ms:30000}")
+    public void refresh() {
+        Set<String> voters = ConcurrentHashMap.newKeySet();
+        voters.addAll(voterRepository.findDisabledNationalIds());
+        Set<String> admins = ConcurrentHashMap.newKeySet();
+        admins.addAll(adminRepository.findRevokedEmails());
+
+        if (voters.size() != revokedVoters.size() || admins.size() != revokedAdmins.size()) {
+            logger.info("Revocation list refreshed  voters={}  admins={}", voters.size(), admins.size());
+        }
+        revokedVoters = voters;
+        revokedAdmins = admins;
+    }
+}
@@ -23,17 +23,20 @@ public class AdminAuthService {
     private final PasswordEncoder passwordEncoder;
     private final JwtService jwtService;
     private final AuthService authService;
+    private final AccountRevocationList accountRevocationList;
 
     private static final int MAX_FAILED_ATTEMPTS = 5;
 
     public AdminAuthService(AdminRepository adminRepository,
                             PasswordEncoder passwordEncoder,
                             JwtService jwtService,
-                            AuthService authService) {
+                            AuthService authService,
+                            AccountRevocationList accountRevocationList) {
         this.adminRepository = adminRepository;
         this.passwordEncoder = passwordEncoder;
         this.jwtService = jwtService;
         this.authService = authService;
+        this.accountRevocationList = accountRevocationList;
     }
 
     @Transactional
@@ -108,6 +111,7 @@ public class AdminAuthService {
         adminRepository.incrementFailedLoginAttempts(admin.getId());
         if (admin.getFailedLoginAttempts() + 1 >= MAX_FAILED_ATTEMPTS) {
             adminRepository.lockAccount(admin.getId());
+            accountRevocationList.revokeAdminAfterCommit(admin.getEmail());
         }
     }
 
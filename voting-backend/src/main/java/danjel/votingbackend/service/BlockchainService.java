@@ -1,30 +1,51 @@
 package danjel.votingbackend.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import danjel.votingbackend.config.BlockchainConfig;
+import danjel.votingbackend.dto.ChainValidationReport;
+import danjel.votingbackend.dto.ExportedBlock;
 import danjel.votingbackend.dto.VerificationResponse;
 import danjel.votingbackend.exception.BlockchainException;
 import danjel.votingbackend.model.Block;
+import danjel.votingbackend.model.BlockVoteEntry;
 import danjel.votingbackend.model.Election;
 import danjel.votingbackend.model.Vote;
 import danjel.votingbackend.repository.BlockRepository;
+import danjel.votingbackend.repository.BlockVoteEntryRepository;
 import danjel.votingbackend.repository.ElectionRepository;
 import danjel.votingbackend.repository.VoteRepository;
+import danjel.votingbackend.service.blockchain.BlockCursor;
+import danjel.votingbackend.service.blockchain.BlockHeader;
+import danjel.votingbackend.service.blockchain.BlockMiner;
+import danjel.votingbackend.service.blockchain.BlockSealingPolicy;
+import danjel.votingbackend.service.blockchain.ChainValidator;
+import danjel.votingbackend.service.blockchain.ElectionSequencer;
+import danjel.votingbackend.service.blockchain.MerkleTree;
+import danjel.votingbackend.service.blockchain.PendingVoteLog;
+import danjel.votingbackend.utils.Hash256;
 import jakarta.annotation.PreDestroy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.security.*;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
 
 @Service
-public class BlockchainService {
+public class BlockchainService implements SmartLifecycle {
 
     private static final Logger logger = LoggerFactory.getLogger(BlockchainService.class);
 
@@ -33,9 +54,35 @@ public class BlockchainService {
     private final ElectionRepository electionRepository;
     private final BlockchainConfig   blockchainConfig;
     private final KeyPair            serverKeyPair;
+    private final BlockMiner         blockMiner;
+    private final MerkleTree         merkleTree;
+    private final PendingVoteLog     pendingVoteLog;
+    private final BlockSealingPolicy sealingPolicy;
+    private final TransactionTemplate transactionTemplate;
+    private final ChainValidator     chainValidator;
+    private final ObjectMapper       objectMapper;
+    private final BlockVoteEntryRepository blockVoteEntryRepository;
+    private final RegionalResultsService regionalResultsService;
 
-    private final Map<String, Queue<Vote>> pendingVotes  = new ConcurrentHashMap<>();
-    private final Map<String, Object>      electionLocks = new ConcurrentHashMap<>();
+    private final Map<String, ElectionSequencer> sequencers = new ConcurrentHashMap<>();
+
+    /** Hash rate of each election's most recently mined block, for the stats endpoint. */
+    private final Map<String, Double> miningHashRates = new ConcurrentHashMap<>();
+
+    /**
+     * Lifecycle phase of {@link #start()}. Lower phases start first, so this
+     * runs before the embedded web server (phase Integer.MAX_VALUE - 1024)
+     * accepts any request.
+     */
+    private static final int RECOVERY_PHASE = 0;
+
+    private volatile boolean started;
+
+    /** Set when a vote was quarantined; the next compaction drops it from the WAL. */
+    private volatile boolean walCompactionDue;
+
+    /** Upper bound on bind parameters per anchoring UPDATE. */
+    private static final int ANCHOR_CHUNK_SIZE = 1000;
 
     private static final String GENESIS_PREVIOUS_HASH =
             "0000000000000000000000000000000000000000000000000000000000000000";
@@ -44,12 +91,30 @@ public class BlockchainService {
                              VoteRepository voteRepository,
                              ElectionRepository electionRepository,
                              BlockchainConfig blockchainConfig,
-                             KeyPair serverKeyPair) {
+                             KeyPair serverKeyPair,
+                             BlockMiner blockMiner,
+                             MerkleTree merkleTree,
+                             PendingVoteLog pendingVoteLog,
+                             BlockSealingPolicy sealingPolicy,
+                             TransactionTemplate transactionTemplate,
+                             ChainValidator chainValidator,
+                             ObjectMapper objectMapper,
+                             BlockVoteEntryRepository blockVoteEntryRepository,
+                             RegionalResultsService regionalResultsService) {
         this.blockRepository    = blockRepository;
         this.voteRepository     = voteRepository;
         this.electionRepository = electionRepository;
         this.blockchainConfig   = blockchainConfig;
         this.serverKeyPair      = serverKeyPair;
+        this.blockMiner         = blockMiner;
+        this.merkleTree         = merkleTree;
+        this.pendingVoteLog     = pendingVoteLog;
+        this.sealingPolicy      = sealingPolicy;
+        this.transactionTemplate = transactionTemplate;
+        this.chainValidator     = chainValidator;
+        this.objectMapper       = objectMapper;
+        this.blockVoteEntryRepository = blockVoteEntryRepository;
+        this.regionalResultsService = regionalResultsService;
     }
 
     // ── Blockchain init ───────────────────────────────────────────────────────
@@ -57,9 +122,9 @@ public class BlockchainService {
     @Transactional
     public String initializeBlockchain(Election election) {
         Block genesisBlock = new Block(0L, GENESIS_PREVIOUS_HASH, election);
-        genesisBlock.setMerkleRoot(calculateMerkleRoot(Collections.emptyList()));
+        genesisBlock.setMerkleRoot(merkleTree.build(Collections.emptyList()).root());
 
-        String blockHash = mineBlock(genesisBlock);
+        String blockHash = blockMiner.mine(genesisBlock).hash();
         genesisBlock.setBlockHash(blockHash);
         genesisBlock.setValidated(true);
         genesisBlock.setValidatedAt(LocalDateTime.now());
@@ -71,94 +136,271 @@ public class BlockchainService {
         election.setBlockchainContractAddress(generateContractAddress(election.getId()));
         electionRepository.save(election);
 
-        pendingVotes.put(election.getId(), new ConcurrentLinkedQueue<>());
-        electionLocks.put(election.getId(), new Object());
-
         logger.info("Blockchain initialised  election={}  genesis={}", election.getId(), blockHash);
         return blockHash;
     }
 
+    // ── Crash recovery ────────────────────────────────────────────────────────
+
+    /**
+     * Replays the WAL before the web server starts. No vote can be appended
+     * or committed while recovery reads the log and the un-anchored rows, so
+     * the log is not overwritten at offset 0 and no vote is queued twice.
+     */
+    @Override
+    public void start() {
+        recoverPendingVotes();
+        started = true;
+    }
+
+    @Override
+    public void stop() {
+        // Sequencers are stopped in onShutdown, after the web server has drained
+        started = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return started;
+    }
+
+    @Override
+    public int getPhase() {
+        return RECOVERY_PHASE;
+    }
+
+    /**
+     * Rebuilds the pending votes after a restart and hands them to the
+     * election sequencers. WAL entries come first, in append order. Un-anchored
+     * Vote rows the WAL does not know about (e.g. a torn tail record) are then
+     * added in timestamp order. WAL entries whose vote row never committed, or
+     * that were already anchored, are dropped. Closed elections are flushed;
+     * open ones seal on the usual size and time triggers.
+     */
+    private void recoverPendingVotes() {
+        Map<String, LinkedHashSet<String>> logged = pendingVoteLog.replay();
+
+        Set<String> electionIds = new LinkedHashSet<>(logged.keySet());
+        electionIds.addAll(voteRepository.findElectionIdsWithUnanchoredVotes());
+
+        Map<String, List<String>> pending = new LinkedHashMap<>();
+        int recovered = 0;
+        for (String electionId : electionIds) {
+            Map<String, Vote> unanchored = new LinkedHashMap<>();
+            for (Vote vote : voteRepository.findUnanchoredVotes(electionId)) {
+                unanchored.put(vote.getId(), vote);
+            }
+
+            List<Vote> ordered = new ArrayList<>(unanchored.size());
+            for (String voteId : logged.getOrDefault(electionId, new LinkedHashSet<>())) {
+                Vote vote = unanchored.remove(voteId);
+                if (vote != null) ordered.add(vote);
+            }
+            ordered.addAll(unanchored.values());
+            if (ordered.isEmpty()) continue;
+
+            ElectionSequencer sequencer = sequencer(electionId);
+            ordered.forEach(sequencer::submit);
+            recovered += ordered.size();
+            pending.put(electionId, ordered.stream().map(Vote::getId).toList());
+        }
+
+        pendingVoteLog.rewrite(pending);
+        if (recovered == 0) return;
+        logger.info("Recovered {} pending vote(s) across {} election(s)", recovered, electionIds.size());
+
+        for (String electionId : electionIds) {
+            boolean closed = electionRepository.findById(electionId)
+                    .map(e -> !e.getStatus().isOpen())
+                    .orElse(false);
+            if (closed) {
+                flushPendingVotes(electionId);
+                retireSequencer(electionId);
+            }
+        }
+    }
+
     // ── Vote ingestion ────────────────────────────────────────────────────────
 
+    /**
+     * Logs the vote durably and hands it to the election's sequencer. When
+     * called inside a transaction the hand-off waits for the commit, so a
+     * block never references a vote row that might still roll back; on
+     * rollback the id is dropped from the WAL's pending set instead.
+     */
     @Transactional
     public String addVoteToBlockchain(Vote vote) {
         String electionId = vote.getElection().getId();
 
-        Queue<Vote> electionPendingVotes = pendingVotes.computeIfAbsent(
-                electionId, k -> new ConcurrentLinkedQueue<>());
-
-        electionPendingVotes.add(vote);
+        pendingVoteLog.append(electionId, vote.getId());
+        sealingPolicy.onVoteQueued(electionId);
 
         String transactionId = generateTransactionId(vote);
 
-        if (electionPendingVotes.size() >= blockchainConfig.getBlockSize()) {
-            processBlockAsync(electionId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    sequencer(electionId).submit(vote);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) pendingVoteLog.remove(electionId, List.of(vote.getId()));
+                }
+            });
+        } else {
+            sequencer(electionId).submit(vote);
         }
 
         return transactionId;
     }
 
-    @Async("blockchainTaskExecutor")
-    public void processBlockAsync(String electionId) {
-        Object lock = electionLocks.computeIfAbsent(electionId, k -> new Object());
-        synchronized (lock) {
-            processBlock(electionId);
+    /**
+     * Batch form of {@link #addVoteToBlockchain}: one WAL append and one
+     * durability wait for all {@code votes}, handed to their sequencers in a
+     * single after-commit callback.
+     */
+    @Transactional
+    public void addVotesToBlockchain(List<Vote> votes) {
+        Map<String, List<Vote>> byElection = new LinkedHashMap<>();
+        for (Vote vote : votes) {
+            byElection.computeIfAbsent(vote.getElection().getId(), k -> new ArrayList<>()).add(vote);
+        }
+        if (byElection.isEmpty()) return;
+
+        Map<String, List<String>> voteIds = new LinkedHashMap<>();
+        byElection.forEach((electionId, electionVotes) -> {
+            voteIds.put(electionId, electionVotes.stream().map(Vote::getId).toList());
+            sealingPolicy.onVotesQueued(electionId, electionVotes.size());
+        });
+        pendingVoteLog.appendAll(voteIds);
+
+        Runnable submit = () -> byElection.forEach((electionId, electionVotes) -> {
+            ElectionSequencer sequencer = sequencer(electionId);
+            electionVotes.forEach(sequencer::submit);
+        });
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submit.run();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) voteIds.forEach(pendingVoteLog::remove);
+                }
+            });
+        } else {
+            submit.run();
         }
     }
 
-    @Transactional
-    public void processBlock(String electionId) {
-        Queue<Vote> electionPendingVotes = pendingVotes.get(electionId);
-        if (electionPendingVotes == null || electionPendingVotes.isEmpty()) return;
+    // ── Block sealing ─────────────────────────────────────────────────────────
 
-        Election election = electionRepository.findById(electionId)
-                .orElseThrow(() -> new BlockchainException("Election not found"));
+    private ElectionSequencer sequencer(String electionId) {
+        return sequencers.computeIfAbsent(electionId, id -> new ElectionSequencer(
+                id, blockchainConfig.getSequencerRingSize(), sealingPolicy,
+                this::loadTip, this::sealBlock, this::quarantineVote));
+    }
 
-        Block latestBlock = blockRepository.findLatestBlock(electionId)
-                .orElseThrow(() -> new BlockchainException("No genesis block found"));
+    /**
+     * Called on the sequencer thread for a vote that cannot be sealed. The row
+     * stays un-anchored for an operator to inspect; a restart submits it once
+     * more. The WAL is compacted off this thread, so a seal never waits on
+     * the log's disk force.
+     */
+    private void quarantineVote(String electionId, Vote vote, RuntimeException cause) {
+        logger.error("QUARANTINED vote  election={}  vote={}  hash={}: {}",
+                electionId, vote.getId(), vote.getVoteHash(), cause.getMessage());
+        pendingVoteLog.remove(electionId, List.of(vote.getId()));
+        walCompactionDue = true;
+    }
 
-        List<Vote> votesToProcess = new ArrayList<>();
-        while (!electionPendingVotes.isEmpty()
-                && votesToProcess.size() < blockchainConfig.getBlockSize()) {
-            Vote vote = electionPendingVotes.poll();
-            if (vote != null) votesToProcess.add(vote);
-        }
+    @Scheduled(fixedDelay = 5_000)
+    public void compactWalIfDue() {
+        if (!walCompactionDue) return;
+        walCompactionDue = false;
+        pendingVoteLog.compact();
+    }
 
-        if (votesToProcess.isEmpty()) return;
+    /** Refreshes the adaptive block sizes from the latest ingest rates. */
+    @Scheduled(fixedDelayString = "${blockchain.rate-sample-interval-ms:1000}")
+    public void sampleIngestRates() {
+        Map<String, Integer> backlog = new HashMap<>();
+        sequencers.forEach((electionId, sequencer) -> backlog.put(electionId, sequencer.backlog()));
+        sealingPolicy.sampleRates(System.currentTimeMillis(), backlog);
+    }
 
-        Block newBlock = new Block(
-                latestBlock.getBlockNumber() + 1,
-                latestBlock.getBlockHash(),
-                election);
+    private ElectionSequencer.Tip loadTip(String electionId) {
+        Block latest = blockRepository.findLatestBlock(electionId)
+                .orElseThrow(() -> new BlockchainException("No genesis block found"));
+        return new ElectionSequencer.Tip(latest.getBlockNumber(), latest.getBlockHash());
+    }
 
-        List<String> voteHashes = new ArrayList<>();
+    /**
+     * Mines the next block over {@code votes} and stores it. Runs on the
+     * election's sequencer thread only. Mining happens outside the transaction;
+     * the block insert and the vote anchoring commit together.
+     */
+    private ElectionSequencer.Tip sealBlock(String electionId, ElectionSequencer.Tip tip, List<Vote> votes) {
+        Block newBlock = new Block(tip.blockNumber() + 1, tip.blockHash(), null);
 
-        for (Vote vote : votesToProcess) {
+        List<String> voteHashes = new ArrayList<>(votes.size());
+        for (Vote vote : votes) {
             voteHashes.add(vote.getVoteHash());
             newBlock.addVoteHash(vote.getVoteHash());
         }
 
-        newBlock.setMerkleRoot(calculateMerkleRoot(voteHashes));
+        MerkleTree.Tree tree = merkleTree.build(voteHashes);
+        newBlock.setMerkleRoot(tree.root());
 
-        String blockHash = mineBlock(newBlock);
+        BlockMiner.MiningResult mined = blockMiner.mine(newBlock);
+        String blockHash = mined.hash();
         newBlock.setBlockHash(blockHash);
         newBlock.setValidated(true);
         newBlock.setValidatedAt(LocalDateTime.now());
         newBlock.setValidatorSignature(signBlock(blockHash));
 
-        blockRepository.save(newBlock);
+        transactionTemplate.executeWithoutResult(status -> {
+            newBlock.setElection(electionRepository.getReferenceById(electionId));
+            blockRepository.save(newBlock);
+            indexBlockVotes(newBlock, voteHashes);
+            anchorVotes(votes, newBlock, tip.blockHash());
+            regionalResultsService.onBlockSealed(electionId, votes);
+        });
+        merkleTree.remember(blockHash, tree);
+        miningHashRates.put(electionId, mined.hashesPerSecond());
+        pendingVoteLog.remove(electionId, votes.stream().map(Vote::getId).toList());
+
+        logger.info("Block {}  election={}  votes={}  mining={}ms @ {} H/s",
+                newBlock.getBlockNumber(), electionId, votes.size(),
+                mined.elapsedNanos() / 1_000_000, String.format("%.0f", mined.hashesPerSecond()));
+        return new ElectionSequencer.Tip(newBlock.getBlockNumber(), blockHash);
+    }
 
-        for (Vote vote : votesToProcess) {
-            vote.setBlockNumber(newBlock.getBlockNumber());
-            vote.setPreviousBlockHash(latestBlock.getBlockHash());
-            vote.setCurrentBlockHash(blockHash);
-            vote.setVerified(true);
-            vote.setVerifiedAt(LocalDateTime.now());
-            voteRepository.save(vote);
+    /** Records each vote's block and leaf position for receipt lookups. */
+    private void indexBlockVotes(Block block, List<String> voteHashes) {
+        List<BlockVoteEntry> entries = new ArrayList<>(voteHashes.size());
+        for (int leaf = 0; leaf < voteHashes.size(); leaf++) {
+            entries.add(new BlockVoteEntry(voteHashes.get(leaf), block.getId(), block.getBlockNumber(), leaf));
         }
+        blockVoteEntryRepository.saveAll(entries);
+    }
 
-        logger.info("Block {}  election={}  votes={}",
-                newBlock.getBlockNumber(), electionId, votesToProcess.size());
+    /**
+     * Writes the block coordinates onto the block's votes with one UPDATE per
+     * ANCHOR_CHUNK_SIZE votes rather than one per vote.
+     */
+    private void anchorVotes(List<Vote> votes, Block block, String previousBlockHash) {
+        LocalDateTime verifiedAt = LocalDateTime.now();
+        List<String> voteIds = votes.stream().map(Vote::getId).toList();
+        for (int from = 0; from < voteIds.size(); from += ANCHOR_CHUNK_SIZE) {
+            List<String> chunk = voteIds.subList(from, Math.min(from + ANCHOR_CHUNK_SIZE, voteIds.size()));
+            voteRepository.anchorVotesToBlock(
+                    chunk, block.getBlockNumber(), previousBlockHash, block.getBlockHash(), verifiedAt);
+        }
     }
 
     // ── Vote verification ─────────────────────────────────────────────────────
@@ -172,7 +414,12 @@ public class BlockchainService {
      * GET /verification/blockchain/{electionId}/validate (admin/audit use).
      * We still check that the vote's own stored block hash is internally consistent.
      */
+    @Transactional(readOnly = true)
     public VerificationResponse verifyVote(String voteHash) {
+        // Stored as raw bytes: input that is not a Base64 digest cannot match anything
+        if (!isBase64Digest(voteHash)) {
+            return VerificationResponse.failure("Vote not found with hash: " + voteHash);
+        }
         Vote vote = voteRepository.findByVoteHash(voteHash).orElse(null);
         if (vote == null) {
             return VerificationResponse.failure("Vote not found with hash: " + voteHash);
@@ -183,11 +430,14 @@ public class BlockchainService {
     /**
      * Look up a vote by the receipt token the voter received after casting.
      *
-     * The receipt token is a SHA-256 of (voteId + voteHash + timestamp),
-     * stored on the Vote entity and returned in VoteResponse.receiptToken.
+     * The receipt token is random and unguessable — a SHA-256 over a random
+     * nonce, the voteHash and the timestamp for castVote, 32 random bytes for
+     * votes accepted asynchronously — stored on the Vote entity and returned
+     * in VoteResponse.receiptToken.
      * It is distinct from the voteHash — it lets the voter confirm their vote
      * without needing to know or store the longer voteHash.
      */
+    @Transactional(readOnly = true)
     public VerificationResponse verifyVoteByReceipt(String receiptToken) {
         Vote vote = voteRepository.findByReceiptToken(receiptToken).orElse(null);
         if (vote == null) {
@@ -196,6 +446,15 @@ public class BlockchainService {
         return buildVerificationResponse(vote);
     }
 
+    private static boolean isBase64Digest(String value) {
+        try {
+            Hash256.fromBase64(value);
+            return true;
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
     /**
      * Shared response builder used by both verify methods.
      * Attaches block info and Merkle proof when the vote has been mined into a block.
@@ -216,14 +475,20 @@ public class BlockchainService {
 
         // Merkle proof — only available after the vote has been mined into a block
         if (vote.getBlockNumber() != null && vote.getCurrentBlockHash() != null) {
-            blockRepository
-                    .findBlockContainingVote(vote.getElection().getId(), vote.getVoteHash())
-                    .ifPresent(block -> {
-                        response.setMerkleProof(generateMerkleProof(block, vote.getVoteHash()));
-                        // Lightweight consistency check: does the block's hash still compute?
-                        String recomputed = calculateBlockHash(block);
-                        response.setBlockchainConsistent(recomputed.equals(block.getBlockHash()));
-                    });
+            BlockVoteEntry entry = blockVoteEntryRepository.findById(vote.getVoteHash()).orElse(null);
+            Optional<Block> block = entry != null
+                    ? blockRepository.findById(entry.getBlockId())
+                    // Blocks sealed before the membership index existed
+                    : blockRepository.findBlockContainingVote(vote.getElection().getId(), vote.getVoteHash());
+
+            block.ifPresent(b -> {
+                response.setMerkleProof(entry != null
+                        ? merkleTree.proof(b, vote.getVoteHash(), entry.getLeafIndex())
+                        : merkleTree.proof(b, vote.getVoteHash()));
+                // Lightweight consistency check: does the block's hash still compute?
+                String recomputed = calculateBlockHash(b);
+                response.setBlockchainConsistent(recomputed.equals(b.getBlockHash()));
+            });
         } else {
             // Vote is still in the pending queue, not yet mined
             response.setBlockchainConsistent(false);
@@ -235,35 +500,32 @@ public class BlockchainService {
 
     // ── Chain validation ──────────────────────────────────────────────────────
 
+    /** Incremental check from the last verified checkpoint; see ChainValidator. */
     public boolean validateChain(String electionId) {
-        List<Block> blocks = blockRepository.findByElectionIdOrderByBlockNumberAsc(electionId);
-        if (blocks.isEmpty()) return false;
-
-        Block previousBlock = null;
-        for (Block block : blocks) {
-            // 1. Check the chain link
-            if (previousBlock != null &&
-                    !block.getPreviousHash().equals(previousBlock.getBlockHash())) {
-                logger.error("Chain broken at block {} (Previous Hash mismatch)", block.getBlockNumber());
-                return false;
-            }
+        return chainValidator.validate(electionId, false).isChainValid();
+    }
 
-            // 2. Check the block's internal hash integrity
-            if (!calculateBlockHash(block).equals(block.getBlockHash())) {
-                logger.error("Hash mismatch at block {} (Data has been tampered with)", block.getBlockNumber());
-                return false;
-            }
+    /** Validates the chain and reports where it failed; {@code fullAudit} re-checks from genesis. */
+    public ChainValidationReport validateChain(String electionId, boolean fullAudit) {
+        return chainValidator.validate(electionId, fullAudit);
+    }
 
-            // 3. NEW: Verify the RSA cryptographic signature
-            if (!verifySignature(block.getBlockHash(), block.getValidatorSignature())) {
-                logger.error("Forged signature detected at block {}! (Admin tampering suspected)", block.getBlockNumber());
-                return false;
+    /**
+     * Writes the whole chain as newline-delimited JSON, one {@link ExportedBlock}
+     * per line, reading it page by page so memory does not grow with the chain.
+     */
+    public void exportChain(String electionId, OutputStream out) throws IOException {
+        ObjectWriter writer = objectMapper.writerFor(ExportedBlock.class);
+        BlockCursor cursor = BlockCursor.open(blockRepository, electionId, -1, blockchainConfig.getBlockPageSize());
+        while (cursor.hasNext()) {
+            for (Block block : cursor.next()) {
+                out.write(writer.writeValueAsBytes(ExportedBlock.from(block)));
+                out.write('\n');
             }
-
-            previousBlock = block;
+            out.flush();
         }
-        return true;
     }
+
     // ── Stats ─────────────────────────────────────────────────────────────────
 
     public long getBlockCount(String electionId) {
@@ -275,117 +537,69 @@ public class BlockchainService {
         return total != null ? total : 0L;  // SUM returns null when there are no rows
     }
 
-    public void flushPendingVotes(String electionId) {
-        Queue<Vote> pending = pendingVotes.get(electionId);
-        if (pending != null && !pending.isEmpty()) {
-            processBlock(electionId);
-        }
+    /** Hashes per second achieved while mining the election's most recent block since startup. */
+    public double getMiningHashRate(String electionId) {
+        return miningHashRates.getOrDefault(electionId, 0.0);
     }
-    private boolean verifySignature(String blockHash, String signatureBase64) {
-        try {
-            if (signatureBase64 == null || signatureBase64.isEmpty()) return false;
 
-            Signature sig = Signature.getInstance(blockchainConfig.getSignatureAlgorithm());
-            sig.initVerify(serverKeyPair.getPublic());
-            sig.update(blockHash.getBytes(StandardCharsets.UTF_8));
+    /** Smoothed votes per second feeding the adaptive block size. */
+    public double getIngestRate(String electionId) {
+        return sealingPolicy.ingestRate(electionId);
+    }
 
-            byte[] signatureBytes = Base64.getDecoder().decode(signatureBase64);
-            return sig.verify(signatureBytes);
-        } catch (Exception e) {
-            logger.error("Failed to verify block signature: {}", e.getMessage());
-            return false;
+    public int getTargetBlockSize(String electionId) {
+        return sealingPolicy.targetBlockSize(electionId);
+    }
+
+    /** Seals everything still pending, e.g. when the election closes, and waits for it. */
+    public void flushPendingVotes(String electionId) {
+        ElectionSequencer sequencer = sequencers.get(electionId);
+        if (sequencer == null) return;
+        try {
+            sequencer.flush().join();
+        } catch (CompletionException e) {
+            throw new BlockchainException("Failed to flush pending votes of election " + electionId, e.getCause());
         }
     }
-    // ── Mining / hashing / crypto ─────────────────────────────────────────────
 
-    private String mineBlock(Block block) {
-        String prefix = "0".repeat(blockchainConfig.getDifficulty());
-        long nonce = 0;
-        String hash;
-        do {
-            nonce++;
-            block.setNonce(nonce);
-            hash = calculateBlockHash(block);
-        } while (!hash.startsWith(prefix));
-        return hash;
+    /**
+     * Stops a closed election's sequencer and drops its sealing state, after
+     * {@link #flushPendingVotes} has sealed everything it held.
+     */
+    public void retireSequencer(String electionId) {
+        ElectionSequencer sequencer = sequencers.remove(electionId);
+        if (sequencer != null) sequencer.stop();
+        sealingPolicy.forget(electionId);
     }
+    // ── Mining / hashing / crypto ─────────────────────────────────────────────
+
+    /**
+     * Pending votes are already durable in the WAL, so shutdown does not mine
+     * them synchronously — they are replayed into blocks on the next start.
+     */
     @PreDestroy
     public void onShutdown() {
-        logger.info("Shutting down: Flushing all pending votes to blockchain...");
-        for (String electionId : pendingVotes.keySet()) {
-            flushPendingVotes(electionId);
-        }
+        sequencers.values().forEach(ElectionSequencer::stop);
+        int pending = sequencers.values().stream().mapToInt(ElectionSequencer::backlog).sum();
+        logger.info("Shutting down: {} pending vote(s) left in the WAL for replay on restart", pending);
     }
+    /**
+     * Recomputes a stored block's hash using the header version it was mined
+     * with, so legacy text-header blocks keep verifying against their stored hash.
+     */
     private String calculateBlockHash(Block block) {
         try {
             MessageDigest digest = MessageDigest.getInstance(blockchainConfig.getHashAlgorithm());
-            String input = block.getBlockNumber()
-                    + block.getPreviousHash()
-                    + block.getMerkleRoot()
-                    + block.getTimestamp().toInstant(java.time.ZoneOffset.UTC).toEpochMilli()  // ← FIXED
-                    + block.getNonce();
-            return bytesToHex(digest.digest(input.getBytes(StandardCharsets.UTF_8)));
+            return BlockHeader.computeHash(block, digest);
         } catch (NoSuchAlgorithmException e) {
             throw new BlockchainException("Hash algorithm not available");
         }
     }
 
-    private String calculateMerkleRoot(List<String> voteHashes) {
-        if (voteHashes.isEmpty()) return hash("EMPTY_MERKLE_ROOT");
-
-        List<String> hashes = new ArrayList<>(voteHashes);
-        while (hashes.size() > 1) {
-            List<String> next = new ArrayList<>();
-            for (int i = 0; i < hashes.size(); i += 2) {
-                String left  = hashes.get(i);
-                String right = (i + 1 < hashes.size()) ? hashes.get(i + 1) : left;
-                next.add(hash(left + right));
-            }
-            hashes = next;
-        }
-        return hashes.get(0);
-    }
-
-    private String generateMerkleProof(Block block, String voteHash) {
-        List<String> voteHashes = block.getVoteHashes();
-        int index = voteHashes.indexOf(voteHash);
-
-        // If the vote isn't in this block, return null
-        if (index == -1) return null;
-
-        StringBuilder proof = new StringBuilder();
-        List<String> currentLevel = new ArrayList<>(voteHashes);
-
-        while (currentLevel.size() > 1) {
-            boolean isLeftNode = (index % 2 == 0);
-            int siblingIndex = isLeftNode ? index + 1 : index - 1;
-
-            if (siblingIndex < currentLevel.size()) {
-                // If the target is Left, the sibling is Right.
-                // If the target is Right, the sibling is Left.
-                String direction = isLeftNode ? "R:" : "L:";
-                proof.append(direction).append(currentLevel.get(siblingIndex)).append(";");
-            }
-
-            // Move up to the next level of the Merkle Tree
-            List<String> next = new ArrayList<>();
-            for (int i = 0; i < currentLevel.size(); i += 2) {
-                String left = currentLevel.get(i);
-                String right = (i + 1 < currentLevel.size()) ? currentLevel.get(i + 1) : left;
-                // Your hash() method already exists in your class
-                next.add(hash(left + right));
-            }
-
-            index = index / 2; // Target's index in the parent level
-            currentLevel = next;
-        }
-
-        return proof.toString();
-    }
     private String hash(String input) {
         try {
             MessageDigest digest = MessageDigest.getInstance(blockchainConfig.getHashAlgorithm());
-            return bytesToHex(digest.digest(input.getBytes(StandardCharsets.UTF_8)));
+            return BlockHeader.toHex(digest.digest(input.getBytes(StandardCharsets.UTF_8)));
         } catch (NoSuchAlgorithmException e) {
             throw new BlockchainException("Hash algorithm not available");
         }
@@ -409,14 +623,4 @@ public class BlockchainService {
     private String generateContractAddress(String electionId) {
         return "0x" + hash(electionId + LocalDateTime.now().toString()).substring(0, 40);
     }
-
-    private String bytesToHex(byte[] bytes) {
-        StringBuilder sb = new StringBuilder();
-        for (byte b : bytes) {
-            String hex = Integer.toHexString(0xff & b);
-            if (hex.length() == 1) sb.append('0');
-            sb.append(hex);
-        }
-        return sb.toString();
-    }
 }
\ No newline at end of file
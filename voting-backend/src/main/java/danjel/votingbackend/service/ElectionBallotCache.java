@@ -0,0 +1,103 @@
+package danjel.votingbackend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import danjel.votingbackend.exception.VotingException;
+import danjel.votingbackend.model.Candidate;
+import danjel.votingbackend.model.Election;
+import danjel.votingbackend.model.Party;
+import danjel.votingbackend.repository.CandidateRepository;
+import danjel.votingbackend.repository.ElectionRepository;
+import danjel.votingbackend.repository.PartyRepository;
+import danjel.votingbackend.utils.enums.AlbanianCounty;
+import danjel.votingbackend.utils.enums.AlbanianMunicipality;
+import danjel.votingbackend.utils.enums.ElectionStatus;
+import danjel.votingbackend.utils.enums.ElectionType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Read-only snapshot of what castVote needs to know about an election:
+ * its status and dates, and its candidates and parties.
+ *
+ * The ballot does not change while an election is running — candidates are
+ * imported before it starts — so one snapshot serves every vote instead of
+ * three lookups per ballot. ElectionService evicts an election whenever it
+ * changes state; the short expiry only bounds staleness from changes made
+ * outside this process.
+ */
+@Service
+public class ElectionBallotCache {
+
+    public record CandidateEntry(String id, String partyId, boolean active,
+                                 AlbanianCounty county, AlbanianMunicipality municipality, String fullName) {}
+
+    public record PartyEntry(String id, String name) {}
+
+    public record Ballot(String electionId, String name, ElectionStatus status, ElectionType electionType,
+                         LocalDateTime startDate, LocalDateTime endDate,
+                         Map<String, CandidateEntry> candidates, Map<String, PartyEntry> parties) {}
+
+    private final ElectionRepository  electionRepository;
+    private final CandidateRepository candidateRepository;
+    private final PartyRepository     partyRepository;
+
+    private final Cache<String, Ballot> ballots = Caffeine.newBuilder()
+            .maximumSize(64)
+            .expireAfterWrite(Duration.ofSeconds(30))
+            .build();
+
+    public ElectionBallotCache(ElectionRepository electionRepository,
+                               CandidateRepository candidateRepository,
+                               PartyRepository partyRepository) {
+        this.electionRepository  = electionRepository;
+        this.candidateRepository = candidateRepository;
+        this.partyRepository     = partyRepository;
+    }
+
+    public Ballot ballot(String electionId) {
+        return ballots.get(electionId, this::load);
+    }
+
+    /**
+     * Drops the election's snapshot once the current transaction completes, so
+     * a vote racing the change cannot cache the pre-commit state again.
+     */
+    public void evictAfterCommit(String electionId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    ballots.invalidate(electionId);
+                }
+            });
+        } else {
+            ballots.invalidate(electionId);
+        }
+    }
+
+    private Ballot load(String electionId) {
+        Election election = electionRepository.findById(electionId)
+                .orElseThrow(() -> new VotingException("Election not found"));
+
+        Map<String, CandidateEntry> candidates = new HashMap<>();
+        for (Candidate c : candidateRepository.findByElectionId(electionId)) {
+            candidates.put(c.getId(), new CandidateEntry(
+                    c.getId(), c.getParty() != null ? c.getParty().getId() : null, c.isActive(),
+                    c.getCounty(), c.getMunicipality(), c.getFullName()));
+        }
+        Map<String, PartyEntry> parties = new HashMap<>();
+        for (Party p : partyRepository.findByElectionId(electionId)) {
+            parties.put(p.getId(), new PartyEntry(p.getId(), p.getName()));
+        }
+
+        return new Ballot(election.getId(), election.getName(), election.getStatus(), election.getElectionType(),
+                election.getStartDate(), election.getEndDate(), Map.copyOf(candidates), Map.copyOf(parties));
+    }
+}
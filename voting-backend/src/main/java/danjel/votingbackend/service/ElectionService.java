@@ -22,6 +22,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -38,19 +39,28 @@ public class ElectionService {
     private final VoterRepository voterRepository;
     private final BlockchainService blockchainService;
     private final ExternalDataService externalDataService;
+    private final ElectionBallotCache ballotCache;
+    private final VoteIntakeService voteIntakeService;
+    private final TransactionTemplate transactionTemplate;
 
     public ElectionService(ElectionRepository electionRepository,
                            CandidateRepository candidateRepository,
                            PartyRepository partyRepository,
                            VoterRepository voterRepository,
                            BlockchainService blockchainService,
-                           ExternalDataService externalDataService) {
+                           ExternalDataService externalDataService,
+                           ElectionBallotCache ballotCache,
+                           VoteIntakeService voteIntakeService,
+                           TransactionTemplate transactionTemplate) {
         this.electionRepository = electionRepository;
         this.candidateRepository = candidateRepository;
         this.partyRepository = partyRepository;
         this.voterRepository = voterRepository;
         this.blockchainService = blockchainService;
         this.externalDataService = externalDataService;
+        this.ballotCache = ballotCache;
+        this.voteIntakeService = voteIntakeService;
+        this.transactionTemplate = transactionTemplate;
     }
 
     @Transactional
@@ -109,6 +119,7 @@ public class ElectionService {
         election.setStatus(ElectionStatus.CANDIDATES_IMPORTED);
         election.setLastSyncedAt(LocalDateTime.now());
         electionRepository.save(election);
+        ballotCache.evictAfterCommit(electionId);
 
         logger.info("Candidates imported for election {}: {} parties, {} candidates",
                 electionId, result.getPartiesImported(), result.getCandidatesImported());
@@ -137,34 +148,67 @@ public class ElectionService {
         election.setGenesisBlockHash(genesisHash);
 
         electionRepository.save(election);
+        ballotCache.evictAfterCommit(electionId);
 
         logger.info("Election started: {} with genesis hash: {}", election.getName(), genesisHash);
 
         return mapToResponse(election);
     }
 
-    @Transactional
+    /**
+     * Closes the election in three steps: intake is stopped and the election
+     * marked CLOSING, the votes already accepted are cast, then the election
+     * is closed. Waiting for the accepted votes holds no transaction. If they
+     * are not all cast in time the election stays CLOSING and the close can
+     * be retried.
+     */
     public ElectionResponse closeElection(String electionId, String closedBy) {
-        Election election = electionRepository.findById(electionId)
-                .orElseThrow(() -> new ElectionException("Election not found"));
-
-        if (election.getStatus() != ElectionStatus.STARTED) {
-            throw new ElectionException("Only started elections can be closed");
+        // Stop accepting votes; CLOSING commits before intake reopens the gate
+        voteIntakeService.stopIntake(electionId, () -> transactionTemplate.executeWithoutResult(status -> {
+            Election election = electionRepository.findById(electionId)
+                    .orElseThrow(() -> new ElectionException("Election not found"));
+            if (election.getStatus() == ElectionStatus.CLOSING) {
+                return;   // an earlier close is still draining
+            }
+            if (election.getStatus() != ElectionStatus.STARTED) {
+                throw new ElectionException("Only started elections can be closed");
+            }
+            election.setStatus(ElectionStatus.CLOSING);
+            electionRepository.save(election);
+            ballotCache.evictAfterCommit(electionId);
+        }));
+
+        // Cast votes accepted asynchronously while the election was still open
+        if (!voteIntakeService.awaitDrained(electionId)) {
+            throw new ElectionException("Accepted votes are still being cast; try closing the election again shortly");
         }
 
-        // Flush any pending votes to blockchain
-        blockchainService.flushPendingVotes(electionId);
+        ElectionResponse closed = transactionTemplate.execute(status -> {
+            Election election = electionRepository.findById(electionId)
+                    .orElseThrow(() -> new ElectionException("Election not found"));
+            if (election.getStatus() != ElectionStatus.CLOSING) {
+                throw new ElectionException("Election has already been closed");
+            }
 
-        election.setStatus(ElectionStatus.CLOSED);
-        election.setEndDate(LocalDateTime.now());
-        election.setResultsPublishedBy(closedBy);
-        election.setResultsPublishedAt(LocalDateTime.now());
+            // Flush any pending votes to blockchain
+            blockchainService.flushPendingVotes(electionId);
 
-        electionRepository.save(election);
+            election.setStatus(ElectionStatus.CLOSED);
+            election.setEndDate(LocalDateTime.now());
+            election.setResultsPublishedBy(closedBy);
+            election.setResultsPublishedAt(LocalDateTime.now());
 
-        logger.info("Election closed: {} by {}", election.getName(), closedBy);
+            electionRepository.save(election);
+            ballotCache.evictAfterCommit(electionId);
 
-        return mapToResponse(election);
+            logger.info("Election closed: {} by {}", election.getName(), closedBy);
+
+            return mapToResponse(election);
+        });
+
+        // No more votes can arrive, so the election no longer needs a sequencer
+        blockchainService.retireSequencer(electionId);
+        return closed;
     }
 
     public ElectionResponse getElection(String electionId) {
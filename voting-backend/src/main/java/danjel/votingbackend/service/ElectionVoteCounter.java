@@ -0,0 +1,101 @@
+package danjel.votingbackend.service;
+
+import danjel.votingbackend.model.Election;
+import danjel.votingbackend.repository.ElectionRepository;
+import danjel.votingbackend.utils.enums.ElectionStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Maintains {@code Election.totalVotesCast} without writing the election row
+ * from every vote.
+ *
+ * Votes are counted in a per-election {@link LongAdder} once their
+ * transaction commits. Every {@code voting.vote-count-flush-ms} the
+ * accumulated delta is applied with one relative UPDATE, so the row sees
+ * one write per election per interval instead of one per ballot, and
+ * voters no longer queue on its row lock. The stored count, and with it
+ * {@code getTurnoutPercentage()}, trails the true count by at most one
+ * interval.
+ *
+ * Deltas not yet flushed when the process dies are restored at startup
+ * from the live tally, which is rebuilt from the votes table.
+ */
+@Service
+public class ElectionVoteCounter {
+
+    private static final Logger logger = LoggerFactory.getLogger(ElectionVoteCounter.class);
+
+    private final ElectionRepository electionRepository;
+    private final LiveTallyService   liveTallyService;
+
+    private final Map<String, LongAdder> unflushed = new ConcurrentHashMap<>();
+
+    public ElectionVoteCounter(ElectionRepository electionRepository,
+                               LiveTallyService liveTallyService) {
+        this.electionRepository = electionRepository;
+        this.liveTallyService   = liveTallyService;
+    }
+
+    /** Counts one vote for {@code electionId} once the surrounding transaction commits. */
+    public void onVoteCast(String electionId) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    adder(electionId).increment();
+                }
+            });
+        } else {
+            adder(electionId).increment();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${voting.vote-count-flush-ms:1000}")
+    public void flush() {
+        unflushed.forEach((electionId, adder) -> {
+            long delta = adder.sumThenReset();
+            if (delta == 0) return;
+            try {
+                electionRepository.addVotesCast(electionId, delta);
+            } catch (DataAccessException e) {
+                adder.add(delta);   // retried on the next flush
+                logger.warn("Vote count flush failed  election={}  delta={}: {}", electionId, delta, e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        flush();
+    }
+
+    /** Corrects running elections whose stored count lost unflushed votes. */
+    @PostConstruct
+    void reconcile() {
+        for (Election election : electionRepository.findByStatusIn(List.of(ElectionStatus.STARTED, ElectionStatus.CLOSING))) {
+            long counted = liveTallyService.totalVotes(election.getId());
+            if (counted != election.getTotalVotesCast()) {
+                electionRepository.setVotesCast(election.getId(), counted);
+                logger.info("Vote count corrected  election={}  stored={}  actual={}",
+                        election.getId(), election.getTotalVotesCast(), counted);
+            }
+        }
+    }
+
+    private LongAdder adder(String electionId) {
+        return unflushed.computeIfAbsent(electionId, k -> new LongAdder());
+    }
+}
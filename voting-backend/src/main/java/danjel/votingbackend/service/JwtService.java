@@ -1,18 +1,28 @@
 package danjel.votingbackend.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
@@ -27,12 +37,71 @@ public class JwtService {
     @Value("${jwt.refresh-expiration}")
     private long refreshExpiration;
 
+    /** Upper bound on how long verified claims are reused; never past the token's expiry. */
+    @Value("${jwt.claims-cache-ttl-ms:60000}")
+    private long claimsCacheTtlMs;
+
+    private JwtParser parser;
+
+    /**
+     * Claims of recently verified tokens, keyed by the SHA-256 of the token
+     * so raw tokens are not retained. A hit skips signature verification
+     * and JSON parsing; an entry never outlives its token.
+     */
+    private Cache<ByteBuffer, Claims> verifiedClaims;
+
+    @PostConstruct
+    void init() {
+        parser = Jwts.parserBuilder()
+                .setSigningKey(getSignInKey())
+                .build();
+
+        long ttlNanos = TimeUnit.MILLISECONDS.toNanos(claimsCacheTtlMs);
+        verifiedClaims = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfter(new Expiry<ByteBuffer, Claims>() {
+                    @Override
+                    public long expireAfterCreate(ByteBuffer key, Claims claims, long currentTime) {
+                        Date exp = claims.getExpiration();
+                        if (exp == null) return ttlNanos;
+                        long untilExpiry = TimeUnit.MILLISECONDS.toNanos(exp.getTime() - System.currentTimeMillis());
+                        return Math.max(0, Math.min(ttlNanos, untilExpiry));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(ByteBuffer key, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Verifies {@code token} and returns its claims, at most once per token
+     * within the cache TTL. Throws the usual JwtException for a bad or
+     * expired token. The returned claims must not be modified.
+     */
+    public Claims parseClaims(String token) {
+        ByteBuffer key = digest(token);
+        Claims claims = verifiedClaims.getIfPresent(key);
+        if (claims == null) {
+            claims = parser.parseClaimsJws(token).getBody();
+            verifiedClaims.put(key, claims);
+        }
+        return claims;
+    }
+
     public String extractUsername(String token) {
         return extractClaim(token, Claims::getSubject);
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> resolver) {
-        Claims claims = extractAllClaims(token);
+        Claims claims = parseClaims(token);
         return resolver.apply(claims);
     }
 
@@ -63,10 +132,14 @@ public class JwtService {
     }
 
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        String username = extractUsername(token);
+        return isTokenValid(parseClaims(token), userDetails);
+    }
+
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        String username = claims.getSubject();
         return username != null
                 && username.equals(userDetails.getUsername())
-                && !isTokenExpired(token);
+                && !claims.getExpiration().before(new Date());
     }
 
     public long getExpirationTime() {
@@ -75,50 +148,38 @@ public class JwtService {
 
     // ── Existing helpers ─────────────────────────────────────────────
 
-    public String extractUserType(String token) {
-        Object val = extractClaim(token, c -> c.get("userType"));
-        return val == null ? null : String.valueOf(val);
-    }
-
-    public String extractVoterId(String token) {
-        Object val = extractClaim(token, c -> c.get("voterId"));
-        return val == null ? null : String.valueOf(val);
-    }
-
-    public String extractRole(String token) {
-        Object val = extractClaim(token, c -> c.get("role"));
-        return val == null ? null : String.valueOf(val);
-    }
+    public String extractUserType(String token)     { return extractUserType(parseClaims(token)); }
+    public String extractVoterId(String token)      { return extractVoterId(parseClaims(token)); }
+    public String extractRole(String token)         { return extractRole(parseClaims(token)); }
+    public String extractCounty(String token)       { return extractCounty(parseClaims(token)); }
+    public String extractMunicipality(String token) { return extractMunicipality(parseClaims(token)); }
+    public String extractDeviceId(String token)     { return extractDeviceId(parseClaims(token)); }
 
-    public String extractCounty(String token) {
-        Object val = extractClaim(token, c -> c.get("county"));
-        return val == null ? null : String.valueOf(val);
-    }
+    // ── Readers over already-parsed claims ───────────────────────────
 
-    public String extractMunicipality(String token) {
-        Object val = extractClaim(token, c -> c.get("municipality"));
-        return val == null ? null : String.valueOf(val);
-    }
+    public String extractUserType(Claims claims)     { return claim(claims, "userType"); }
+    public String extractVoterId(Claims claims)      { return claim(claims, "voterId"); }
+    public String extractRole(Claims claims)         { return claim(claims, "role"); }
+    public String extractCounty(Claims claims)       { return claim(claims, "county"); }
+    public String extractMunicipality(Claims claims) { return claim(claims, "municipality"); }
 
     // ✅ NEW: deviceId claim extractor
-    public String extractDeviceId(String token) {
-        Object val = extractClaim(token, c -> c.get("deviceId"));
-        return val == null ? null : String.valueOf(val);
-    }
+    public String extractDeviceId(Claims claims)     { return claim(claims, "deviceId"); }
 
     // ── Internals ────────────────────────────────────────────────────
 
-    private boolean isTokenExpired(String token) {
-        Date exp = extractClaim(token, Claims::getExpiration);
-        return exp.before(new Date());
+    private static String claim(Claims claims, String name) {
+        Object val = claims.get(name);
+        return val == null ? null : String.valueOf(val);
     }
 
-    private Claims extractAllClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(getSignInKey())
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+    private static ByteBuffer digest(String token) {
+        try {
+            MessageDigest d = MessageDigest.getInstance("SHA-256");
+            return ByteBuffer.wrap(d.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
     }
 
     private Key getSignInKey() {
@@ -0,0 +1,195 @@
+package danjel.votingbackend.service;
+
+import danjel.votingbackend.dto.election.LiveResultsResponse;
+import danjel.votingbackend.model.Vote;
+import danjel.votingbackend.repository.VoteRepository;
+import danjel.votingbackend.utils.enums.AlbanianCounty;
+import danjel.votingbackend.utils.enums.AlbanianMunicipality;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory vote counts per election, candidate and party, broken down by
+ * county and municipality.
+ *
+ * Counts are seeded from one GROUP BY over the votes table at startup and
+ * then advanced as each vote commits, so reading results never aggregates
+ * the votes table. Every counter is a {@link LongAdder}, so concurrent
+ * voters in the same election never contend on a shared cell; regional
+ * counters are arrays indexed by the enum ordinal.
+ */
+@Service
+public class LiveTallyService {
+
+    private static final Logger logger = LoggerFactory.getLogger(LiveTallyService.class);
+
+    private static final AlbanianCounty[]       COUNTIES       = AlbanianCounty.values();
+    private static final AlbanianMunicipality[] MUNICIPALITIES = AlbanianMunicipality.values();
+
+    private final VoteRepository voteRepository;
+
+    private final Map<String, ElectionTally> tallies = new ConcurrentHashMap<>();
+
+    public LiveTallyService(VoteRepository voteRepository) {
+        this.voteRepository = voteRepository;
+    }
+
+    // ── Seeding ───────────────────────────────────────────────────────────────
+
+    /**
+     * Runs before the web server accepts requests, so no vote can be both in
+     * the seed query and counted again by its commit hook.
+     */
+    @PostConstruct
+    void rebuild() {
+        tallies.clear();
+        long votes = 0;
+        for (Object[] row : voteRepository.countVotesByChoiceAndRegion()) {
+            long count = (Long) row[5];
+            tally((String) row[0]).add((String) row[1], (String) row[2],
+                    (AlbanianCounty) row[3], (AlbanianMunicipality) row[4], count);
+            votes += count;
+        }
+        logger.info("Live tally rebuilt  elections={}  votes={}", tallies.size(), votes);
+    }
+
+    // ── Ingestion ─────────────────────────────────────────────────────────────
+
+    /**
+     * Counts {@code vote} once the surrounding transaction commits; a vote
+     * that rolls back is never counted. Outside a transaction it is counted
+     * immediately.
+     */
+    public void onVoteCast(Vote vote) {
+        String electionId  = vote.getElection().getId();
+        String candidateId = vote.getCandidate() != null ? vote.getCandidate().getId() : null;
+        String partyId     = vote.getParty() != null ? vote.getParty().getId() : null;
+        AlbanianCounty county             = vote.getCounty();
+        AlbanianMunicipality municipality = vote.getMunicipality();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    tally(electionId).add(candidateId, partyId, county, municipality, 1);
+                }
+            });
+        } else {
+            tally(electionId).add(candidateId, partyId, county, municipality, 1);
+        }
+    }
+
+    // ── Reads ─────────────────────────────────────────────────────────────────
+
+    public long totalVotes(String electionId) {
+        ElectionTally tally = tallies.get(electionId);
+        return tally == null ? 0 : tally.all.total.sum();
+    }
+
+    /**
+     * Current results, optionally restricted to one county or municipality
+     * (municipality wins if both are given). Candidates and parties are
+     * ordered by votes, descending.
+     */
+    public LiveResultsResponse results(String electionId, AlbanianCounty county,
+                                       AlbanianMunicipality municipality) {
+        ElectionTally tally = tallies.get(electionId);
+
+        LiveResultsResponse response = new LiveResultsResponse();
+        response.setElectionId(electionId);
+        response.setCounty(municipality != null ? municipality.getCounty() : county);
+        response.setMunicipality(municipality);
+        response.setAsOf(LocalDateTime.now());
+        if (tally == null) return response;
+
+        response.setTotalVotes(tally.all.count(county, municipality));
+        response.setCandidates(ranked(tally.candidates, county, municipality));
+        response.setParties(ranked(tally.parties, county, municipality));
+
+        if (county == null && municipality == null) {
+            Map<AlbanianCounty, Long> byCounty = new EnumMap<>(AlbanianCounty.class);
+            for (AlbanianCounty c : COUNTIES) {
+                long n = tally.all.byCounty[c.ordinal()].sum();
+                if (n > 0) byCounty.put(c, n);
+            }
+            response.setCounties(byCounty);
+        }
+        if (municipality == null) {
+            Map<AlbanianMunicipality, Long> byMunicipality = new EnumMap<>(AlbanianMunicipality.class);
+            for (AlbanianMunicipality m : MUNICIPALITIES) {
+                if (county != null && m.getCounty() != county) continue;
+                long n = tally.all.byMunicipality[m.ordinal()].sum();
+                if (n > 0) byMunicipality.put(m, n);
+            }
+            response.setMunicipalities(byMunicipality);
+        }
+        return response;
+    }
+
+    private static Map<String, Long> ranked(Map<String, Counters> counters, AlbanianCounty county,
+                                            AlbanianMunicipality municipality) {
+        Map<String, Long> ranked = new LinkedHashMap<>();
+        counters.entrySet().stream()
+                .map(e -> Map.entry(e.getKey(), e.getValue().count(county, municipality)))
+                .filter(e -> e.getValue() > 0)
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .forEach(e -> ranked.put(e.getKey(), e.getValue()));
+        return ranked;
+    }
+
+    // ── State ─────────────────────────────────────────────────────────────────
+
+    private ElectionTally tally(String electionId) {
+        return tallies.computeIfAbsent(electionId, k -> new ElectionTally());
+    }
+
+    private static final class ElectionTally {
+        final Counters all = new Counters();
+        final Map<String, Counters> candidates = new ConcurrentHashMap<>();
+        final Map<String, Counters> parties    = new ConcurrentHashMap<>();
+
+        void add(String candidateId, String partyId, AlbanianCounty county,
+                 AlbanianMunicipality municipality, long n) {
+            all.add(county, municipality, n);
+            if (candidateId != null) candidates.computeIfAbsent(candidateId, k -> new Counters()).add(county, municipality, n);
+            if (partyId != null)     parties.computeIfAbsent(partyId, k -> new Counters()).add(county, municipality, n);
+        }
+    }
+
+    /** One total plus one counter per county and per municipality. */
+    private static final class Counters {
+        final LongAdder   total          = new LongAdder();
+        final LongAdder[] byCounty       = adders(COUNTIES.length);
+        final LongAdder[] byMunicipality = adders(MUNICIPALITIES.length);
+
+        void add(AlbanianCounty county, AlbanianMunicipality municipality, long n) {
+            total.add(n);
+            if (county != null)       byCounty[county.ordinal()].add(n);
+            if (municipality != null) byMunicipality[municipality.ordinal()].add(n);
+        }
+
+        long count(AlbanianCounty county, AlbanianMunicipality municipality) {
+            if (municipality != null) return byMunicipality[municipality.ordinal()].sum();
+            if (county != null)       return byCounty[county.ordinal()].sum();
+            return total.sum();
+        }
+
+        private static LongAdder[] adders(int n) {
+            LongAdder[] adders = new LongAdder[n];
+            for (int i = 0; i < n; i++) adders[i] = new LongAdder();
+            return adders;
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package danjel.votingbackend.service;
+
+import java.util.Arrays;
+
+/**
+ * Set of recently seen 128-bit nonces, kept for at least {@code ttlMinutes}.
+ *
+ * Each nonce is stored as two longs in an open-addressed (linear probing)
+ * table, 32 bytes per entry at the maximum load of one half, with no
+ * per-entry objects. Tables are split into per-minute generations: a nonce
+ * goes into the generation of the minute it arrived and is looked up in the
+ * last {@code ttlMinutes + 1} generations. When a minute comes round again
+ * its old generation is simply cleared, so expiry needs no per-entry work
+ * and no entry is ever evicted early. Memory follows arrival rate × TTL
+ * instead of a fixed entry cap.
+ *
+ * The key space is split into independently locked stripes, so concurrent
+ * requests rarely contend.
+ */
+public final class NonceStore {
+
+    static final int STRIPES          = 16;    // power of two
+    static final int INITIAL_CAPACITY = 1024;  // entries per generation, power of two
+
+    private final int      ttlMinutes;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    public NonceStore(int ttlMinutes) {
+        this.ttlMinutes = ttlMinutes;
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new Stripe(ttlMinutes + 1);
+    }
+
+    /** Records the nonce; returns false if it was already seen within the TTL. */
+    public boolean add(long msb, long lsb, long nowMs) {
+        long hash = mix(msb, lsb);
+        Stripe stripe = stripes[(int) (hash >>> 60) & (STRIPES - 1)];
+        long minute = nowMs / 60_000L;
+        synchronized (stripe) {
+            for (Generation g : stripe.generations) {
+                if (g.isLive(minute, ttlMinutes) && g.contains(msb, lsb, hash)) return false;
+            }
+            stripe.current(minute).insert(msb, lsb, hash);
+            return true;
+        }
+    }
+
+    /** Forgets the nonce, e.g. when its request turned out to be invalid. */
+    public void remove(long msb, long lsb, long nowMs) {
+        long hash = mix(msb, lsb);
+        Stripe stripe = stripes[(int) (hash >>> 60) & (STRIPES - 1)];
+        long minute = nowMs / 60_000L;
+        synchronized (stripe) {
+            for (Generation g : stripe.generations) {
+                if (g.isLive(minute, ttlMinutes)) g.delete(msb, lsb, hash);
+            }
+        }
+    }
+
+    /** Nonces currently held, including expired generations not yet reused. */
+    public long size() {
+        long size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (Generation g : stripe.generations) size += g.size;
+            }
+        }
+        return size;
+    }
+
+    /** Table slots allocated across all generations. */
+    long capacity() {
+        long capacity = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                for (Generation g : stripe.generations) capacity += g.keys.length / 2;
+            }
+        }
+        return capacity;
+    }
+
+    /**
+     * Murmur3 finaliser over both halves; well spread even for sequential ids.
+     * The top four bits pick the stripe, the low bits the home slot.
+     */
+    static long mix(long msb, long lsb) {
+        long h = msb * 0x9E3779B97F4A7C15L ^ lsb;
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // ── Storage ───────────────────────────────────────────────────────────────
+
+    private static final class Stripe {
+        final Generation[] generations;
+
+        Stripe(int count) {
+            generations = new Generation[count];
+            for (int i = 0; i < count; i++) generations[i] = new Generation();
+        }
+
+        /**
+         * The generation for {@code minute}, recycling the slot once its old
+         * minute has passed. A clock stepping backwards keeps the newer data.
+         */
+        Generation current(long minute) {
+            Generation g = generations[(int) Math.floorMod(minute, (long) generations.length)];
+            if (g.minute < minute) g.reset(minute);
+            return g;
+        }
+    }
+
+    /**
+     * One minute of nonces. Slot i occupies keys[2i], keys[2i+1]; an all-zero
+     * slot is empty, so the all-zero nonce itself is tracked by a flag.
+     */
+    private static final class Generation {
+        long    minute = Long.MIN_VALUE;
+        long[]  keys   = new long[2 * INITIAL_CAPACITY];
+        int     size;
+        boolean hasZero;
+
+        boolean isLive(long now, int ttlMinutes) {
+            return minute != Long.MIN_VALUE && now - minute <= ttlMinutes;
+        }
+
+        void reset(long newMinute) {
+            // Shrink after a burst so memory tracks the current rate
+            int capacity = keys.length / 2;
+            if (capacity > INITIAL_CAPACITY && size * 8 < capacity) {
+                keys = new long[2 * Math.max(INITIAL_CAPACITY, Integer.highestOneBit(size * 4))];
+            } else {
+                Arrays.fill(keys, 0L);
+            }
+            size    = 0;
+            hasZero = false;
+            minute  = newMinute;
+        }
+
+        boolean contains(long msb, long lsb, long hash) {
+            if (msb == 0 && lsb == 0) return hasZero;
+            int mask = keys.length / 2 - 1;
+            for (int i = (int) hash & mask; ; i = (i + 1) & mask) {
+                long m = keys[2 * i], l = keys[2 * i + 1];
+                if (m == 0 && l == 0) return false;
+                if (m == msb && l == lsb) return true;
+            }
+        }
+
+        void insert(long msb, long lsb, long hash) {
+            if (msb == 0 && lsb == 0) {
+                if (!hasZero) size++;
+                hasZero = true;
+                return;
+            }
+            if ((size + 1) * 2 > keys.length / 2) grow();
+            int mask = keys.length / 2 - 1;
+            int i = (int) hash & mask;
+            while (keys[2 * i] != 0 || keys[2 * i + 1] != 0) i = (i + 1) & mask;
+            keys[2 * i]     = msb;
+            keys[2 * i + 1] = lsb;
+            size++;
+        }
+
+        /** Removes by backward-shift, so no tombstones build up. */
+        void delete(long msb, long lsb, long hash) {
+            if (msb == 0 && lsb == 0) {
+                if (hasZero) size--;
+                hasZero = false;
+                return;
+            }
+            int mask = keys.length / 2 - 1;
+            int i = (int) hash & mask;
+            while (true) {
+                long m = keys[2 * i], l = keys[2 * i + 1];
+                if (m == 0 && l == 0) return;
+                if (m == msb && l == lsb) break;
+                i = (i + 1) & mask;
+            }
+            size--;
+            int gap = i;
+            for (int j = (gap + 1) & mask; ; j = (j + 1) & mask) {
+                long m = keys[2 * j], l = keys[2 * j + 1];
+                if (m == 0 && l == 0) break;
+                int home = (int) mix(m, l) & mask;
+                // Move j into the gap unless its home lies cyclically in (gap, j]
+                boolean stays = gap <= j ? (gap < home && home <= j) : (gap < home || home <= j);
+                if (!stays) {
+                    keys[2 * gap]     = m;
+                    keys[2 * gap + 1] = l;
+                    gap = j;
+                }
+            }
+            keys[2 * gap]     = 0;
+            keys[2 * gap + 1] = 0;
+        }
+
+        private void grow() {
+            long[] old = keys;
+            keys = new long[old.length * 2];
+            int mask = keys.length / 2 - 1;
+            for (int s = 0; s < old.length; s += 2) {
+                long m = old[s], l = old[s + 1];
+                if (m == 0 && l == 0) continue;
+                int i = (int) mix(m, l) & mask;
+                while (keys[2 * i] != 0 || keys[2 * i + 1] != 0) i = (i + 1) & mask;
+                keys[2 * i]     = m;
+                keys[2 * i + 1] = l;
+            }
+        }
+    }
+}
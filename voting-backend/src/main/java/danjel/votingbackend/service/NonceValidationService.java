@@ -1,7 +1,5 @@
 package danjel.votingbackend.service;
 
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
@@ -9,9 +7,10 @@ import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
 import java.security.InvalidKeyException;
+import java.security.MessageDigest;
 import java.security.NoSuchAlgorithmException;
 import java.util.Base64;
-import java.util.concurrent.TimeUnit;
+import java.util.UUID;
 
 /**
  * ══════════════════════════════════════════════════════════════
@@ -22,18 +21,14 @@ import java.util.concurrent.TimeUnit;
  *    2. NONCE     — UUID must not have been seen before (cached for 5 minutes)
  *    3. SIGNATURE — HMAC-SHA256 over "nonce:timestamp:path" must verify
  *
- *  The nonce cache uses Caffeine (in-process). For a multi-instance
- *  deployment, replace with Redis so all instances share the same
- *  seen-nonces set — otherwise an attacker can replay to a different node.
- *
- *  Required dependency in pom.xml:
- *    <dependency>
- *        <groupId>com.github.ben-manes.caffeine</groupId>
- *        <artifactId>caffeine</artifactId>
- *    </dependency>
+ *  Seen nonces live in a NonceStore (in-process): 16 bytes per UUID in
+ *  per-minute generations, so memory follows request rate × 5 minutes and
+ *  nothing is evicted before it expires. For a multi-instance deployment,
+ *  replace with Redis so all instances share the same seen-nonces set —
+ *  otherwise an attacker can replay to a different node.
  *
  *  For Redis replace:
- *    private final Cache<String, Boolean> usedNonces = ...
+ *    private final NonceStore usedNonces = ...
  *  with:
  *    private final RedisTemplate<String, String> redisTemplate;
  *    and use setIfAbsent(nonce, "1", 5, MINUTES)
@@ -48,21 +43,16 @@ public class NonceValidationService {
     private static final long CLOCK_SKEW_MS   = 5_000L;   // allow 5s clock skew on device
 
     // Store seen nonces for longer than MAX_AGE_MS so an attacker can't wait for expiry
-    private static final long NONCE_CACHE_TTL_MINUTES = 5L;
+    private static final int NONCE_CACHE_TTL_MINUTES = 5;
 
-    private static final String HMAC_ALGORITHM = "HmacSHA256";
+    public static final String HMAC_ALGORITHM = "HmacSHA256";
 
     /**
-     * In-process nonce cache.
-     * Key   = nonce string (UUID)
-     * Value = Boolean.TRUE (we only care about presence)
+     * In-process nonce cache, keyed by the nonce's 128 bits (see {@link #nonceKey}).
      *
      * PRODUCTION NOTE: Replace with Redis for multi-node deployments.
      */
-    private final Cache<String, Boolean> usedNonces = Caffeine.newBuilder()
-            .expireAfterWrite(NONCE_CACHE_TTL_MINUTES, TimeUnit.MINUTES)
-            .maximumSize(100_000)   // ~100 k concurrent unique voters
-            .build();
+    private final NonceStore usedNonces = new NonceStore(NONCE_CACHE_TTL_MINUTES);
 
     /**
      * Validate a signed request.
@@ -71,7 +61,7 @@ public class NonceValidationService {
      * @param timestampStr      value of X-Request-Timestamp header (epoch ms as string)
      * @param path              request path (e.g. "/api/v1/auth/id-card")
      * @param receivedSignature value of X-Request-Signature header
-     * @param deviceSecret      the HMAC secret registered for this device
+     * @param deviceKey         the HMAC key registered for this device
      * @throws ReplayAttackException if any check fails
      */
     public void validate(
@@ -79,7 +69,7 @@ public class NonceValidationService {
             String timestampStr,
             String path,
             String receivedSignature,
-            byte[] deviceSecret) {
+            SecretKeySpec deviceKey) {
 
         // ── 1. Parse timestamp ───────────────────────────────────────────────────
         long timestamp;
@@ -104,19 +94,19 @@ public class NonceValidationService {
         }
 
         // ── 3. Check nonce uniqueness ─────────────────────────────────────────────
-        // putIfAbsent returns null when the key did NOT exist — meaning this is fresh.
-        // If it returns non-null the nonce was already seen — replay detected.
-        Boolean existing = usedNonces.asMap().putIfAbsent(nonce, Boolean.TRUE);
-        if (existing != null) {
+        // add returns true when the nonce was NOT seen before — meaning this is fresh.
+        // If it returns false the nonce was already seen — replay detected.
+        UUID key = nonceKey(nonce);
+        if (!usedNonces.add(key.getMostSignificantBits(), key.getLeastSignificantBits(), now)) {
             log.warn("REPLAY DETECTED: nonce '{}' has already been used", nonce);
             throw new ReplayAttackException("Nonce already used — replay attack detected");
         }
 
         // ── 4. Verify HMAC signature ──────────────────────────────────────────────
-        String expectedSignature = computeHmac(nonce, timestampStr, path, deviceSecret);
-        if (!safeEquals(expectedSignature, receivedSignature)) {
+        byte[] expectedSignature = computeHmac(nonce, timestampStr, path, deviceKey);
+        if (!signatureMatches(expectedSignature, receivedSignature)) {
             // Remove nonce from cache so the client can retry with a valid signature
-            usedNonces.invalidate(nonce);
+            usedNonces.remove(key.getMostSignificantBits(), key.getLeastSignificantBits(), now);
             log.warn("Signature mismatch for path={}, nonce={}", path, nonce);
             throw new ReplayAttackException("Request signature verification failed");
         }
@@ -129,7 +119,7 @@ public class NonceValidationService {
      * Use this during the initial migration period when device secrets are not yet
      * registered. Remove once all clients send valid signatures.
      *
-     * @deprecated Migrate to {@link #validate(String, String, String, String, byte[])}
+     * @deprecated Migrate to {@link #validate(String, String, String, String, SecretKeySpec)}
      */
     @Deprecated
     public void validateTimestampAndNonceOnly(String nonce, String timestampStr) {
@@ -140,47 +130,79 @@ public class NonceValidationService {
             throw new ReplayAttackException("Invalid timestamp format");
         }
 
-        long age = System.currentTimeMillis() - timestamp;
+        long now = System.currentTimeMillis();
+        long age = now - timestamp;
         if (age > MAX_AGE_MS)  throw new ReplayAttackException("Request expired");
         if (age < -CLOCK_SKEW_MS) throw new ReplayAttackException("Timestamp in the future");
 
-        Boolean existing = usedNonces.asMap().putIfAbsent(nonce, Boolean.TRUE);
-        if (existing != null) throw new ReplayAttackException("Nonce already used");
+        UUID key = nonceKey(nonce);
+        if (!usedNonces.add(key.getMostSignificantBits(), key.getLeastSignificantBits(), now)) {
+            throw new ReplayAttackException("Nonce already used");
+        }
     }
 
     // ─── Private helpers ────────────────────────────────────────────────────────
 
+    /**
+     * The nonce as 128 bits. Clients send UUIDs; anything else is hashed to a
+     * name-based UUID so it is still tracked. A collision can only reject a
+     * request as already used, never let a replay through.
+     */
+    private static UUID nonceKey(String nonce) {
+        try {
+            return UUID.fromString(nonce);
+        } catch (IllegalArgumentException e) {
+            return UUID.nameUUIDFromBytes(nonce.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * One HMAC engine per thread, re-keyed per request, instead of a provider
+     * lookup through Mac.getInstance on every request. Mac is not thread-safe.
+     */
+    private static final ThreadLocal<Mac> HMAC = ThreadLocal.withInitial(() -> {
+        try {
+            return Mac.getInstance(HMAC_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("HMAC-SHA256 not available", e);
+        }
+    });
+
+    private static final byte SEPARATOR = ':';
+
     /**
      * Compute HMAC-SHA256 over "nonce:timestamp:path".
      * Must exactly match what Android's NonceManager.signRequest() produces.
+     * Package-private for NonceValidationBenchmark.
      */
-    private String computeHmac(String nonce, String timestamp, String path, byte[] secret) {
+    byte[] computeHmac(String nonce, String timestamp, String path, SecretKeySpec key) {
+        Mac mac = HMAC.get();
         try {
-            String message = nonce + ":" + timestamp + ":" + path;
-            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
-            mac.init(new SecretKeySpec(secret, HMAC_ALGORITHM));
-            byte[] rawMac = mac.doFinal(message.getBytes(StandardCharsets.UTF_8));
-            return Base64.getEncoder().encodeToString(rawMac);
-        } catch (NoSuchAlgorithmException | InvalidKeyException e) {
-            throw new IllegalStateException("HMAC-SHA256 not available", e);
+            mac.init(key);
+        } catch (InvalidKeyException e) {
+            throw new IllegalStateException("Invalid device HMAC key", e);
         }
+        mac.update(nonce.getBytes(StandardCharsets.UTF_8));
+        mac.update(SEPARATOR);
+        mac.update(timestamp.getBytes(StandardCharsets.UTF_8));
+        mac.update(SEPARATOR);
+        mac.update(path.getBytes(StandardCharsets.UTF_8));
+        return mac.doFinal();
     }
 
     /**
-     * Constant-time string comparison to prevent timing side-channel attacks.
+     * Constant-time comparison of the raw MAC bytes against the decoded header.
      * Do NOT use String.equals() for comparing secrets or signatures.
      */
-    private boolean safeEquals(String a, String b) {
-        if (a == null || b == null) return false;
-        byte[] aBytes = a.getBytes(StandardCharsets.UTF_8);
-        byte[] bBytes = b.getBytes(StandardCharsets.UTF_8);
-        if (aBytes.length != bBytes.length) return false;
-
-        int result = 0;
-        for (int i = 0; i < aBytes.length; i++) {
-            result |= (aBytes[i] ^ bBytes[i]);
+    boolean signatureMatches(byte[] expected, String receivedSignature) {
+        if (receivedSignature == null) return false;
+        byte[] received;
+        try {
+            received = Base64.getDecoder().decode(receivedSignature);
+        } catch (IllegalArgumentException e) {
+            return false;
         }
-        return result == 0;
+        return MessageDigest.isEqual(expected, received);
     }
 
     // ─── Exception ──────────────────────────────────────────────────────────────
@@ -0,0 +1,242 @@
+package danjel.votingbackend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import danjel.votingbackend.dto.election.RegionalResultsResponse;
+import danjel.votingbackend.dto.election.RegionalResultsResponse.CountyResult;
+import danjel.votingbackend.dto.election.RegionalResultsResponse.MunicipalityResult;
+import danjel.votingbackend.model.RegionalResult;
+import danjel.votingbackend.model.Vote;
+import danjel.votingbackend.repository.RegionalResultRepository;
+import danjel.votingbackend.repository.VoteRepository;
+import danjel.votingbackend.utils.enums.AlbanianCounty;
+import danjel.votingbackend.utils.enums.AlbanianMunicipality;
+import danjel.votingbackend.utils.enums.ResultChoice;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Maintains the {@code regional_results} rollup and serves the full
+ * regional breakdown of an election from it.
+ *
+ * The rollup advances inside each block's seal transaction: the block's
+ * votes are counted per municipality and choice in memory and applied as
+ * one batch of upserts. A full breakdown is then a single indexed read of a
+ * few hundred rows, cached per election until the next block commits.
+ */
+@Service
+public class RegionalResultsService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RegionalResultsService.class);
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO regional_results
+                (election_id, county, municipality, choice_type, choice_id, votes, updated_at)
+            VALUES (?, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT (election_id, municipality, choice_type, choice_id)
+            DO UPDATE SET votes      = regional_results.votes + EXCLUDED.votes,
+                          updated_at = EXCLUDED.updated_at
+            """;
+
+    private static final String NO_CHOICE = "";
+
+    private final RegionalResultRepository regionalResultRepository;
+    private final VoteRepository           voteRepository;
+    private final JdbcTemplate             jdbcTemplate;
+    private final TransactionTemplate      transactionTemplate;
+
+    private final Cache<String, RegionalResultsResponse> breakdowns = Caffeine.newBuilder()
+            .maximumSize(100)
+            .build();
+
+    public RegionalResultsService(RegionalResultRepository regionalResultRepository,
+                                  VoteRepository voteRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  TransactionTemplate transactionTemplate) {
+        this.regionalResultRepository = regionalResultRepository;
+        this.voteRepository           = voteRepository;
+        this.jdbcTemplate             = jdbcTemplate;
+        this.transactionTemplate      = transactionTemplate;
+    }
+
+    // ── Maintenance ───────────────────────────────────────────────────────────
+
+    /**
+     * Adds a freshly sealed block's votes to the rollup. Must run inside the
+     * seal transaction so the rollup commits or rolls back with the block.
+     */
+    public void onBlockSealed(String electionId, List<Vote> votes) {
+        Map<RollupKey, Long> deltas = new HashMap<>();
+        for (Vote vote : votes) {
+            if (vote.getMunicipality() == null) continue;
+            String candidateId = vote.getCandidate() != null ? vote.getCandidate().getId() : null;
+            String partyId     = vote.getParty() != null ? vote.getParty().getId() : null;
+            count(deltas, vote.getMunicipality(), candidateId, partyId, 1);
+        }
+        apply(electionId, deltas);
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                breakdowns.invalidate(electionId);
+            }
+        });
+    }
+
+    /**
+     * Rebuilds the rollup of any election whose TOTAL rows disagree with its
+     * sealed votes — e.g. blocks sealed before the table existed. Runs before
+     * the sequencers start sealing, so nothing writes the rollup meanwhile.
+     */
+    @PostConstruct
+    void reconcile() {
+        Map<String, Long> sealed = toCounts(voteRepository.countSealedVotesByElection());
+        Map<String, Long> rolledUp = toCounts(regionalResultRepository.sumTotalsByElection());
+
+        Set<String> electionIds = new HashSet<>(sealed.keySet());
+        electionIds.addAll(rolledUp.keySet());
+        for (String electionId : electionIds) {
+            long expected = sealed.getOrDefault(electionId, 0L);
+            long actual   = rolledUp.getOrDefault(electionId, 0L);
+            if (expected == actual) continue;
+
+            logger.warn("Regional rollup out of date  election={}  sealed={}  rollup={} — rebuilding",
+                    electionId, expected, actual);
+            rebuild(electionId);
+        }
+    }
+
+    public void rebuild(String electionId) {
+        transactionTemplate.executeWithoutResult(status -> {
+            regionalResultRepository.deleteByElectionId(electionId);
+
+            Map<RollupKey, Long> counts = new HashMap<>();
+            for (Object[] row : voteRepository.countSealedVotesByMunicipalityAndChoice(electionId)) {
+                count(counts, (AlbanianMunicipality) row[0], (String) row[1], (String) row[2], (Long) row[3]);
+            }
+            apply(electionId, counts);
+        });
+        breakdowns.invalidate(electionId);
+    }
+
+    private static void count(Map<RollupKey, Long> counts, AlbanianMunicipality municipality,
+                              String candidateId, String partyId, long n) {
+        counts.merge(new RollupKey(municipality, ResultChoice.TOTAL, NO_CHOICE), n, Long::sum);
+        if (partyId != null)     counts.merge(new RollupKey(municipality, ResultChoice.PARTY, partyId), n, Long::sum);
+        if (candidateId != null) counts.merge(new RollupKey(municipality, ResultChoice.CANDIDATE, candidateId), n, Long::sum);
+    }
+
+    private void apply(String electionId, Map<RollupKey, Long> deltas) {
+        if (deltas.isEmpty()) return;
+        // Entities are written with hibernate.jdbc.time_zone=UTC: a local
+        // LocalDateTime bound with a UTC calendar, as VotingService binds votes
+        Calendar  utc = Calendar.getInstance(TimeZone.getTimeZone(ZoneOffset.UTC));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        jdbcTemplate.batchUpdate(UPSERT_SQL, new ArrayList<>(deltas.entrySet()), deltas.size(), (ps, delta) -> {
+            RollupKey key = delta.getKey();
+            ps.setString(1, electionId);
+            ps.setString(2, key.municipality().getCounty().name());
+            ps.setString(3, key.municipality().name());
+            ps.setString(4, key.choice().name());
+            ps.setString(5, key.choiceId());
+            ps.setLong(6, delta.getValue());
+            ps.setTimestamp(7, now, utc);
+        });
+    }
+
+    private static Map<String, Long> toCounts(List<Object[]> rows) {
+        Map<String, Long> counts = new HashMap<>();
+        for (Object[] row : rows) counts.put((String) row[0], ((Number) row[1]).longValue());
+        return counts;
+    }
+
+    private record RollupKey(AlbanianMunicipality municipality, ResultChoice choice, String choiceId) {}
+
+    // ── Reads ─────────────────────────────────────────────────────────────────
+
+    /** Full breakdown: national, per county and per municipality. */
+    public RegionalResultsResponse regionalResults(String electionId) {
+        return breakdowns.get(electionId, this::load);
+    }
+
+    private RegionalResultsResponse load(String electionId) {
+        Map<AlbanianCounty, CountyResult> counties = new EnumMap<>(AlbanianCounty.class);
+        Map<AlbanianMunicipality, MunicipalityResult> municipalities = new EnumMap<>(AlbanianMunicipality.class);
+
+        RegionalResultsResponse response = new RegionalResultsResponse();
+        response.setElectionId(electionId);
+
+        for (RegionalResult row : regionalResultRepository.findByElectionId(electionId)) {
+            AlbanianMunicipality m = row.getMunicipality();
+            CountyResult county = counties.computeIfAbsent(m.getCounty(), c -> {
+                CountyResult r = new CountyResult();
+                r.setCounty(c);
+                r.setCountyName(c.getDisplayName());
+                return r;
+            });
+            MunicipalityResult municipality = municipalities.computeIfAbsent(m, k -> {
+                MunicipalityResult r = new MunicipalityResult();
+                r.setMunicipality(k);
+                r.setMunicipalityName(k.getDisplayName());
+                county.getMunicipalities().add(r);
+                return r;
+            });
+
+            long n = row.getVotes();
+            switch (row.getChoiceType()) {
+                case TOTAL -> {
+                    response.setTotalVotes(response.getTotalVotes() + n);
+                    county.setTotalVotes(county.getTotalVotes() + n);
+                    municipality.setTotalVotes(n);
+                }
+                case PARTY -> {
+                    response.getParties().merge(row.getChoiceId(), n, Long::sum);
+                    county.getParties().merge(row.getChoiceId(), n, Long::sum);
+                    municipality.getParties().put(row.getChoiceId(), n);
+                }
+                case CANDIDATE -> {
+                    response.getCandidates().merge(row.getChoiceId(), n, Long::sum);
+                    county.getCandidates().merge(row.getChoiceId(), n, Long::sum);
+                    municipality.getCandidates().put(row.getChoiceId(), n);
+                }
+            }
+            if (response.getAsOf() == null || row.getUpdatedAt().isAfter(response.getAsOf())) {
+                response.setAsOf(row.getUpdatedAt());
+            }
+        }
+
+        response.setParties(ranked(response.getParties()));
+        response.setCandidates(ranked(response.getCandidates()));
+        for (CountyResult county : counties.values()) {
+            county.setParties(ranked(county.getParties()));
+            county.setCandidates(ranked(county.getCandidates()));
+            county.getMunicipalities().sort(Comparator.comparing(MunicipalityResult::getMunicipality));
+            for (MunicipalityResult municipality : county.getMunicipalities()) {
+                municipality.setParties(ranked(municipality.getParties()));
+                municipality.setCandidates(ranked(municipality.getCandidates()));
+            }
+        }
+        response.setCounties(new ArrayList<>(counties.values()));
+        return response;
+    }
+
+    private static Map<String, Long> ranked(Map<String, Long> counts) {
+        Map<String, Long> ranked = new LinkedHashMap<>();
+        counts.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue(Comparator.reverseOrder()))
+                .forEach(e -> ranked.put(e.getKey(), e.getValue()));
+        return ranked;
+    }
+}
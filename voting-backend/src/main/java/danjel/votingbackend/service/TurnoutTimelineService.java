@@ -0,0 +1,331 @@
+package danjel.votingbackend.service;
+
+import danjel.votingbackend.dto.election.TurnoutSeriesResponse;
+import danjel.votingbackend.exception.ElectionException;
+import danjel.votingbackend.model.Election;
+import danjel.votingbackend.model.TurnoutSnapshot;
+import danjel.votingbackend.model.Vote;
+import danjel.votingbackend.repository.ElectionRepository;
+import danjel.votingbackend.repository.TurnoutSnapshotRepository;
+import danjel.votingbackend.repository.VoteRepository;
+import danjel.votingbackend.utils.enums.AlbanianCounty;
+import danjel.votingbackend.utils.enums.ElectionStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.nio.ByteBuffer;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Votes cast per minute, per election and county, kept in memory.
+ *
+ * Each election has a ring of {@code turnout.window-minutes} one-minute
+ * buckets in one preallocated long array: slot {@code minute % window}
+ * holds 1 + counties counters (whole election, then one per county) plus
+ * the minute it currently represents. Recording a vote is two atomic adds.
+ *
+ * Touched minutes are written to {@code turnout_snapshots} every
+ * {@code turnout.snapshot-interval-ms}. Range queries read the ring for
+ * minutes it still covers and the snapshots for anything older; neither
+ * touches the votes table. At startup the ring is reloaded from snapshots,
+ * and the minutes after the last snapshot are recounted from the votes.
+ */
+@Service
+public class TurnoutTimelineService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TurnoutTimelineService.class);
+
+    private static final int STRIDE     = 1 + AlbanianCounty.values().length;
+    private static final int MAX_POINTS = 10_000;
+
+    private static final String UPSERT_SQL = """
+            INSERT INTO turnout_snapshots (election_id, epoch_minute, counts)
+            VALUES (?, ?, ?)
+            ON CONFLICT (election_id, epoch_minute) DO UPDATE SET counts = EXCLUDED.counts
+            """;
+
+    private final TurnoutSnapshotRepository snapshotRepository;
+    private final VoteRepository            voteRepository;
+    private final ElectionRepository        electionRepository;
+    private final JdbcTemplate              jdbcTemplate;
+    private final int                       windowMinutes;
+
+    private final Map<String, Series> series = new ConcurrentHashMap<>();
+
+    public TurnoutTimelineService(TurnoutSnapshotRepository snapshotRepository,
+                                  VoteRepository voteRepository,
+                                  ElectionRepository electionRepository,
+                                  JdbcTemplate jdbcTemplate,
+                                  @Value("${turnout.window-minutes:2880}") int windowMinutes) {
+        this.snapshotRepository = snapshotRepository;
+        this.voteRepository     = voteRepository;
+        this.electionRepository = electionRepository;
+        this.jdbcTemplate       = jdbcTemplate;
+        this.windowMinutes      = windowMinutes;
+    }
+
+    // ── Ingestion ─────────────────────────────────────────────────────────────
+
+    /** Counts {@code vote} in its minute once the surrounding transaction commits. */
+    public void onVoteCast(Vote vote) {
+        String electionId     = vote.getElection().getId();
+        long minute           = minuteOf(vote.getTimestamp());
+        AlbanianCounty county = vote.getCounty();
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    series(electionId).add(minute, county, 1);
+                }
+            });
+        } else {
+            series(electionId).add(minute, county, 1);
+        }
+    }
+
+    // ── Queries ───────────────────────────────────────────────────────────────
+
+    /**
+     * Votes per {@code stepMinutes} bucket between {@code from} and {@code to}
+     * (both inclusive, truncated to the minute), for the whole election or
+     * one county.
+     */
+    public TurnoutSeriesResponse turnout(String electionId, LocalDateTime from, LocalDateTime to,
+                                         AlbanianCounty county, int stepMinutes) {
+        long fromMinute = minuteOf(from);
+        long toMinute   = minuteOf(to);
+        if (stepMinutes < 1 || toMinute < fromMinute) {
+            throw new ElectionException("Invalid turnout range");
+        }
+        long buckets = (toMinute - fromMinute) / stepMinutes + 1;
+        if (buckets > MAX_POINTS) {
+            throw new ElectionException("Turnout range too large: at most " + MAX_POINTS + " points");
+        }
+
+        int index = county == null ? 0 : 1 + county.ordinal();
+        Series s = series.get(electionId);
+        long memoryFrom = s == null ? Long.MAX_VALUE : s.coveredFrom(currentMinute());
+
+        // Minutes the ring does not cover come from the snapshots
+        Map<Long, Long> persisted = new HashMap<>();
+        if (fromMinute < memoryFrom) {
+            long dbTo = Math.min(toMinute, memoryFrom - 1);
+            for (TurnoutSnapshot snapshot : snapshotRepository.findRange(electionId, fromMinute, dbTo)) {
+                persisted.put(snapshot.getEpochMinute(), ByteBuffer.wrap(snapshot.getCounts()).getLong(index * Long.BYTES));
+            }
+        }
+
+        TurnoutSeriesResponse response = new TurnoutSeriesResponse();
+        response.setElectionId(electionId);
+        response.setCounty(county);
+        response.setFrom(timeOf(fromMinute));
+        response.setTo(timeOf(toMinute));
+        response.setStepMinutes(stepMinutes);
+
+        long total = 0;
+        for (long bucket = fromMinute; bucket <= toMinute; bucket += stepMinutes) {
+            long votes = 0;
+            long end = Math.min(toMinute, bucket + stepMinutes - 1);
+            for (long m = bucket; m <= end; m++) {
+                votes += m >= memoryFrom ? s.count(m, index) : persisted.getOrDefault(m, 0L);
+            }
+            response.getPoints().add(new TurnoutSeriesResponse.Point(timeOf(bucket), votes));
+            total += votes;
+        }
+        response.setTotalVotes(total);
+        return response;
+    }
+
+    // ── Snapshots ─────────────────────────────────────────────────────────────
+
+    /** Writes every minute touched since the previous snapshot. */
+    @Scheduled(fixedDelayString = "${turnout.snapshot-interval-ms:30000}")
+    public void snapshot() {
+        long now = currentMinute();
+        series.forEach((electionId, s) -> {
+            long from = s.oldestDirty.getAndSet(Long.MAX_VALUE);
+            if (from == Long.MAX_VALUE) return;
+            from = Math.max(from, now - windowMinutes + 1);
+
+            List<Object[]> rows = new ArrayList<>();
+            for (long m = from; m <= now; m++) {
+                long[] counts = s.read(m);
+                if (counts != null) rows.add(new Object[] { electionId, m, encode(counts) });
+            }
+            try {
+                jdbcTemplate.batchUpdate(UPSERT_SQL, rows);
+            } catch (DataAccessException e) {
+                s.markDirty(from);
+                logger.warn("Turnout snapshot failed  election={}: {}", electionId, e.getMessage());
+            }
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        snapshot();
+    }
+
+    /**
+     * Reloads the rings of running elections. Runs before the web server
+     * accepts requests, so recounted minutes cannot also be counted by a
+     * commit hook.
+     */
+    @PostConstruct
+    void load() {
+        long now         = currentMinute();
+        long windowStart = now - windowMinutes + 1;
+
+        for (Election election : electionRepository.findByStatusIn(List.of(ElectionStatus.STARTED, ElectionStatus.CLOSING))) {
+            String electionId = election.getId();
+            Series s = new Series(windowStart);
+            for (TurnoutSnapshot snapshot : snapshotRepository.findRange(electionId, windowStart, now)) {
+                s.put(snapshot.getEpochMinute(), decode(snapshot.getCounts()));
+            }
+
+            // The latest persisted minute may have been partial; recount from just before it
+            long recountFrom = Math.max(windowStart,
+                    snapshotRepository.findLatestMinute(electionId).map(m -> m - 1).orElse(windowStart));
+            s.clearFrom(recountFrom, now);
+            long recounted = 0;
+            for (Object[] row : voteRepository.findTimestampsAndCountiesSince(electionId, timeOf(recountFrom))) {
+                s.add(minuteOf((LocalDateTime) row[0]), (AlbanianCounty) row[1], 1);
+                recounted++;
+            }
+            series.put(electionId, s);
+            logger.info("Turnout timeline loaded  election={}  recounted={}", electionId, recounted);
+        }
+    }
+
+    // ── Minutes ───────────────────────────────────────────────────────────────
+
+    // LocalDateTime values are local time; UTC here is only a fixed base for arithmetic
+    private static long minuteOf(LocalDateTime time) {
+        return Math.floorDiv(time.toEpochSecond(ZoneOffset.UTC), 60);
+    }
+
+    private static LocalDateTime timeOf(long minute) {
+        return LocalDateTime.ofEpochSecond(minute * 60, 0, ZoneOffset.UTC);
+    }
+
+    private static long currentMinute() {
+        return minuteOf(LocalDateTime.now());
+    }
+
+    private static byte[] encode(long[] counts) {
+        ByteBuffer buffer = ByteBuffer.allocate(counts.length * Long.BYTES);
+        for (long count : counts) buffer.putLong(count);
+        return buffer.array();
+    }
+
+    private static long[] decode(byte[] bytes) {
+        long[] counts = new long[STRIDE];
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        for (int i = 0; i < STRIDE && buffer.remaining() >= Long.BYTES; i++) counts[i] = buffer.getLong();
+        return counts;
+    }
+
+    // ── Ring ──────────────────────────────────────────────────────────────────
+
+    private Series series(String electionId) {
+        return series.computeIfAbsent(electionId, k -> new Series(currentMinute()));
+    }
+
+    private final class Series {
+        final AtomicLongArray counts  = new AtomicLongArray(windowMinutes * STRIDE);
+        final AtomicLongArray minutes = new AtomicLongArray(windowMinutes);   // minute held by each slot
+        final AtomicLong oldestDirty  = new AtomicLong(Long.MAX_VALUE);
+        /** First minute for which the ring holds every vote. */
+        final long complete;
+
+        Series(long complete) {
+            this.complete = complete;
+            for (int i = 0; i < windowMinutes; i++) minutes.set(i, Long.MIN_VALUE);
+        }
+
+        long coveredFrom(long now) {
+            return Math.max(complete, now - windowMinutes + 1);
+        }
+
+        void add(long minute, AlbanianCounty county, long n) {
+            int slot = claim(minute);
+            if (slot < 0) return;   // older than the window
+            int base = slot * STRIDE;
+            counts.addAndGet(base, n);
+            if (county != null) counts.addAndGet(base + 1 + county.ordinal(), n);
+            markDirty(minute);
+        }
+
+        void put(long minute, long[] values) {
+            int slot = claim(minute);
+            if (slot < 0) return;
+            for (int i = 0; i < STRIDE; i++) counts.set(slot * STRIDE + i, values[i]);
+        }
+
+        long count(long minute, int index) {
+            int slot = slot(minute);
+            if (minutes.get(slot) != minute) return 0;
+            return counts.get(slot * STRIDE + index);
+        }
+
+        /** Copy of one minute's counters, or null if the ring does not hold it. */
+        long[] read(long minute) {
+            int slot = slot(minute);
+            if (minutes.get(slot) != minute) return null;
+            long[] values = new long[STRIDE];
+            for (int i = 0; i < STRIDE; i++) values[i] = counts.get(slot * STRIDE + i);
+            return values;
+        }
+
+        void clearFrom(long from, long to) {
+            for (long m = from; m <= to; m++) {
+                int slot = slot(m);
+                if (minutes.get(slot) != m) continue;
+                for (int i = 0; i < STRIDE; i++) counts.set(slot * STRIDE + i, 0);
+                markDirty(m);
+            }
+        }
+
+        void markDirty(long minute) {
+            oldestDirty.accumulateAndGet(minute, Math::min);
+        }
+
+        private int slot(long minute) {
+            return (int) Math.floorMod(minute, (long) windowMinutes);
+        }
+
+        /** Slot for {@code minute}, recycling it if it still holds an older minute; -1 if too old. */
+        private int claim(long minute) {
+            int slot = slot(minute);
+            long held = minutes.get(slot);
+            if (held == minute) return slot;
+            synchronized (this) {
+                held = minutes.get(slot);
+                if (held > minute) return -1;
+                if (held < minute) {
+                    for (int i = 0; i < STRIDE; i++) counts.set(slot * STRIDE + i, 0);
+                    minutes.set(slot, minute);
+                }
+            }
+            return slot;
+        }
+    }
+}
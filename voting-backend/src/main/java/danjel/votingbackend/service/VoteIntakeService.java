@@ -0,0 +1,412 @@
+package danjel.votingbackend.service;
+
+import danjel.votingbackend.dto.BatchVoteRequest.SignedBallot;
+import danjel.votingbackend.dto.VoteIntakeResponse;
+import danjel.votingbackend.dto.VoteRequest;
+import danjel.votingbackend.dto.VoteResponse;
+import danjel.votingbackend.exception.VotingException;
+import danjel.votingbackend.model.VoteIntake;
+import danjel.votingbackend.repository.VoteIntakeRepository;
+import danjel.votingbackend.utils.enums.IntakeStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Accept-then-process voting.
+ *
+ * {@link #accept} runs castVote's checks, writes one {@code vote_intake}
+ * row and returns its receipt token; the caller answers 202. One worker
+ * thread drains accepted ids in batches of {@code voting.intake.batch-size}
+ * and casts each batch through {@link VotingService#castVotes(List, List, List)},
+ * recording the outcome on the intake rows in the same transaction. A
+ * turnout spike therefore lengthens the queue rather than the request.
+ *
+ * The intake table is the durable queue: rows still PENDING at startup are
+ * queued again, and a row already processed is skipped if it is seen twice.
+ * Ballots are cast against the voting window as of their acceptance, so a
+ * 202 is not undone by the election ending while the queue drains.
+ *
+ * Closing an election first stops its intake through {@link #stopIntake}:
+ * the election is marked CLOSING once no acceptance is in flight, so every
+ * 202 already handed out has a committed row that {@link #awaitDrained}
+ * sees, and no further ballot is accepted. The gate is per process, like
+ * the worker.
+ */
+@Service
+public class VoteIntakeService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VoteIntakeService.class);
+
+    private static final long POLL_MS         = 1_000;
+    private static final long RETRY_MS        = 1_000;
+    private static final long JOIN_TIMEOUT_MS = 5_000;
+    private static final long DRAIN_POLL_MS   = 200;
+    private static final int  MAX_REASON_LENGTH = 255;   // rejection_reason column
+    private static final int  GCM_IV_BYTES      = 12;
+    private static final int  GCM_TAG_BITS      = 128;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final VoteIntakeRepository intakeRepository;
+    private final VotingService        votingService;
+    private final TransactionTemplate  transactionTemplate;
+    private final int                  batchSize;
+    private final long                 drainTimeoutMs;
+    private final SecretKeySpec        voterRefKey;
+
+    private final BlockingQueue<String> queue = new LinkedBlockingQueue<>();
+
+    /** Acceptances hold the read side until their row commits; stopping intake takes the write side. */
+    private final ConcurrentHashMap<String, ReadWriteLock> gates = new ConcurrentHashMap<>();
+    private final Set<String> stopped = ConcurrentHashMap.newKeySet();
+    private volatile boolean running;
+    private Thread worker;
+
+    public VoteIntakeService(VoteIntakeRepository intakeRepository,
+                             VotingService votingService,
+                             TransactionTemplate transactionTemplate,
+                             @Value("${voting.intake.batch-size:200}") int batchSize,
+                             @Value("${voting.intake.drain-timeout-ms:60000}") long drainTimeoutMs,
+                             @Value("${voting.secret.salt}") String secretSalt) {
+        this.intakeRepository    = intakeRepository;
+        this.votingService       = votingService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize           = batchSize;
+        this.drainTimeoutMs      = drainTimeoutMs;
+        this.voterRefKey         = voterRefKey(secretSalt);
+    }
+
+    // ── Accept ────────────────────────────────────────────────────────────────
+
+    /**
+     * Checks the vote, stores it for casting and queues it once the row has
+     * committed. Throws VotingException for anything castVote would reject
+     * up front, or if the election's intake has been stopped.
+     */
+    public VoteIntakeResponse accept(String voterId, VoteRequest request) {
+        String electionId = request.getElectionId();
+        Lock lock = gate(electionId).readLock();
+        lock.lock();
+        try {
+            if (stopped.contains(electionId)) {
+                throw new VotingException("Election is closing and no longer accepts votes");
+            }
+            VoteIntake saved = transactionTemplate.execute(status -> store(voterId, request));
+            queue.add(saved.getId());
+            return toResponse(saved);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private VoteIntake store(String voterId, VoteRequest request) {
+        votingService.checkVote(voterId, request);
+
+        VoteIntake intake = new VoteIntake();
+        intake.setReceiptToken(newReceiptToken());
+        intake.setElectionId(request.getElectionId());
+        intake.setVoterRef(sealVoterId(voterId));
+        intake.setCandidateId(request.getCandidateId());
+        intake.setPartyId(request.getPartyId());
+        intake.setEncryptedVoteData(request.getEncryptedVoteData());
+        intake.setDigitalSignature(request.getDigitalSignature());
+        intake.setNonce(request.getNonce());
+        intake.setVotingStationId(request.getVotingStationId());
+        return intakeRepository.save(intake);
+    }
+
+    /**
+     * Stops accepting votes for the election. Waits for acceptances in
+     * flight to commit, then runs {@code transition} — which marks the
+     * election CLOSING in its own transaction — before any further vote can
+     * be accepted. If {@code transition} throws, intake stays open.
+     */
+    public void stopIntake(String electionId, Runnable transition) {
+        Lock lock = gate(electionId).writeLock();
+        lock.lock();
+        try {
+            transition.run();
+            stopped.add(electionId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private ReadWriteLock gate(String electionId) {
+        return gates.computeIfAbsent(electionId, k -> new ReentrantReadWriteLock());
+    }
+
+    @Transactional(readOnly = true)
+    public VoteIntakeResponse status(String receiptToken) {
+        return intakeRepository.findByReceiptToken(receiptToken)
+                .map(VoteIntakeService::toResponse)
+                .orElseThrow(() -> new VotingException("Receipt not found"));
+    }
+
+    public int backlog() {
+        return queue.size();
+    }
+
+    /**
+     * Waits until every accepted ballot of the election has been cast or
+     * rejected. Returns false if some are still pending after
+     * {@code voting.intake.drain-timeout-ms}. Call with intake stopped and
+     * outside a transaction; it only polls.
+     */
+    public boolean awaitDrained(String electionId) {
+        long deadline = System.currentTimeMillis() + drainTimeoutMs;
+        while (intakeRepository.countByElectionIdAndStatus(electionId, IntakeStatus.PENDING) > 0) {
+            if (System.currentTimeMillis() >= deadline) return false;
+            try {
+                Thread.sleep(DRAIN_POLL_MS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ── Worker ────────────────────────────────────────────────────────────────
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        List<String> pending = intakeRepository.findIdsByStatus(IntakeStatus.PENDING);
+        queue.addAll(pending);
+        if (!pending.isEmpty()) {
+            logger.info("Re-queued {} accepted vote(s) not yet cast", pending.size());
+        }
+
+        running = true;
+        worker = new Thread(this::run, "vote-intake");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    @PreDestroy
+    void stop() {
+        running = false;
+        if (worker == null) return;
+        try {
+            worker.join(JOIN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Anything left is still PENDING in the table and re-queued on startup
+    }
+
+    private void run() {
+        List<String> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                String first = queue.poll(POLL_MS, TimeUnit.MILLISECONDS);
+                if (first == null) continue;
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                process(batch);
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                logger.error("Casting accepted votes failed  batch={}: {}", batch.size(), e.getMessage(), e);
+                processOneByOne(batch);
+            }
+            batch.clear();
+        }
+    }
+
+    /**
+     * Casts a failed batch one row at a time, so a single bad row does not
+     * hold back the rest. A row that fails on its own is REJECTED with the
+     * reason. If the database itself is failing, nothing is rejected: the
+     * remaining rows stay PENDING and are retried after a pause.
+     */
+    private void processOneByOne(List<String> intakeIds) {
+        for (int i = 0; i < intakeIds.size(); i++) {
+            String intakeId = intakeIds.get(i);
+            try {
+                process(List.of(intakeId));
+            } catch (RuntimeException e) {
+                if (isTransient(e)) {
+                    logger.warn("Database unavailable, retrying {} accepted vote(s): {}",
+                            intakeIds.size() - i, e.getMessage());
+                    queue.addAll(intakeIds.subList(i, intakeIds.size()));
+                    pause();
+                    return;
+                }
+                logger.error("Rejecting accepted vote  intake={}: {}", intakeId, e.getMessage(), e);
+                reject(intakeId, e);
+            }
+        }
+    }
+
+    private void reject(String intakeId, RuntimeException cause) {
+        // Internal errors are logged in full; the voter sees the kind of failure only
+        String reason = cause instanceof VotingException
+                ? cause.getMessage()
+                : "Vote could not be cast (" + cause.getClass().getSimpleName() + ")";
+        String stored = reason.length() > MAX_REASON_LENGTH ? reason.substring(0, MAX_REASON_LENGTH) : reason;
+        try {
+            transactionTemplate.executeWithoutResult(status -> intakeRepository.findById(intakeId)
+                    .filter(i -> i.getStatus() == IntakeStatus.PENDING)
+                    .ifPresent(i -> i.markRejected(stored)));
+        } catch (RuntimeException e) {
+            // Still PENDING; the row is retried on the next startup
+            logger.error("Could not mark accepted vote rejected  intake={}: {}", intakeId, e.getMessage());
+        }
+    }
+
+    private static boolean isTransient(RuntimeException e) {
+        return e instanceof TransientDataAccessException
+                || e instanceof RecoverableDataAccessException
+                || e instanceof CannotCreateTransactionException;
+    }
+
+    private void process(List<String> intakeIds) {
+        transactionTemplate.executeWithoutResult(status -> {
+            List<VoteIntake> intakes = intakeRepository.findAllById(intakeIds).stream()
+                    .filter(i -> i.getStatus() == IntakeStatus.PENDING)
+                    .toList();
+            if (intakes.isEmpty()) return;
+
+            List<SignedBallot>  ballots    = intakes.stream().map(this::toBallot).toList();
+            List<String>        tokens     = intakes.stream().map(VoteIntake::getReceiptToken).toList();
+            List<LocalDateTime> acceptedAt = intakes.stream().map(VoteIntake::getCreatedAt).toList();
+            List<VoteResponse>  results    = votingService.castVotes(ballots, tokens, acceptedAt).getResults();
+
+            for (int i = 0; i < intakes.size(); i++) {
+                VoteResponse result = results.get(i);
+                if (result.isSuccess()) {
+                    intakes.get(i).markCast(result.getVoteHash());
+                } else {
+                    intakes.get(i).markRejected(result.getMessage());
+                }
+            }
+        });
+    }
+
+    private void pause() {
+        try {
+            Thread.sleep(RETRY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+
+    // ── Mapping ───────────────────────────────────────────────────────────────
+
+    private SignedBallot toBallot(VoteIntake intake) {
+        SignedBallot ballot = new SignedBallot();
+        ballot.setVoterId(openVoterRef(intake.getVoterRef()));
+        ballot.setElectionId(intake.getElectionId());
+        ballot.setCandidateId(intake.getCandidateId());
+        ballot.setPartyId(intake.getPartyId());
+        ballot.setEncryptedVoteData(intake.getEncryptedVoteData());
+        ballot.setDigitalSignature(intake.getDigitalSignature());
+        ballot.setNonce(intake.getNonce());
+        ballot.setVotingStationId(intake.getVotingStationId());
+        return ballot;
+    }
+
+    private static VoteIntakeResponse toResponse(VoteIntake intake) {
+        VoteIntakeResponse r = new VoteIntakeResponse();
+        r.setReceiptToken(intake.getReceiptToken());
+        r.setStatus(intake.getStatus());
+        r.setAcceptedAt(intake.getCreatedAt());
+        r.setProcessedAt(intake.getProcessedAt());
+        switch (intake.getStatus()) {
+            case PENDING  -> r.setMessage("Vote accepted and waiting to be cast");
+            case CAST     -> {
+                r.setMessage("Vote cast successfully");
+                r.setVoteHash(intake.getVoteHash());
+                r.setVerificationCode(intake.getVoteHash().substring(0, 8).toUpperCase());
+            }
+            case REJECTED -> r.setMessage(intake.getRejectionReason());
+        }
+        return r;
+    }
+
+    // ── Voter reference ───────────────────────────────────────────────────────
+
+    /**
+     * Seals the voter id for the intake row with AES-GCM under a key derived
+     * from {@code voting.secret.salt}, with a fresh IV each time so equal
+     * voter ids do not give equal references.
+     */
+    private String sealVoterId(String voterId) {
+        try {
+            byte[] iv = new byte[GCM_IV_BYTES];
+            RANDOM.nextBytes(iv);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.ENCRYPT_MODE, voterRefKey, new GCMParameterSpec(GCM_TAG_BITS, iv));
+            byte[] sealed = cipher.doFinal(voterId.getBytes(StandardCharsets.UTF_8));
+            byte[] ref = new byte[iv.length + sealed.length];
+            System.arraycopy(iv, 0, ref, 0, iv.length);
+            System.arraycopy(sealed, 0, ref, iv.length, sealed.length);
+            return Base64.getEncoder().encodeToString(ref);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot seal voter reference", e);
+        }
+    }
+
+    private String openVoterRef(String voterRef) {
+        try {
+            byte[] ref = Base64.getDecoder().decode(voterRef);
+            Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+            cipher.init(Cipher.DECRYPT_MODE, voterRefKey, new GCMParameterSpec(GCM_TAG_BITS, ref, 0, GCM_IV_BYTES));
+            byte[] voterId = cipher.doFinal(ref, GCM_IV_BYTES, ref.length - GCM_IV_BYTES);
+            return new String(voterId, StandardCharsets.UTF_8);
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            // Rejected by the worker like any other ballot that cannot be cast
+            throw new VotingException("Accepted vote could not be read back");
+        }
+    }
+
+    private static SecretKeySpec voterRefKey(String secretSalt) {
+        try {
+            byte[] key = MessageDigest.getInstance("SHA-256")
+                    .digest(("vote-intake:" + secretSalt).getBytes(StandardCharsets.UTF_8));
+            return new SecretKeySpec(key, "AES");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /** Same shape as castVote's receipt tokens; the vote is written with it later. */
+    private static String newReceiptToken() {
+        byte[] token = new byte[32];
+        RANDOM.nextBytes(token);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(token);
+    }
+}
@@ -0,0 +1,68 @@
+package danjel.votingbackend.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.stereotype.Service;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.NoSuchAlgorithmException;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Duration;
+import java.util.Base64;
+
+/**
+ * Parsed device public keys of voters, and per-thread SHA256withRSA verifiers.
+ *
+ * Decoding and ASN.1-parsing the registered key on every vote cost more than
+ * the RSA verification itself. Keys are cached by voter id together with the
+ * encoded key they were parsed from: a voter who re-registers with a new
+ * device key misses the cache and is parsed again, so a stale key can never
+ * verify a ballot.
+ */
+@Service
+public class VoterKeyCache {
+
+    private static final String SIGNATURE_ALGORITHM = "SHA256withRSA";
+
+    private record Entry(String encodedKey, PublicKey key) {}
+
+    private final Cache<String, Entry> keys = Caffeine.newBuilder()
+            .maximumSize(100_000)
+            .expireAfterAccess(Duration.ofHours(1))
+            .build();
+
+    /** Signature objects are stateful and not thread-safe; one per thread is reused. */
+    private static final ThreadLocal<Signature> VERIFIER = ThreadLocal.withInitial(() -> {
+        try {
+            return Signature.getInstance(SIGNATURE_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(SIGNATURE_ALGORITHM + " not available", e);
+        }
+    });
+
+    /**
+     * Verifies {@code signature} over {@code payload} with the voter's
+     * registered key, given Base64-encoded as stored on the voter.
+     */
+    public boolean verify(String voterId, String encodedKey, byte[] payload, byte[] signature)
+            throws GeneralSecurityException {
+        Signature verifier = VERIFIER.get();
+        verifier.initVerify(publicKey(voterId, encodedKey));
+        verifier.update(payload);
+        return verifier.verify(signature);
+    }
+
+    private PublicKey publicKey(String voterId, String encodedKey) throws GeneralSecurityException {
+        Entry entry = keys.getIfPresent(voterId);
+        if (entry != null && entry.encodedKey().equals(encodedKey)) {
+            return entry.key();
+        }
+        byte[] keyBytes = Base64.getDecoder().decode(encodedKey);
+        PublicKey key = KeyFactory.getInstance("RSA").generatePublic(new X509EncodedKeySpec(keyBytes));
+        keys.put(voterId, new Entry(encodedKey, key));
+        return key;
+    }
+}
@@ -1,12 +1,13 @@
 package danjel.votingbackend.service;
 
+import danjel.votingbackend.dto.BatchVoteRequest.SignedBallot;
+import danjel.votingbackend.dto.BatchVoteResponse;
 import danjel.votingbackend.dto.VoteRequest;
 import danjel.votingbackend.dto.VoteResponse;
 import danjel.votingbackend.dto.election.CandidateResponse;
 import danjel.votingbackend.exception.VotingException;
 import danjel.votingbackend.model.Candidate;
 import danjel.votingbackend.model.Election;
-import danjel.votingbackend.model.Party;
 import danjel.votingbackend.model.Vote;
 import danjel.votingbackend.model.Voter;
 import danjel.votingbackend.repository.CandidateRepository;
@@ -14,24 +15,63 @@ import danjel.votingbackend.repository.ElectionRepository;
 import danjel.votingbackend.repository.PartyRepository;
 import danjel.votingbackend.repository.VoteRepository;
 import danjel.votingbackend.repository.VoterRepository;
+import danjel.votingbackend.service.ElectionBallotCache.Ballot;
+import danjel.votingbackend.service.ElectionBallotCache.CandidateEntry;
+import danjel.votingbackend.service.ElectionBallotCache.PartyEntry;
+import danjel.votingbackend.utils.Hash256;
 import danjel.votingbackend.utils.enums.ElectionStatus;
 import danjel.votingbackend.utils.enums.ElectionType;
 import jakarta.annotation.PreDestroy;
+import org.hibernate.exception.ConstraintViolationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.nio.charset.StandardCharsets;
 import java.security.*;
-import java.security.spec.X509EncodedKeySpec;
+import java.sql.PreparedStatement;
+import java.sql.Statement;
+import java.sql.Timestamp;
 import java.time.LocalDateTime;
-import java.util.Base64;
-import java.util.List;
-import java.util.UUID;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
 
 @Service
 public class VotingService {
+
+    private static final Logger logger = LoggerFactory.getLogger(VotingService.class);
+
+    /**
+     * Ballots already cast by the voter, or repeated in a batch, are skipped.
+     * Any other unique violation (vote hash, receipt token) still fails.
+     */
+    private static final String INSERT_VOTE_SQL = """
+            INSERT INTO votes
+                (id, created_at, updated_at, election_id, candidate_id, party_id, voter_hash,
+                 encrypted_vote_data, vote_hash, timestamp, verified, county, municipality,
+                 voting_station_id, digital_signature, nonce, receipt_token)
+            VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, false, ?, ?, ?, ?, ?, ?)
+            ON CONFLICT ON CONSTRAINT %s DO NOTHING
+            """.formatted(Vote.VOTER_ELECTION_CONSTRAINT);
+
+    private static final int INSERT_BATCH_SIZE = 100;
+
+    /** Ballots checked per validation task, and tasks queued per validation thread. */
+    private static final int VALIDATION_CHUNK            = 32;
+    private static final int VALIDATION_QUEUE_PER_THREAD = 64;
+
     @Value("${voting.secret.salt}")
     private String secretSalt;
     private final VoteRepository      voteRepository;
@@ -40,19 +80,66 @@ public class VotingService {
     private final CandidateRepository candidateRepository;
     private final PartyRepository     partyRepository;
     private final BlockchainService   blockchainService;
+    private final LiveTallyService    liveTallyService;
+    private final TurnoutTimelineService turnoutTimelineService;
+    private final ElectionVoteCounter electionVoteCounter;
+    private final ElectionBallotCache ballotCache;
+    private final VoterKeyCache       voterKeyCache;
+    private final JdbcTemplate        jdbcTemplate;
+    private final ThreadPoolExecutor  validationExecutor;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /** A ballot that passed every check, with the entries it was checked against. */
+    private record Selection(Ballot ballot, CandidateEntry candidate, PartyEntry party) {}
+
+    /** Outcome of checking one ballot of a batch: a selection or a rejection reason. */
+    private record Checked(Selection selection, String error) {}
 
     public VotingService(VoteRepository voteRepository,
                          VoterRepository voterRepository,
                          ElectionRepository electionRepository,
                          CandidateRepository candidateRepository,
                          PartyRepository partyRepository,
-                         BlockchainService blockchainService) {
+                         BlockchainService blockchainService,
+                         LiveTallyService liveTallyService,
+                         TurnoutTimelineService turnoutTimelineService,
+                         ElectionVoteCounter electionVoteCounter,
+                         ElectionBallotCache ballotCache,
+                         VoterKeyCache voterKeyCache,
+                         JdbcTemplate jdbcTemplate,
+                         @Value("${voting.batch.validation-threads:0}") int validationThreads) {
         this.voteRepository      = voteRepository;
         this.voterRepository     = voterRepository;
         this.electionRepository  = electionRepository;
         this.candidateRepository = candidateRepository;
         this.partyRepository     = partyRepository;
         this.blockchainService   = blockchainService;
+        this.liveTallyService    = liveTallyService;
+        this.turnoutTimelineService = turnoutTimelineService;
+        this.electionVoteCounter = electionVoteCounter;
+        this.ballotCache         = ballotCache;
+        this.voterKeyCache       = voterKeyCache;
+        this.jdbcTemplate        = jdbcTemplate;
+
+        // Dedicated and bounded: batch signature checks neither use the JVM-wide
+        // common pool nor queue without limit; a full queue runs the chunk on
+        // the caller's thread instead
+        int threads = validationThreads > 0 ? validationThreads : Runtime.getRuntime().availableProcessors();
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.validationExecutor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(threads * VALIDATION_QUEUE_PER_THREAD),
+                task -> {
+                    Thread worker = new Thread(task, "ballot-check-" + threadIndex.getAndIncrement());
+                    worker.setDaemon(true);
+                    return worker;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        validationExecutor.shutdownNow();
     }
 
     @Transactional
@@ -62,7 +149,256 @@ public class VotingService {
         Voter voter = voterRepository.findById(voterId)
                 .orElseThrow(() -> new VotingException("Voter not found"));
 
-        // ── 2. Eligibility ─────────────────────────────────────────────────────
+        // ── 2–4. Eligibility, signature, election, candidate & party ───────────
+        Selection selection = validateBallot(voter, request, LocalDateTime.now(), false);
+
+        // ── 5. Build & insert Vote ─────────────────────────────────────────────
+        // The receipt token is set before the insert, so the vote is written by a
+        // single INSERT. Double voting is rejected by the (voterHash, election)
+        // unique constraint rather than a lookup beforehand.
+        Vote vote = buildVote(voterId, voter, request, selection);
+
+        Vote saved;
+        try {
+            saved = voteRepository.saveAndFlush(vote);
+        } catch (DataIntegrityViolationException e) {
+            if (violates(e, Vote.VOTER_ELECTION_CONSTRAINT)) {
+                throw new VotingException("You have already voted in this election");
+            }
+            throw e;
+        }
+
+        // ── 6. Hand off (all after commit) ─────────────────────────────────────
+        blockchainService.addVoteToBlockchain(saved);
+        liveTallyService.onVoteCast(saved);
+        turnoutTimelineService.onVoteCast(saved);
+        // Counted in memory and flushed to the election row in batches
+        electionVoteCounter.onVoteCast(saved.getElection().getId());
+
+        return buildVoteResponse(saved, selection);
+    }
+
+    /**
+     * Casts the ballots relayed by a polling-station gateway, each checked as
+     * castVote would check it. Voters are loaded with one query and ballots are
+     * validated, signatures included, in parallel against the cached ballot.
+     * Accepted ballots are written
+     * in one transaction by a batched INSERT that skips conflicting rows, so a
+     * voter who already voted rejects only their own ballot, and are handed to
+     * the blockchain in one enqueue.
+     */
+    @Transactional
+    public BatchVoteResponse castVotes(List<SignedBallot> ballots) {
+        return castVotes(ballots, null, null);
+    }
+
+    /**
+     * As {@link #castVotes(List)}, for ballots that were accepted earlier and
+     * whose receipt tokens were already handed out. The election's voting
+     * window is checked as of each ballot's acceptance time, and an election
+     * that is CLOSING still takes them, so a ballot accepted in time is not
+     * rejected because the queue drained after the end date or while the
+     * election was being closed. {@code receiptTokens} and {@code acceptedAt}
+     * are parallel to {@code ballots}.
+     */
+    @Transactional
+    public BatchVoteResponse castVotes(List<SignedBallot> ballots, List<String> receiptTokens,
+                                       List<LocalDateTime> acceptedAt) {
+
+        // ── 1. Load voters ─────────────────────────────────────────────────────
+        Set<String> voterIds = ballots.stream().map(SignedBallot::getVoterId).collect(Collectors.toSet());
+        Map<String, Voter> voters = new HashMap<>();
+        voterRepository.findAllById(voterIds).forEach(v -> voters.put(v.getId(), v));
+
+        // ── 2. Validate in parallel ────────────────────────────────────────────
+        LocalDateTime now = LocalDateTime.now();
+        List<Checked> checked = checkAll(ballots, voters, acceptedAt, now);
+
+        // ── 3. Build & batch-insert the valid ballots ──────────────────────────
+        Vote[] votes = new Vote[ballots.size()];
+        List<Vote> toInsert = new ArrayList<>();
+        for (int i = 0; i < ballots.size(); i++) {
+            if (checked.get(i).error() != null) continue;
+            SignedBallot ballot = ballots.get(i);
+            Vote vote = buildVote(ballot.getVoterId(), voters.get(ballot.getVoterId()), ballot, checked.get(i).selection());
+            // Written by JDBC, so the fields Hibernate would fill are set here
+            vote.setId(UUID.randomUUID().toString());
+            vote.setCreatedAt(now);
+            vote.setUpdatedAt(now);
+            if (receiptTokens != null) vote.setReceiptToken(receiptTokens.get(i));
+            votes[i] = vote;
+            toInsert.add(vote);
+        }
+        Set<Vote> inserted = insertVotes(toInsert);
+
+        // ── 4. Hand off (all after commit) ─────────────────────────────────────
+        List<Vote> accepted = toInsert.stream().filter(inserted::contains).toList();
+        blockchainService.addVotesToBlockchain(accepted);
+        for (Vote vote : accepted) {
+            liveTallyService.onVoteCast(vote);
+            turnoutTimelineService.onVoteCast(vote);
+            electionVoteCounter.onVoteCast(vote.getElection().getId());
+        }
+
+        // ── 5. Per-ballot results, in request order ────────────────────────────
+        List<VoteResponse> results = new ArrayList<>(ballots.size());
+        for (int i = 0; i < ballots.size(); i++) {
+            if (checked.get(i).error() != null) {
+                results.add(VoteResponse.failure(checked.get(i).error()));
+            } else if (!inserted.contains(votes[i])) {
+                results.add(VoteResponse.failure("You have already voted in this election"));
+            } else {
+                results.add(buildVoteResponse(votes[i], checked.get(i).selection()));
+            }
+        }
+
+        BatchVoteResponse response = new BatchVoteResponse();
+        response.setAccepted(accepted.size());
+        response.setRejected(ballots.size() - accepted.size());
+        response.setResults(results);
+        logger.info("Vote batch  ballots={}  accepted={}  rejected={}",
+                ballots.size(), response.getAccepted(), response.getRejected());
+        return response;
+    }
+
+    /**
+     * Runs castVote's checks without writing anything, for accepting a vote
+     * that is cast later. Also rejects a voter who has already voted; one who
+     * votes twice before either is cast is caught when the second is cast.
+     */
+    @Transactional(readOnly = true)
+    public void checkVote(String voterId, VoteRequest request) {
+        Voter voter = voterRepository.findById(voterId)
+                .orElseThrow(() -> new VotingException("Voter not found"));
+        String electionId = validateBallot(voter, request, LocalDateTime.now(), false).ballot().electionId();
+        if (voteRepository.existsByVoterHashAndElectionId(generateVoterHash(voterId, electionId), electionId)) {
+            throw new VotingException("You have already voted in this election");
+        }
+    }
+
+    /**
+     * Checks every ballot of a batch on the validation executor, in chunks of
+     * {@link #VALIDATION_CHUNK}. Each election's ballot is loaded into the
+     * cache first, on the caller's thread and transaction, so the workers
+     * only read the cache and verify signatures.
+     */
+    private List<Checked> checkAll(List<SignedBallot> ballots, Map<String, Voter> voters,
+                                   List<LocalDateTime> acceptedAt, LocalDateTime now) {
+        ballots.stream().map(SignedBallot::getElectionId).filter(Objects::nonNull).distinct()
+                .forEach(this::warmBallot);
+
+        Checked[] checked = new Checked[ballots.size()];
+        List<CompletableFuture<Void>> chunks = new ArrayList<>();
+        for (int from = 0; from < ballots.size(); from += VALIDATION_CHUNK) {
+            int start = from;
+            int end   = Math.min(from + VALIDATION_CHUNK, ballots.size());
+            chunks.add(CompletableFuture.runAsync(() -> {
+                for (int i = start; i < end; i++) {
+                    SignedBallot ballot = ballots.get(i);
+                    checked[i] = acceptedAt != null
+                            ? check(voters.get(ballot.getVoterId()), ballot, acceptedAt.get(i), true)
+                            : check(voters.get(ballot.getVoterId()), ballot, now, false);
+                }
+            }, validationExecutor));
+        }
+        try {
+            CompletableFuture.allOf(chunks.toArray(CompletableFuture[]::new)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) throw cause;
+            throw e;
+        }
+        return Arrays.asList(checked);
+    }
+
+    private void warmBallot(String electionId) {
+        try {
+            ballotCache.ballot(electionId);
+        } catch (VotingException e) {
+            // Reported per ballot when it is checked
+        }
+    }
+
+    private Checked check(Voter voter, VoteRequest request, LocalDateTime at, boolean accepted) {
+        if (voter == null) {
+            return new Checked(null, "Voter not found");
+        }
+        try {
+            return new Checked(validateBallot(voter, request, at, accepted), null);
+        } catch (VotingException e) {
+            return new Checked(null, e.getMessage());
+        }
+    }
+
+    /**
+     * Inserts {@code votes} in JDBC batches and returns those actually written.
+     * Rows that would break the voter/election constraint — a voter who
+     * already voted, or the same voter twice in the batch — are skipped
+     * rather than failing the transaction. Where the driver reports
+     * SUCCESS_NO_INFO instead of a row count (pgjdbc with
+     * reWriteBatchedInserts), the written rows are read back by id.
+     */
+    private Set<Vote> insertVotes(List<Vote> votes) {
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone(ZoneOffset.UTC));
+        int[][] counts = jdbcTemplate.batchUpdate(INSERT_VOTE_SQL, votes, INSERT_BATCH_SIZE, (ps, v) -> {
+            ps.setString(1, v.getId());
+            ps.setTimestamp(2, Timestamp.valueOf(v.getCreatedAt()), utc);
+            ps.setTimestamp(3, Timestamp.valueOf(v.getUpdatedAt()), utc);
+            ps.setString(4, v.getElection().getId());
+            ps.setString(5, v.getCandidate() != null ? v.getCandidate().getId() : null);
+            ps.setString(6, v.getParty() != null ? v.getParty().getId() : null);
+            ps.setBytes(7, Hash256.fromBase64(v.getVoterHash()).toBytes());
+            ps.setString(8, v.getEncryptedVoteData());
+            ps.setBytes(9, Hash256.fromBase64(v.getVoteHash()).toBytes());
+            ps.setTimestamp(10, Timestamp.valueOf(v.getTimestamp()), utc);
+            ps.setString(11, v.getCounty() != null ? v.getCounty().name() : null);
+            ps.setString(12, v.getMunicipality() != null ? v.getMunicipality().name() : null);
+            ps.setString(13, v.getVotingStationId());
+            ps.setString(14, v.getDigitalSignature());
+            ps.setString(15, v.getNonce());
+            ps.setString(16, v.getReceiptToken());
+        });
+
+        Set<Vote> inserted = Collections.newSetFromMap(new IdentityHashMap<>());
+        Map<String, Vote> unknown = new HashMap<>();
+        int i = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                Vote vote = votes.get(i++);
+                if (count > 0) {
+                    inserted.add(vote);
+                } else if (count == Statement.SUCCESS_NO_INFO) {
+                    unknown.put(vote.getId(), vote);
+                }
+            }
+        }
+        if (!unknown.isEmpty()) {
+            // Ids are generated here, so a row with one of them is one we wrote
+            jdbcTemplate.query(con -> {
+                PreparedStatement ps = con.prepareStatement("SELECT id FROM votes WHERE id = ANY(?)");
+                ps.setArray(1, con.createArrayOf("varchar", unknown.keySet().toArray()));
+                return ps;
+            }, (RowCallbackHandler) rs -> inserted.add(unknown.get(rs.getString(1))));
+        }
+        return inserted;
+    }
+
+    private static boolean violates(DataIntegrityViolationException e, String constraint) {
+        return e.getCause() instanceof ConstraintViolationException cve
+                && constraint.equalsIgnoreCase(cve.getConstraintName());
+    }
+
+
+    // ── Validation ─────────────────────────────────────────────────────────────
+
+    /**
+     * Runs every check a ballot must pass, with the voting window checked as
+     * of {@code at}; touches no persistence context. {@code accepted} marks a
+     * ballot accepted before intake stopped, which a CLOSING election still
+     * takes.
+     */
+    private Selection validateBallot(Voter voter, VoteRequest request, LocalDateTime at, boolean accepted) {
+
+        // ── Eligibility ────────────────────────────────────────────────────────
         // The JWT reaching this endpoint already proves the voter passed:
         //   - NFC chip read + chip signature verification (on-device)
         //   - ML Kit liveness detection (on-device)
@@ -72,74 +408,35 @@ public class VotingService {
 
         //  Verify the cryptographic RSA signature before accepting the vote
         verifyVoterSignature(request, voter);
-        // ── 3. Load & validate election ────────────────────────────────────────
-        Election election = electionRepository.findById(request.getElectionId())
-                .orElseThrow(() -> new VotingException("Election not found"));
-        validateElectionStatus(election);
 
-        // ── 4. Prevent double voting ───────────────────────────────────────────
-        if (voter.hasVotedIn(election.getId())) {
-            throw new VotingException("You have already voted in this election");
-        }
-        String voterHash = generateVoterHash(voterId, election.getId());
-        if (voteRepository.existsByVoterHashAndElectionId(voterHash, election.getId())) {
-            throw new VotingException("Duplicate vote detected");
-        }
+        // ── Election (cached ballot, no query) ─────────────────────────────────
+        Ballot ballot = ballotCache.ballot(request.getElectionId());
+        validateElectionStatus(ballot, at, accepted);
 
-        // ── 5. Resolve Candidate FK ────────────────────────────────────────────
-        Candidate candidate = null;
+        // ── Candidate & party against the ballot ───────────────────────────────
+        CandidateEntry candidate = null;
         if (request.getCandidateId() != null && !request.getCandidateId().isBlank()) {
-            candidate = candidateRepository.findById(request.getCandidateId())
-                    .orElseThrow(() -> new VotingException("Candidate not found"));
-            validateCandidateForVoter(voter, election, candidate);
+            candidate = ballot.candidates().get(request.getCandidateId());
+            if (candidate == null) {
+                throw new VotingException("Candidate not found in this election");
+            }
+            validateCandidateForVoter(voter, ballot, candidate);
         }
 
-        // ── 6. Resolve Party FK ────────────────────────────────────────────────
-        Party party = null;
+        PartyEntry party = null;
         if (request.getPartyId() != null && !request.getPartyId().isBlank()) {
-            party = partyRepository.findById(request.getPartyId())
-                    .orElseThrow(() -> new VotingException("Party not found"));
-            if (!party.getElection().getId().equals(election.getId())) {
-                throw new VotingException("Party does not belong to this election");
+            party = ballot.parties().get(request.getPartyId());
+            if (party == null) {
+                throw new VotingException("Party not found in this election");
             }
         }
 
         if (candidate == null && party == null) {
             throw new VotingException("A candidate or party must be selected");
         }
-
-        // ── 7. Build & persist Vote ────────────────────────────────────────────
-        String voteHash = generateVoteHash(request, voterHash);
-        Vote vote = new Vote(election, voterHash, request.getEncryptedVoteData(), voteHash);
-        vote.setCandidate(candidate);
-        vote.setParty(party);
-        vote.setCounty(voter.getCounty());
-        vote.setMunicipality(voter.getMunicipality());
-        vote.setVotingStationId(request.getVotingStationId());
-        vote.setDigitalSignature(request.getDigitalSignature());
-        vote.setNonce(request.getNonce() != null ? request.getNonce() : UUID.randomUUID().toString());
-
-        Vote saved = voteRepository.save(vote);
-
-        // Persist the receiptToken so GET /verification/vote/receipt/{token} can resolve it later
-        String receiptToken = generateReceiptToken(saved);
-        saved.setReceiptToken(receiptToken);
-        saved = voteRepository.save(saved);
-
-        blockchainService.addVoteToBlockchain(saved);
-
-        // ── 8. Mark voter as having voted ──────────────────────────────────────
-        voter.recordVote(election.getId());
-        election.setTotalVotesCast(election.getTotalVotesCast() + 1);
-        voterRepository.save(voter);
-        electionRepository.save(election);
-
-        return buildVoteResponse(saved);
+        return new Selection(ballot, candidate, party);
     }
 
-
-    // ── Validation ─────────────────────────────────────────────────────────────
-
     private void validateVoterEligibility(Voter voter) {
         if (!voter.isEnabled()) {
             throw new VotingException(
@@ -155,33 +452,30 @@ public class VotingService {
         }
     }
 
-    private void validateElectionStatus(Election election) {
-        if (election.getStatus() != ElectionStatus.STARTED) {
+    private void validateElectionStatus(Ballot ballot, LocalDateTime at, boolean accepted) {
+        boolean open = accepted ? ballot.status().isOpen() : ballot.status() == ElectionStatus.STARTED;
+        if (!open) {
             throw new VotingException("Election is not currently active");
         }
-        LocalDateTime now = LocalDateTime.now();
-        if (election.getStartDate() != null && now.isBefore(election.getStartDate())) {
+        if (ballot.startDate() != null && at.isBefore(ballot.startDate())) {
             throw new VotingException("Election has not started yet");
         }
-        if (election.getEndDate() != null && now.isAfter(election.getEndDate())) {
+        if (ballot.endDate() != null && at.isAfter(ballot.endDate())) {
             throw new VotingException("Election has ended");
         }
     }
 
-    private void validateCandidateForVoter(Voter voter, Election election, Candidate candidate) {
-        if (!candidate.getElection().getId().equals(election.getId())) {
-            throw new VotingException("Candidate does not belong to this election");
-        }
-        if (!candidate.isActive()) {
+    private void validateCandidateForVoter(Voter voter, Ballot ballot, CandidateEntry candidate) {
+        if (!candidate.active()) {
             throw new VotingException("Candidate is no longer active");
         }
-        if (election.getElectionType() == ElectionType.PARLIAMENTARY) {
-            if (candidate.getCounty() != null && !candidate.getCounty().equals(voter.getCounty())) {
+        if (ballot.electionType() == ElectionType.PARLIAMENTARY) {
+            if (candidate.county() != null && !candidate.county().equals(voter.getCounty())) {
                 throw new VotingException("Candidate is not in your county");
             }
-        } else if (election.getElectionType() == ElectionType.LOCAL_GOVERNMENT) {
-            if (candidate.getMunicipality() != null
-                    && !candidate.getMunicipality().equals(voter.getMunicipality())) {
+        } else if (ballot.electionType() == ElectionType.LOCAL_GOVERNMENT) {
+            if (candidate.municipality() != null
+                    && !candidate.municipality().equals(voter.getMunicipality())) {
                 throw new VotingException("Candidate is not in your municipality");
             }
         }
@@ -200,19 +494,10 @@ public class VotingService {
 
             String payloadToSign = request.getElectionId() + ":" + candidateId + ":" + partyId;
 
-            // B. Decode the voter's registered Public Key
-            byte[] keyBytes = Base64.getDecoder().decode(voter.getPublicKey());
-            X509EncodedKeySpec spec = new X509EncodedKeySpec(keyBytes);
-            KeyFactory kf = KeyFactory.getInstance("RSA");
-            PublicKey publicKey = kf.generatePublic(spec);
-
-            // C. Verify the signature
-            Signature sig = Signature.getInstance("SHA256withRSA");
-            sig.initVerify(publicKey);
-            sig.update(payloadToSign.getBytes(StandardCharsets.UTF_8));
-
+            // B. Verify against the voter's registered Public Key (parsed once, then cached)
             byte[] signatureBytes = Base64.getDecoder().decode(request.getDigitalSignature());
-            boolean isValid = sig.verify(signatureBytes);
+            boolean isValid = voterKeyCache.verify(voter.getId(), voter.getPublicKey(),
+                    payloadToSign.getBytes(StandardCharsets.UTF_8), signatureBytes);
 
             if (!isValid) {
                 throw new VotingException("Cryptographic signature verification failed. Vote payload was tampered with.");
@@ -242,9 +527,7 @@ public class VotingService {
 
     @Transactional(readOnly = true)
     public boolean hasVoted(String voterId, String electionId) {
-        return voterRepository.findById(voterId)
-                .map(v -> v.hasVotedIn(electionId))
-                .orElse(false);
+        return voteRepository.existsByVoterHashAndElectionId(generateVoterHash(voterId, electionId), electionId);
     }
 
     // ── Helpers ────────────────────────────────────────────────────────────────
@@ -276,18 +559,45 @@ public class VotingService {
         return voteHash.substring(0, Math.min(8, voteHash.length())).toUpperCase();
     }
 
-    private String generateReceiptToken(Vote vote) {
+    /** Unguessable receipt token, computed before the vote row exists. */
+    private String generateReceiptToken(String voteHash, LocalDateTime timestamp) {
+        byte[] nonce = new byte[16];
+        RANDOM.nextBytes(nonce);
         try {
             MessageDigest d = MessageDigest.getInstance("SHA-256");
-            byte[] hash = d.digest((vote.getId() + ":" + vote.getVoteHash()
-                    + ":" + vote.getTimestamp()).getBytes(StandardCharsets.UTF_8));
+            d.update(nonce);
+            byte[] hash = d.digest((voteHash + ":" + timestamp).getBytes(StandardCharsets.UTF_8));
             return Base64.getUrlEncoder().withoutPadding().encodeToString(hash);
         } catch (NoSuchAlgorithmException e) {
             return UUID.randomUUID().toString();
         }
     }
 
-    private VoteResponse buildVoteResponse(Vote vote) {
+    /**
+     * Builds the vote row for a validated ballot. References only — the ballot
+     * has already been validated from the cache.
+     */
+    private Vote buildVote(String voterId, Voter voter, VoteRequest request, Selection selection) {
+        String voterHash = generateVoterHash(voterId, selection.ballot().electionId());
+        String voteHash  = generateVoteHash(request, voterHash);
+        Vote vote = new Vote(electionRepository.getReferenceById(selection.ballot().electionId()),
+                voterHash, request.getEncryptedVoteData(), voteHash);
+        if (selection.candidate() != null) vote.setCandidate(candidateRepository.getReferenceById(selection.candidate().id()));
+        if (selection.party()     != null) vote.setParty(partyRepository.getReferenceById(selection.party().id()));
+        vote.setCounty(voter.getCounty());
+        vote.setMunicipality(voter.getMunicipality());
+        vote.setVotingStationId(request.getVotingStationId());
+        vote.setDigitalSignature(request.getDigitalSignature());
+        vote.setNonce(request.getNonce() != null ? request.getNonce() : UUID.randomUUID().toString());
+        // Persisted so GET /verification/vote/receipt/{token} can resolve it later
+        vote.setReceiptToken(generateReceiptToken(voteHash, vote.getTimestamp()));
+        return vote;
+    }
+
+    private VoteResponse buildVoteResponse(Vote vote, Selection selection) {
+        Ballot ballot            = selection.ballot();
+        CandidateEntry candidate = selection.candidate();
+        PartyEntry party         = selection.party();
         VoteResponse r = VoteResponse.success(
                 vote.getId(), vote.getVoteHash(), vote.getBlockchainTransactionId());
         r.setBlockNumber(vote.getBlockNumber());
@@ -296,9 +606,9 @@ public class VotingService {
         r.setMunicipality(vote.getMunicipality());
         r.setVerificationCode(generateVerificationCode(vote.getVoteHash()));
         r.setReceiptToken(vote.getReceiptToken());   // already persisted — don't regenerate
-        r.setElectionName(vote.getElection().getName());
-        if (vote.getCandidate() != null) r.setCandidateName(vote.getCandidate().getFullName());
-        if (vote.getParty()     != null) r.setPartyName(vote.getParty().getName());
+        r.setElectionName(ballot.name());
+        if (candidate != null) r.setCandidateName(candidate.fullName());
+        if (party     != null) r.setPartyName(party.name());
         return r;
     }
 
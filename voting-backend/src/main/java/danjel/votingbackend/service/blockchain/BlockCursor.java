@@ -0,0 +1,78 @@
+package danjel.votingbackend.service.blockchain;
+
+import danjel.votingbackend.model.Block;
+import danjel.votingbackend.repository.BlockRepository;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+/**
+ * Reads an election's chain forward in pages of consecutive block numbers,
+ * each page with its vote hashes loaded in one query.
+ *
+ * The end of the chain is fixed when the cursor is opened, so blocks sealed
+ * while it is being read are left for the next run. Every page comes from
+ * its own repository call outside any transaction, so the blocks are
+ * detached and can be collected once the consumer moves on — memory stays
+ * at one page no matter how long the chain is.
+ */
+public final class BlockCursor implements Iterator<List<Block>> {
+
+    private final BlockRepository blockRepository;
+    private final String          electionId;
+    private final int             pageSize;
+    private final long            lastBlock;
+
+    private long        nextFrom;
+    private List<Block> buffered;
+
+    private BlockCursor(BlockRepository blockRepository, String electionId,
+                        long afterBlock, int pageSize, long lastBlock) {
+        this.blockRepository = blockRepository;
+        this.electionId      = electionId;
+        this.pageSize        = pageSize;
+        this.lastBlock       = lastBlock;
+        this.nextFrom        = afterBlock + 1;
+    }
+
+    /** Cursor over the blocks numbered after {@code afterBlock}; -1 starts at genesis. */
+    public static BlockCursor open(BlockRepository blockRepository, String electionId,
+                                   long afterBlock, int pageSize) {
+        long lastBlock = blockRepository.findLatestBlock(electionId)
+                .map(Block::getBlockNumber)
+                .orElse(-1L);
+        return new BlockCursor(blockRepository, electionId, afterBlock, Math.max(1, pageSize), lastBlock);
+    }
+
+    @Override
+    public boolean hasNext() {
+        // Skip over empty ranges (missing block numbers) until a page has rows
+        while (buffered == null && nextFrom <= lastBlock) {
+            long to = Math.min(lastBlock, nextFrom + pageSize - 1);
+            List<Block> page = blockRepository.findBlockRangeWithVoteHashes(electionId, nextFrom, to);
+            nextFrom = to + 1;
+            if (!page.isEmpty()) buffered = page;
+        }
+        return buffered != null;
+    }
+
+    @Override
+    public List<Block> next() {
+        if (!hasNext()) throw new NoSuchElementException();
+        List<Block> page = buffered;
+        buffered = null;
+        return page;
+    }
+
+    /** The remaining blocks one at a time, still loaded page by page. */
+    public Stream<Block> blocks() {
+        Spliterator<List<Block>> pages = Spliterators.spliteratorUnknownSize(
+                this, Spliterator.ORDERED | Spliterator.NONNULL);
+        return StreamSupport.stream(pages, false).flatMap(List::stream);
+    }
+}
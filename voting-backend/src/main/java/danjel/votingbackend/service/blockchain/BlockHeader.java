@@ -0,0 +1,135 @@
+package danjel.votingbackend.service.blockchain;
+
+import danjel.votingbackend.exception.BlockchainException;
+import danjel.votingbackend.model.Block;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+
+/**
+ * Serialized block header formats.
+ *
+ * ── Version 1 (legacy text) ──────────────────────────────────────────────────
+ * UTF-8 of blockNumber + previousHash + merkleRoot + epochMillis + nonce,
+ * all concatenated as decimal / hex text. Blocks stored before header
+ * versioning have a null headerVersion and are always hashed this way.
+ *
+ * ── Version 2 (binary) ───────────────────────────────────────────────────────
+ *   offset  size  field
+ *        0     1  version (0x02 or 0x03)
+ *        1     8  blockNumber        (big-endian)
+ *        9    32  previousHash       (raw digest bytes)
+ *       41    32  merkleRoot         (raw digest bytes)
+ *       73     8  timestamp millis   (big-endian, UTC)
+ *       81     8  nonce              (big-endian)
+ *
+ * Everything before the nonce is fixed for the whole nonce search, so the
+ * miner digests it once and clones the digest state for every attempt.
+ *
+ * ── Version 3 (binary + byte Merkle tree) ────────────────────────────────────
+ * Same layout as version 2. The merkleRoot is built by MerkleTree over raw
+ * vote digests instead of concatenated hash strings.
+ */
+public final class BlockHeader {
+
+    public static final int LEGACY_TEXT     = 1;
+    public static final int BINARY          = 2;
+    public static final int BINARY_MERKLE   = 3;
+    public static final int CURRENT_VERSION = BINARY_MERKLE;
+
+    public static final int NONCE_OFFSET  = 81;
+    public static final int NONCE_LENGTH  = 8;
+    public static final int BINARY_LENGTH = NONCE_OFFSET + NONCE_LENGTH;
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private BlockHeader() {}
+
+    /** Header version used for {@code block}, treating unversioned rows as legacy. */
+    public static int versionOf(Block block) {
+        Integer version = block.getHeaderVersion();
+        return version == null ? LEGACY_TEXT : version;
+    }
+
+    /**
+     * Binary header bytes up to (not including) the nonce.
+     * Only valid for {@link #BINARY} and later headers.
+     */
+    public static byte[] binaryPrefix(Block block) {
+        ByteBuffer buffer = ByteBuffer.allocate(NONCE_OFFSET);
+        buffer.put((byte) versionOf(block));
+        buffer.putLong(block.getBlockNumber());
+        buffer.put(digestBytes(block.getPreviousHash(), "previousHash"));
+        buffer.put(digestBytes(block.getMerkleRoot(), "merkleRoot"));
+        buffer.putLong(epochMillis(block));
+        return buffer.array();
+    }
+
+    /** Writes {@code nonce} big-endian into {@code target} starting at {@code offset}. */
+    public static void writeNonce(long nonce, byte[] target, int offset) {
+        for (int i = NONCE_LENGTH - 1; i >= 0; i--) {
+            target[offset + i] = (byte) nonce;
+            nonce >>>= 8;
+        }
+    }
+
+    /**
+     * Recomputes the hex hash of a stored block, honouring the header version
+     * it was mined with. {@code digest} is reset before use.
+     */
+    public static String computeHash(Block block, MessageDigest digest) {
+        digest.reset();
+        if (versionOf(block) == LEGACY_TEXT) {
+            String input = block.getBlockNumber()
+                    + block.getPreviousHash()
+                    + block.getMerkleRoot()
+                    + epochMillis(block)
+                    + block.getNonce();
+            return toHex(digest.digest(input.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        byte[] nonce = new byte[NONCE_LENGTH];
+        writeNonce(block.getNonce(), nonce, 0);
+        digest.update(binaryPrefix(block));
+        digest.update(nonce);
+        return toHex(digest.digest());
+    }
+
+    /**
+     * Proof-of-work target check on the raw digest: the first {@code difficulty}
+     * hex nibbles must be zero. Equivalent to {@code hex.startsWith("000…")}
+     * without hex-encoding every attempt.
+     */
+    public static boolean meetsDifficulty(byte[] digest, int difficulty) {
+        int fullBytes = difficulty >>> 1;
+        for (int i = 0; i < fullBytes; i++) {
+            if (digest[i] != 0) return false;
+        }
+        return (difficulty & 1) == 0 || (digest[fullBytes] & 0xF0) == 0;
+    }
+
+    public static String toHex(byte[] bytes) {
+        return HEX.formatHex(bytes);
+    }
+
+    // ── Internals ─────────────────────────────────────────────────────────────
+
+    private static long epochMillis(Block block) {
+        return block.getTimestamp().toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+
+    private static byte[] digestBytes(String hexDigest, String field) {
+        try {
+            byte[] bytes = HEX.parseHex(hexDigest);
+            if (bytes.length != 32) {
+                throw new BlockchainException("Block " + field + " is not a 32-byte digest");
+            }
+            return bytes;
+        } catch (IllegalArgumentException e) {
+            throw new BlockchainException("Block " + field + " is not a hex digest", e);
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package danjel.votingbackend.service.blockchain;
+
+import danjel.votingbackend.config.BlockchainConfig;
+import danjel.votingbackend.exception.BlockchainException;
+import danjel.votingbackend.model.Block;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.security.DigestException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Proof-of-work nonce search for a single block.
+ *
+ * The nonce space is split across {@code blockchain.mining-threads} workers:
+ * worker {@code w} tries nonces {@code w+1, w+1+T, w+1+2T, ...} where T is the
+ * worker count, so no two workers ever hash the same nonce. The first worker
+ * to find a hash that meets the difficulty target publishes it and every other
+ * worker stops at its next cancellation check. Workers also stop there when
+ * the search is abandoned (a worker failed, or the caller was interrupted), so
+ * a failed search never leaves threads spinning in the mining pool.
+ *
+ * Blocks are mined with the {@link BlockHeader#CURRENT_VERSION binary header}.
+ * The fixed part of the header is digested once; each attempt clones that
+ * midstate, feeds only the 8 nonce bytes and checks the difficulty target on
+ * the raw digest. Only the winning digest is ever hex-encoded.
+ *
+ * Every election mines on the same pool of {@code blockchain.mining-threads}
+ * threads. When several elections seal at once their workers queue behind
+ * each other, so the {@link MiningResult} timings — and the hash rate derived
+ * from them — belong to one block and include that wait.
+ */
+@Component
+public class BlockMiner {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockMiner.class);
+
+    /** How many nonces a worker tries between checks of the shared "found" flag and interruption. */
+    private static final int CANCEL_CHECK_INTERVAL = 1024;
+
+    private final BlockchainConfig  blockchainConfig;
+    private final AsyncTaskExecutor miningExecutor;
+
+    public BlockMiner(BlockchainConfig blockchainConfig,
+                      @Qualifier("blockMiningExecutor") AsyncTaskExecutor miningExecutor) {
+        this.blockchainConfig = blockchainConfig;
+        this.miningExecutor   = miningExecutor;
+    }
+
+    /**
+     * Finds a nonce for {@code block}, sets it (and the difficulty) on the block
+     * and returns the winning hash together with throughput figures.
+     */
+    public MiningResult mine(Block block) {
+        int difficulty = blockchainConfig.getDifficulty();
+        int workers    = Math.max(1, blockchainConfig.getMiningThreads());
+
+        block.setHeaderVersion(BlockHeader.CURRENT_VERSION);
+        MessageDigest midstate = newDigest();
+        midstate.update(BlockHeader.binaryPrefix(block));
+
+        long started = System.nanoTime();
+        Search search = new Search(difficulty, workers);
+
+        if (workers == 1) {
+            search.run(1, midstate);
+        } else {
+            List<Future<?>> futures = new ArrayList<>(workers);
+            for (int w = 0; w < workers; w++) {
+                // MessageDigest is not thread-safe: every worker gets its own copy
+                long firstNonce = w + 1L;
+                MessageDigest workerBase = cloneDigest(midstate);
+                futures.add(miningExecutor.submit(() -> search.run(firstNonce, workerBase)));
+            }
+            awaitAll(futures, search);
+        }
+        if (search.winningHash.get() == null) {
+            throw new BlockchainException("Mining interrupted");
+        }
+
+        long elapsed = System.nanoTime() - started;
+        long nonce   = search.winningNonce.get();
+        block.setNonce(nonce);
+        block.setDifficulty(difficulty);
+
+        MiningResult result = new MiningResult(nonce, search.winningHash.get(), search.attempts.get(), elapsed);
+
+        logger.debug("Mined block {}  nonce={}  attempts={}  workers={}  rate={} H/s",
+                block.getBlockNumber(), nonce, result.attempts(), workers,
+                String.format("%.0f", result.hashesPerSecond()));
+        return result;
+    }
+
+    // ── Worker loop ───────────────────────────────────────────────────────────
+
+    /** State shared by all workers searching the same block. */
+    private final class Search {
+        final int difficulty;
+        final int stride;
+
+        final AtomicBoolean           found        = new AtomicBoolean(false);
+        final AtomicLong              winningNonce = new AtomicLong();
+        final AtomicReference<String> winningHash  = new AtomicReference<>();
+        final AtomicLong              attempts     = new AtomicLong();
+
+        Search(int difficulty, int stride) {
+            this.difficulty = difficulty;
+            this.stride     = stride;
+        }
+
+        /** {@code base} holds the digested header prefix and is never finalized. */
+        void run(long firstNonce, MessageDigest base) {
+            byte[] nonceBytes  = new byte[BlockHeader.NONCE_LENGTH];
+            byte[] hash        = new byte[base.getDigestLength()];
+            long tried = 0;
+            try {
+                for (long nonce = firstNonce; ; nonce += stride) {
+                    if ((tried & (CANCEL_CHECK_INTERVAL - 1)) == 0
+                            && (found.get() || Thread.currentThread().isInterrupted())) return;
+                    tried++;
+
+                    MessageDigest attempt = cloneDigest(base);
+                    BlockHeader.writeNonce(nonce, nonceBytes, 0);
+                    attempt.update(nonceBytes);
+                    attempt.digest(hash, 0, hash.length);
+
+                    if (BlockHeader.meetsDifficulty(hash, difficulty)) {
+                        if (found.compareAndSet(false, true)) {
+                            winningNonce.set(nonce);
+                            winningHash.set(BlockHeader.toHex(hash));
+                        }
+                        return;
+                    }
+                }
+            } catch (DigestException e) {
+                throw new BlockchainException("Digest output buffer too small", e);
+            } finally {
+                attempts.addAndGet(tried);
+            }
+        }
+    }
+
+    /** Waits for every worker; on failure stops the others through the shared flag before throwing. */
+    private void awaitAll(List<Future<?>> futures, Search search) {
+        try {
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            search.found.set(true);
+            futures.forEach(f -> f.cancel(true));
+            throw new BlockchainException("Mining interrupted", e);
+        } catch (ExecutionException e) {
+            search.found.set(true);
+            futures.forEach(f -> f.cancel(true));
+            throw new BlockchainException("Mining failed: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    // ── Digests ───────────────────────────────────────────────────────────────
+
+    private static MessageDigest cloneDigest(MessageDigest digest) {
+        try {
+            return (MessageDigest) digest.clone();
+        } catch (CloneNotSupportedException e) {
+            throw new BlockchainException("Hash provider does not support midstate cloning", e);
+        }
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(blockchainConfig.getHashAlgorithm());
+        } catch (NoSuchAlgorithmException e) {
+            throw new BlockchainException("Hash algorithm not available");
+        }
+    }
+
+    // ── Result ────────────────────────────────────────────────────────────────
+
+    public record MiningResult(long nonce, String hash, long attempts, long elapsedNanos) {
+
+        public double hashesPerSecond() {
+            return elapsedNanos == 0 ? 0.0 : attempts * 1_000_000_000.0 / elapsedNanos;
+        }
+    }
+}
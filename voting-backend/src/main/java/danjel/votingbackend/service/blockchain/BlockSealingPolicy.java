@@ -0,0 +1,117 @@
+package danjel.votingbackend.service.blockchain;
+
+import danjel.votingbackend.config.BlockchainConfig;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decides when an election's pending votes should be sealed into a block.
+ *
+ * A block is sealed on whichever comes first:
+ *   - SIZE — the queue reaches the election's current target block size
+ *   - TIME — the oldest pending vote has waited {@code blockTimeTargetMs}
+ * The election's {@link ElectionSequencer} applies both triggers; this class
+ * only supplies the numbers.
+ *
+ * The target size adapts to the ingest rate: roughly the number of votes
+ * that arrive in one block-time target, clamped to [minBlockSize, maxBlockSize].
+ * At low turnout blocks stay small and are sealed by the timer. At peak they
+ * grow so mining keeps up. If the backlog outruns the target (mining is
+ * falling behind), the target jumps to the backlog so one block clears it.
+ */
+@Component
+public class BlockSealingPolicy {
+
+    /** Weight of the newest sample in the ingest-rate moving average. */
+    private static final double RATE_SMOOTHING = 0.3;
+
+    private final BlockchainConfig blockchainConfig;
+    private final Map<String, ElectionState> states = new ConcurrentHashMap<>();
+
+    public BlockSealingPolicy(BlockchainConfig blockchainConfig) {
+        this.blockchainConfig = blockchainConfig;
+    }
+
+    // ── Ingest side ───────────────────────────────────────────────────────────
+
+    /** Counts one arrival towards the election's ingest rate. */
+    public void onVoteQueued(String electionId) {
+        state(electionId).arrivals.increment();
+    }
+
+    /** Counts {@code count} arrivals at once, for batched ingestion. */
+    public void onVotesQueued(String electionId, int count) {
+        state(electionId).arrivals.add(count);
+    }
+
+    /** Current number of votes to put in the next block for this election. */
+    public int targetBlockSize(String electionId) {
+        ElectionState state = states.get(electionId);
+        return state != null ? state.targetSize : blockchainConfig.getBlockSize();
+    }
+
+    // ── Sealing side ──────────────────────────────────────────────────────────
+
+    /** Time by which a block must be sealed if its oldest vote arrived at {@code oldestPendingAtMs}. */
+    public long sealDeadline(long oldestPendingAtMs) {
+        return oldestPendingAtMs + blockchainConfig.getBlockTimeTargetMs();
+    }
+
+    /**
+     * Folds the arrivals since the last sample into the moving-average rate and
+     * recomputes each election's target size. {@code backlog} maps election id
+     * to its current queue length.
+     */
+    public void sampleRates(long nowMs, Map<String, Integer> backlog) {
+        if (!blockchainConfig.isAdaptiveBlockSize()) return;
+
+        states.forEach((electionId, state) -> {
+            long elapsed = nowMs - state.lastSampleMs;
+            if (elapsed <= 0) return;
+            state.lastSampleMs = nowMs;
+
+            double instant = state.arrivals.sumThenReset() * 1000.0 / elapsed;
+            state.ratePerSecond = RATE_SMOOTHING * instant + (1 - RATE_SMOOTHING) * state.ratePerSecond;
+
+            long perBlockTime = (long) Math.ceil(
+                    state.ratePerSecond * blockchainConfig.getBlockTimeTargetMs() / 1000.0);
+            int queued = backlog.getOrDefault(electionId, 0);
+            if (queued > 2 * perBlockTime) perBlockTime = queued;
+
+            state.targetSize = (int) Math.max(blockchainConfig.getMinBlockSize(),
+                    Math.min(blockchainConfig.getMaxBlockSize(), perBlockTime));
+        });
+    }
+
+    public double ingestRate(String electionId) {
+        ElectionState state = states.get(electionId);
+        return state != null ? state.ratePerSecond : 0.0;
+    }
+
+    // ── State ─────────────────────────────────────────────────────────────────
+
+    /** Drops the election's rate and target, once its sequencer has been retired. */
+    public void forget(String electionId) {
+        states.remove(electionId);
+    }
+
+    /** Only the ingest side creates state, so lookups of unknown ids leave nothing behind. */
+    private ElectionState state(String electionId) {
+        return states.computeIfAbsent(electionId, k -> new ElectionState(blockchainConfig.getBlockSize()));
+    }
+
+    private static final class ElectionState {
+        final LongAdder arrivals = new LongAdder();
+
+        volatile int    targetSize;
+        volatile double ratePerSecond;
+        volatile long   lastSampleMs = System.currentTimeMillis();   // only touched by the sampler
+
+        ElectionState(int initialTargetSize) {
+            this.targetSize = initialTargetSize;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package danjel.votingbackend.service.blockchain;
+
+import danjel.votingbackend.config.BlockchainConfig;
+import danjel.votingbackend.exception.BlockchainException;
+import danjel.votingbackend.model.Block;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.Signature;
+import java.util.Base64;
+
+/**
+ * Per-block integrity checks shared by incremental validation and full audits.
+ *
+ * Holds one digest and one signature verifier for many blocks instead of
+ * looking them up per block. Not thread-safe — use one per thread.
+ */
+public final class BlockVerifier {
+
+    private static final Logger logger = LoggerFactory.getLogger(BlockVerifier.class);
+
+    private final MessageDigest digest;
+    private final Signature     signature;
+
+    public BlockVerifier(BlockchainConfig blockchainConfig, PublicKey validatorKey) {
+        try {
+            this.digest    = MessageDigest.getInstance(blockchainConfig.getHashAlgorithm());
+            this.signature = Signature.getInstance(blockchainConfig.getSignatureAlgorithm());
+            this.signature.initVerify(validatorKey);
+        } catch (GeneralSecurityException e) {
+            throw new BlockchainException("Chain verification algorithms not available", e);
+        }
+    }
+
+    /**
+     * Checks {@code block} on its own and, when {@code previous} is given,
+     * its link to it. Returns the failure reason, or null if it is valid.
+     */
+    public String check(Block block, Block previous) {
+        if (previous != null) {
+            String linkFailure = checkLink(block, previous.getBlockNumber(), previous.getBlockHash());
+            if (linkFailure != null) return linkFailure;
+        }
+        return checkContents(block);
+    }
+
+    /**
+     * Merkle root, hash and signature of one block; null when all hold.
+     * The block's vote hashes must be loaded (see BlockCursor).
+     */
+    public String checkContents(Block block) {
+        if (!MerkleTree.computeRoot(block, digest).equals(block.getMerkleRoot())) {
+            return "Merkle root mismatch (vote hashes have been tampered with)";
+        }
+        if (!BlockHeader.computeHash(block, digest).equals(block.getBlockHash())) {
+            return "Block hash mismatch (data has been tampered with)";
+        }
+        if (!verifySignature(block.getBlockHash(), block.getValidatorSignature())) {
+            return "Invalid validator signature (forged or tampered block)";
+        }
+        return null;
+    }
+
+    /** Link from {@code block} back to its predecessor; null when they chain correctly. */
+    public static String checkLink(Block block, long previousNumber, String previousHash) {
+        if (block.getBlockNumber() != previousNumber + 1) {
+            return "Block number gap after block " + previousNumber;
+        }
+        if (!block.getPreviousHash().equals(previousHash)) {
+            return "Previous hash mismatch (chain broken)";
+        }
+        return null;
+    }
+
+    private boolean verifySignature(String blockHash, String signatureBase64) {
+        if (signatureBase64 == null || signatureBase64.isEmpty()) return false;
+        try {
+            byte[] signatureBytes = Base64.getDecoder().decode(signatureBase64);
+            signature.update(blockHash.getBytes(StandardCharsets.UTF_8));
+            return signature.verify(signatureBytes);   // also resets for the next block
+        } catch (GeneralSecurityException | IllegalArgumentException e) {
+            logger.error("Failed to verify block signature: {}", e.getMessage());
+            return false;
+        }
+    }
+}
@@ -0,0 +1,226 @@
+package danjel.votingbackend.service.blockchain;
+
+import danjel.votingbackend.config.BlockchainConfig;
+import danjel.votingbackend.dto.ChainValidationReport;
+import danjel.votingbackend.model.Block;
+import danjel.votingbackend.repository.BlockRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.security.KeyPair;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Full-chain audit that verifies Merkle roots, block hashes and RSA
+ * signatures in parallel.
+ *
+ * The calling thread reads the chain through a {@link BlockCursor}, in pages
+ * of {@code blockPageSize} blocks with their vote hashes. Each page is submitted to a ForkJoinPool as
+ * one task that splits down to {@link #LEAF_SIZE}-block ranges, so every core
+ * verifies signatures while the next page is being read. At most
+ * {@link #PAGES_IN_FLIGHT_PER_WORKER} pages per worker are held at once, which
+ * keeps memory bounded regardless of chain length.
+ *
+ * Links between blocks inside a page are checked by the page task. Links
+ * across page boundaries, and picking the earliest failure overall, are
+ * checked in a final pass over the page summaries. Once any page reports a
+ * failure no further pages are read — later blocks cannot fail earlier.
+ */
+@Component
+public class ChainAuditor {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChainAuditor.class);
+
+    private static final int LEAF_SIZE                 = 16;
+    private static final int PAGES_IN_FLIGHT_PER_WORKER = 2;
+
+    private final BlockRepository  blockRepository;
+    private final BlockchainConfig blockchainConfig;
+    private final KeyPair          serverKeyPair;
+    private final ForkJoinPool     pool;
+
+    public ChainAuditor(BlockRepository blockRepository,
+                        BlockchainConfig blockchainConfig,
+                        KeyPair serverKeyPair) {
+        this.blockRepository  = blockRepository;
+        this.blockchainConfig = blockchainConfig;
+        this.serverKeyPair    = serverKeyPair;
+
+        int parallelism = blockchainConfig.getAuditParallelism() > 0
+                ? blockchainConfig.getAuditParallelism()
+                : Runtime.getRuntime().availableProcessors();
+        this.pool = new ForkJoinPool(parallelism, pool -> {
+            var worker = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(pool);
+            worker.setName("chain-audit-" + worker.getPoolIndex());
+            return worker;
+        }, null, false);
+    }
+
+    /** Audit outcome plus the last block verified, for checkpointing. */
+    public record Result(ChainValidationReport report, Long lastBlockNumber, String lastBlockHash) {}
+
+    public Result audit(String electionId) {
+        long started = System.nanoTime();
+        ChainValidationReport report = new ChainValidationReport(electionId, true);
+
+        int maxInFlight = pool.getParallelism() * PAGES_IN_FLIGHT_PER_WORKER;
+        Deque<ForkJoinTask<PageSummary>> inFlight = new ArrayDeque<>();
+        List<PageSummary> pages = new ArrayList<>();
+
+        BlockCursor cursor = BlockCursor.open(blockRepository, electionId, -1, blockchainConfig.getBlockPageSize());
+        long blocksRead = 0;
+        boolean failureSeen = false;
+        while (!failureSeen && cursor.hasNext()) {
+            List<Block> page = cursor.next();
+            inFlight.add(pool.submit(new PageTask(page)));
+            blocksRead += page.size();
+
+            while (inFlight.size() >= maxInFlight) {
+                PageSummary summary = inFlight.poll().join();
+                pages.add(summary);
+                failureSeen |= summary.failureBlock != null;
+            }
+        }
+        while (!inFlight.isEmpty()) {
+            pages.add(inFlight.poll().join());
+        }
+
+        Result result = finalPass(report, pages);
+        report.setBlocksChecked(blocksRead);
+
+        long elapsedNanos = System.nanoTime() - started;
+        report.setElapsedMs(elapsedNanos / 1_000_000);
+        report.setBlocksPerSecond(elapsedNanos == 0 ? 0 : blocksRead * 1e9 / elapsedNanos);
+
+        logger.info("Chain audit  election={}  valid={}  blocks={}  {} blocks/s  workers={}",
+                electionId, report.isChainValid(), blocksRead,
+                String.format("%.0f", report.getBlocksPerSecond()), pool.getParallelism());
+        return result;
+    }
+
+    /**
+     * Checks links across page boundaries and reports the lowest failing block,
+     * whether it came from a page task or from a boundary.
+     */
+    private Result finalPass(ChainValidationReport report, List<PageSummary> pages) {
+        if (pages.isEmpty()) {
+            report.setChainValid(false);
+            report.setFailureReason("Election has no blocks");
+            return new Result(report, null, null);
+        }
+
+        report.setChainValid(true);
+        PageSummary previous = null;
+        for (PageSummary page : pages) {
+            if (previous != null) {
+                String linkFailure = BlockVerifier.checkLink(
+                        page.first, previous.lastNumber, previous.lastHash);
+                if (linkFailure != null) {
+                    return failed(report, page.first.getBlockNumber(), linkFailure);
+                }
+            }
+            if (page.failureBlock != null) {
+                return failed(report, page.failureBlock, page.failureReason);
+            }
+            previous = page;
+        }
+        return new Result(report, previous.lastNumber, previous.lastHash);
+    }
+
+    private Result failed(ChainValidationReport report, long blockNumber, String reason) {
+        logger.error("Chain audit failed at block {} of election {}: {}", blockNumber, report.getElectionId(), reason);
+        report.fail(blockNumber, reason);
+        return new Result(report, null, null);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        pool.shutdownNow();
+    }
+
+    // ── Tasks ─────────────────────────────────────────────────────────────────
+
+    /** What the final pass needs from one page once its blocks are released. */
+    private static final class PageSummary {
+        Block  first;            // only number and previousHash are read
+        long   lastNumber;
+        String lastHash;
+        Long   failureBlock;     // lowest failing block within the page
+        String failureReason;
+    }
+
+    /** Verifies one page: contents in parallel, then the links inside it. */
+    private final class PageTask extends RecursiveTask<PageSummary> {
+
+        private final List<Block> blocks;
+
+        PageTask(List<Block> blocks) {
+            this.blocks = blocks;
+        }
+
+        @Override
+        protected PageSummary compute() {
+            String[] failures = new String[blocks.size()];
+            new RangeTask(blocks, failures, 0, blocks.size()).invoke();
+
+            PageSummary summary = new PageSummary();
+            Block last = blocks.get(blocks.size() - 1);
+            summary.first      = blocks.get(0);
+            summary.lastNumber = last.getBlockNumber();
+            summary.lastHash   = last.getBlockHash();
+
+            for (int i = 0; i < blocks.size(); i++) {
+                String failure = failures[i];
+                if (failure == null && i > 0) {
+                    Block previous = blocks.get(i - 1);
+                    failure = BlockVerifier.checkLink(blocks.get(i), previous.getBlockNumber(), previous.getBlockHash());
+                }
+                if (failure != null) {
+                    summary.failureBlock  = blocks.get(i).getBlockNumber();
+                    summary.failureReason = failure;
+                    break;
+                }
+            }
+            return summary;
+        }
+    }
+
+    /** Content checks for {@code blocks[from, to)}, split until LEAF_SIZE. */
+    private final class RangeTask extends RecursiveTask<Void> {
+
+        private final List<Block> blocks;
+        private final String[]    failures;
+        private final int         from;
+        private final int         to;
+
+        RangeTask(List<Block> blocks, String[] failures, int from, int to) {
+            this.blocks   = blocks;
+            this.failures = failures;
+            this.from     = from;
+            this.to       = to;
+        }
+
+        @Override
+        protected Void compute() {
+            if (to - from <= LEAF_SIZE) {
+                BlockVerifier verifier = new BlockVerifier(blockchainConfig, serverKeyPair.getPublic());
+                for (int i = from; i < to; i++) {
+                    failures[i] = verifier.checkContents(blocks.get(i));
+                }
+                return null;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(blocks, failures, from, mid),
+                      new RangeTask(blocks, failures, mid, to));
+            return null;
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package danjel.votingbackend.service.blockchain;
+
+import danjel.votingbackend.config.BlockchainConfig;
+import danjel.votingbackend.dto.ChainValidationReport;
+import danjel.votingbackend.model.Block;
+import danjel.votingbackend.model.ChainCheckpoint;
+import danjel.votingbackend.repository.BlockRepository;
+import danjel.votingbackend.repository.ChainCheckpointRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Component;
+
+import java.security.KeyPair;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.Optional;
+
+/**
+ * Verifies an election's chain: every block's hash recomputes, its validator
+ * signature checks out, and it links to the block before it.
+ *
+ * Runs are incremental by default. The last verified block (number + hash)
+ * is stored as a {@link ChainCheckpoint}, and the next run re-reads that
+ * block to make sure it is unchanged, then checks only the blocks after it.
+ * Dashboards polling the chain status therefore pay for new blocks only.
+ *
+ * A full audit ignores the checkpoint and re-checks from genesis in
+ * parallel (see {@link ChainAuditor}). If it fails, the checkpoint is
+ * dropped so incremental runs report the failure too.
+ */
+@Component
+public class ChainValidator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChainValidator.class);
+
+    private final BlockRepository           blockRepository;
+    private final ChainCheckpointRepository checkpointRepository;
+    private final BlockchainConfig          blockchainConfig;
+    private final KeyPair                   serverKeyPair;
+    private final ChainAuditor              chainAuditor;
+
+    public ChainValidator(BlockRepository blockRepository,
+                          ChainCheckpointRepository checkpointRepository,
+                          BlockchainConfig blockchainConfig,
+                          KeyPair serverKeyPair,
+                          ChainAuditor chainAuditor) {
+        this.blockRepository      = blockRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.blockchainConfig     = blockchainConfig;
+        this.serverKeyPair        = serverKeyPair;
+        this.chainAuditor         = chainAuditor;
+    }
+
+    public ChainValidationReport validate(String electionId, boolean fullAudit) {
+        if (fullAudit) return fullAudit(electionId);
+
+        long started = System.nanoTime();
+        ChainValidationReport report = new ChainValidationReport(electionId, false);
+        report.setChainValid(true);
+
+        ChainCheckpoint checkpoint = checkpointRepository.findById(electionId).orElse(null);
+        Block previous = null;
+
+        if (checkpoint != null) {
+            Optional<Block> anchor = blockRepository.findByElectionIdAndBlockNumber(
+                    electionId, checkpoint.getBlockNumber());
+            if (anchor.isEmpty() || !anchor.get().getBlockHash().equals(checkpoint.getBlockHash())) {
+                logger.error("Checkpointed block {} of election {} was altered or removed",
+                        checkpoint.getBlockNumber(), electionId);
+                report.fail(checkpoint.getBlockNumber(), "Checkpointed block was altered or removed");
+                return finish(report, started);
+            }
+            previous = anchor.get();
+            report.setCheckedFromBlock(previous.getBlockNumber());
+            report.setCheckpointBlock(previous.getBlockNumber());
+        }
+
+        long after = previous == null ? -1 : previous.getBlockNumber();
+        BlockCursor cursor = BlockCursor.open(blockRepository, electionId, after, blockchainConfig.getBlockPageSize());
+        if (previous == null && !cursor.hasNext()) {
+            report.setChainValid(false);
+            report.setFailureReason("Election has no blocks");
+            return finish(report, started);
+        }
+
+        BlockVerifier verifier = new BlockVerifier(blockchainConfig, serverKeyPair.getPublic());
+        Iterator<Block> blocks = cursor.blocks().iterator();
+        while (blocks.hasNext()) {
+            Block block = blocks.next();
+            String failure = verifier.check(block, previous);
+            if (failure != null) {
+                logger.error("Chain invalid at block {} of election {}: {}", block.getBlockNumber(), electionId, failure);
+                report.fail(block.getBlockNumber(), failure);
+                break;
+            }
+            report.setBlocksChecked(report.getBlocksChecked() + 1);
+            previous = block;
+        }
+
+        if (report.isChainValid() && previous != null) {
+            saveCheckpoint(electionId, previous.getBlockNumber(), previous.getBlockHash(), false);
+            report.setCheckpointBlock(previous.getBlockNumber());
+        }
+        return finish(report, started);
+    }
+
+    /** Parallel re-check from genesis; moves the checkpoint on success, drops it on failure. */
+    private ChainValidationReport fullAudit(String electionId) {
+        ChainAuditor.Result result = chainAuditor.audit(electionId);
+        ChainValidationReport report = result.report();
+
+        if (report.isChainValid()) {
+            saveCheckpoint(electionId, result.lastBlockNumber(), result.lastBlockHash(), true);
+            report.setCheckpointBlock(result.lastBlockNumber());
+        } else if (checkpointRepository.existsById(electionId)) {
+            checkpointRepository.deleteById(electionId);
+        }
+        return report;
+    }
+
+    private void saveCheckpoint(String electionId, long blockNumber, String blockHash, boolean fullAudit) {
+        ChainCheckpoint checkpoint = checkpointRepository.findById(electionId)
+                .orElseGet(() -> new ChainCheckpoint(electionId));
+        // A concurrent run may already have moved further
+        if (!fullAudit && checkpoint.getBlockNumber() != null
+                && checkpoint.getBlockNumber() >= blockNumber) return;
+
+        LocalDateTime now = LocalDateTime.now();
+        checkpoint.setBlockNumber(blockNumber);
+        checkpoint.setBlockHash(blockHash);
+        checkpoint.setVerifiedAt(now);
+        if (fullAudit) checkpoint.setFullAuditAt(now);
+        try {
+            checkpointRepository.save(checkpoint);
+        } catch (DataIntegrityViolationException e) {
+            // Lost the race to create the first checkpoint; the other run's is just as good
+            logger.debug("Checkpoint for election {} already created concurrently", electionId);
+        }
+    }
+
+    private static ChainValidationReport finish(ChainValidationReport report, long startedNanos) {
+        report.setElapsedMs((System.nanoTime() - startedNanos) / 1_000_000);
+        return report;
+    }
+}
@@ -0,0 +1,353 @@
+package danjel.votingbackend.service.blockchain;
+
+import danjel.votingbackend.exception.BlockchainException;
+import danjel.votingbackend.model.Vote;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single writer for one election's chain.
+ *
+ * Request threads publish votes into an {@link MpscRingBuffer}; one dedicated
+ * thread drains it into a private pending list and is the only code that
+ * ever seals a block for the election. Block numbers are therefore strictly
+ * sequential without any lock, and the chain tip is kept in memory instead
+ * of being re-read for every block.
+ *
+ * Sealing triggers need no coordination: after each drain the sequencer
+ * checks the size target and the oldest vote's deadline, so any number of
+ * arrivals collapse into the next block. When idle it parks until the next
+ * deadline or until a producer wakes it.
+ *
+ * Flush requests travel through the same ring, so they observe every vote
+ * published before them.
+ *
+ * A vote submitted again while it is still pending (e.g. by startup
+ * recovery and by its own commit) is queued only once.
+ *
+ * Failed seals are retried a bounded number of times. A batch that keeps
+ * failing is then sealed in halves until a single vote fails on its own.
+ * That vote is set aside and the rest of the queue moves on. Once another
+ * block has sealed, the vote gets one last try on its own. If that fails
+ * too, it is handed to the {@link QuarantineHandler} and leaves the queue.
+ * If a second vote also fails on its own while one is already set aside,
+ * the cause is not the votes. The sequencer then keeps retrying the full
+ * queue on a long back-off and quarantines nothing.
+ */
+public final class ElectionSequencer {
+
+    private static final Logger logger = LoggerFactory.getLogger(ElectionSequencer.class);
+
+    private static final int  DRAIN_LIMIT       = 1024;
+    private static final int  MAX_SEAL_ATTEMPTS = 3;
+    private static final long SEAL_RETRY_MS     = 1_000;
+    private static final long STALLED_RETRY_MS  = 30_000;
+    private static final long JOIN_TIMEOUT_MS   = 5_000;
+    private static final int  NO_LIMIT          = Integer.MAX_VALUE;
+
+    /** Loads the current chain tip of an election from storage. */
+    @FunctionalInterface
+    public interface TipLoader {
+        Tip load(String electionId);
+    }
+
+    /** Seals {@code votes} into the block after {@code tip} and returns the new tip. */
+    @FunctionalInterface
+    public interface BlockSealer {
+        Tip seal(String electionId, Tip tip, List<Vote> votes);
+    }
+
+    /** Receives a vote that could not be sealed even on its own; it is no longer pending. */
+    @FunctionalInterface
+    public interface QuarantineHandler {
+        void quarantine(String electionId, Vote vote, RuntimeException cause);
+    }
+
+    public record Tip(long blockNumber, String blockHash) {}
+
+    private record Flush(CompletableFuture<Void> done) {}
+
+    private final String                 electionId;
+    private final MpscRingBuffer<Object> ring;
+    private final BlockSealingPolicy     policy;
+    private final TipLoader              tipLoader;
+    private final BlockSealer            sealer;
+    private final QuarantineHandler      quarantine;
+    private final Thread                 thread;
+
+    // Owned by the sequencer thread
+    private final ArrayDeque<Vote> pending = new ArrayDeque<>();
+    private final Set<String>      queuedIds = new HashSet<>();
+    private long oldestPendingAtMs;
+    private long retryAtMs;
+    private Tip  tip;
+
+    // Failure isolation, also owned by the sequencer thread
+    private int     failures;              // consecutive failed seals
+    private int     sealLimit = NO_LIMIT;  // block size cap while isolating a failing vote
+    private Vote    suspect;               // failed on its own; still pending, outside the queue
+    private boolean confirming;            // head of the queue is the suspect on its last try
+    private boolean stalled;               // every vote fails; the cause is not the votes
+
+    // Read by other threads
+    private volatile int     pendingCount;
+    private volatile boolean parked;
+    private volatile boolean running = true;
+
+    public ElectionSequencer(String electionId, int ringCapacity, BlockSealingPolicy policy,
+                             TipLoader tipLoader, BlockSealer sealer, QuarantineHandler quarantine) {
+        this.electionId = electionId;
+        this.ring       = new MpscRingBuffer<>(ringCapacity);
+        this.policy     = policy;
+        this.tipLoader  = tipLoader;
+        this.sealer     = sealer;
+        this.quarantine = quarantine;
+        this.thread     = new Thread(this::run, "sequencer-" + electionId);
+        this.thread.setDaemon(true);
+        this.thread.start();
+    }
+
+    // ── Producer API (any thread) ─────────────────────────────────────────────
+
+    public void submit(Vote vote) {
+        publish(vote);
+    }
+
+    /** Completes once every vote submitted before this call is in a block. */
+    public CompletableFuture<Void> flush() {
+        CompletableFuture<Void> done = new CompletableFuture<>();
+        publish(new Flush(done));
+        return done;
+    }
+
+    /** Votes waiting for a block, including those still in the ring. */
+    public int backlog() {
+        return pendingCount + ring.size();
+    }
+
+    public void stop() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(JOIN_TIMEOUT_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void publish(Object message) {
+        if (!running) {
+            throw new BlockchainException("Sequencer for election " + electionId + " is stopped");
+        }
+        ring.put(message);
+        if (parked) LockSupport.unpark(thread);
+    }
+
+    // ── Sequencer loop ────────────────────────────────────────────────────────
+
+    private void run() {
+        while (running) {
+            int drained = ring.drain(this::onMessage, DRAIN_LIMIT);
+            updatePendingCount();
+
+            long now = System.currentTimeMillis();
+            if (sealDue(now)) {
+                sealNext(policy.targetBlockSize(electionId));
+                continue;
+            }
+            if (drained == 0) idle(now);
+        }
+        ring.drain(this::onStopped, Integer.MAX_VALUE);
+    }
+
+    private void onMessage(Object message) {
+        if (message instanceof Vote vote) {
+            if (!queuedIds.add(vote.getId())) {
+                logger.debug("Vote {} already pending  election={}", vote.getId(), electionId);
+                return;
+            }
+            if (pending.isEmpty()) oldestPendingAtMs = System.currentTimeMillis();
+            pending.add(vote);
+        } else if (message instanceof Flush flush) {
+            try {
+                flushPending();
+                flush.done().complete(null);
+            } catch (RuntimeException e) {
+                flush.done().completeExceptionally(e);
+            }
+        }
+    }
+
+    /**
+     * Seals everything pending, working through isolation steps as they come.
+     * A vote still set aside at the end gets its last try now, since no later
+     * block can confirm it. Gives up only when sealing has stalled.
+     */
+    private void flushPending() {
+        while (!pending.isEmpty() || suspect != null) {
+            if (pending.isEmpty()) retrySuspect();
+            if (sealNext(policy.targetBlockSize(electionId))) continue;
+            if (stalled) {
+                throw new BlockchainException("Failed to seal pending votes of election " + electionId);
+            }
+            long waitMs = retryAtMs - System.currentTimeMillis();
+            if (waitMs > 0) {
+                try {
+                    Thread.sleep(waitMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new BlockchainException("Interrupted while flushing election " + electionId, e);
+                }
+            }
+        }
+    }
+
+    private void onStopped(Object message) {
+        if (message instanceof Flush flush) {
+            flush.done().completeExceptionally(new BlockchainException("Sequencer stopped"));
+        } else if (message instanceof Vote vote && queuedIds.add(vote.getId())) {
+            pending.add(vote);   // still in the WAL; counted for the shutdown log
+        }
+        updatePendingCount();
+    }
+
+    private void updatePendingCount() {
+        pendingCount = pending.size() + (suspect != null ? 1 : 0);
+    }
+
+    private boolean sealDue(long now) {
+        if (pending.isEmpty() || now < retryAtMs) return false;
+        return pending.size() >= Math.min(policy.targetBlockSize(electionId), sealLimit)
+                || now >= policy.sealDeadline(oldestPendingAtMs);
+    }
+
+    private void idle(long now) {
+        long wakeAt;
+        if (pending.isEmpty()) {
+            wakeAt = Long.MAX_VALUE;
+        } else if (pending.size() >= Math.min(policy.targetBlockSize(electionId), sealLimit)) {
+            wakeAt = retryAtMs;   // only waiting out a failed seal
+        } else {
+            wakeAt = Math.max(retryAtMs, policy.sealDeadline(oldestPendingAtMs));
+        }
+
+        parked = true;
+        if (ring.isEmpty() && running) {   // re-check after announcing, so a wake-up is never lost
+            if (wakeAt == Long.MAX_VALUE) {
+                LockSupport.park(this);
+            } else if (wakeAt > now) {
+                LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(wakeAt - now));
+            }
+        }
+        parked = false;
+    }
+
+    /**
+     * Seals up to {@code maxVotes} from the head of the pending list. On failure
+     * the votes stay pending, the tip is re-read and the next attempt backs off.
+     */
+    private boolean sealNext(int maxVotes) {
+        int count = Math.min(Math.min(maxVotes, sealLimit), pending.size());
+        List<Vote> batch = new ArrayList<>(count);
+        var it = pending.iterator();
+        for (int i = 0; i < count; i++) batch.add(it.next());
+
+        try {
+            if (tip == null) tip = tipLoader.load(electionId);
+            tip = sealer.seal(electionId, tip, batch);
+        } catch (RuntimeException e) {
+            logger.error("Sealing failed  election={}  votes={}: {}", electionId, count, e.getMessage(), e);
+            tip = null;
+            onSealFailed(count, e);
+            updatePendingCount();
+            return false;
+        }
+
+        for (int i = 0; i < count; i++) queuedIds.remove(pending.poll().getId());
+        // Leftovers restart the timer rather than forcing a tiny block right away
+        if (!pending.isEmpty()) oldestPendingAtMs = System.currentTimeMillis();
+        retryAtMs = 0;
+        failures  = 0;
+        stalled   = false;
+        if (confirming) {
+            confirming = false;   // the suspect sealed after all
+            sealLimit  = NO_LIMIT;
+        } else if (suspect != null) {
+            retrySuspect();       // other votes seal, so the suspect gets its last try
+        } else if (sealLimit != NO_LIMIT) {
+            // Widen again, so a transient failure does not cap blocks for good
+            sealLimit = sealLimit > NO_LIMIT / 2 ? NO_LIMIT : sealLimit * 2;
+        }
+        updatePendingCount();
+        return true;
+    }
+
+    /**
+     * Narrows down a failing seal of {@code count} votes. Retries the same
+     * batch up to MAX_SEAL_ATTEMPTS times, then halves it, then sets a
+     * single failing vote aside. While isolating, every step takes one attempt.
+     */
+    private void onSealFailed(int count, RuntimeException cause) {
+        long now = System.currentTimeMillis();
+        failures++;
+
+        if (confirming) {
+            confirming = false;
+            sealLimit  = NO_LIMIT;
+            failures   = 0;
+            Vote vote = pending.poll();
+            queuedIds.remove(vote.getId());
+            logger.error("Quarantining vote {} of election {}: it cannot be sealed on its own",
+                    vote.getId(), electionId);
+            quarantine.quarantine(electionId, vote, cause);
+            retryAtMs = 0;
+            return;
+        }
+
+        int attempts = sealLimit == NO_LIMIT ? MAX_SEAL_ATTEMPTS : 1;
+        if (failures < attempts) {
+            retryAtMs = now + SEAL_RETRY_MS * failures;
+            return;
+        }
+        failures = 0;
+
+        if (count > 1) {
+            sealLimit = count / 2;
+            retryAtMs = now + SEAL_RETRY_MS;
+            logger.warn("Sealing keeps failing  election={}; retrying in blocks of {} to isolate the cause",
+                    electionId, sealLimit);
+        } else if (suspect == null) {
+            suspect = pending.poll();
+            sealLimit = NO_LIMIT;
+            retryAtMs = 0;
+            logger.warn("Vote {} of election {} fails to seal on its own; setting it aside",
+                    suspect.getId(), electionId);
+        } else {
+            // A second vote fails on its own as well: the problem is not the votes
+            pending.addFirst(suspect);
+            suspect   = null;
+            sealLimit = NO_LIMIT;
+            stalled   = true;
+            retryAtMs = now + STALLED_RETRY_MS;
+            logger.error("Sealing is failing for every vote of election {}; retrying in {}s",
+                    electionId, STALLED_RETRY_MS / 1000);
+        }
+    }
+
+    /** Puts the set-aside vote back at the head of the queue for its last, solo attempt. */
+    private void retrySuspect() {
+        pending.addFirst(suspect);
+        suspect    = null;
+        confirming = true;
+        sealLimit  = 1;
+    }
+}
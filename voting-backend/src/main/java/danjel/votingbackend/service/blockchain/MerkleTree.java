@@ -0,0 +1,277 @@
+package danjel.votingbackend.service.blockchain;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import danjel.votingbackend.config.BlockchainConfig;
+import danjel.votingbackend.dto.MerkleProof;
+import danjel.votingbackend.exception.BlockchainException;
+import danjel.votingbackend.model.Block;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Merkle tree construction and inclusion proofs for block vote hashes.
+ *
+ * Blocks with header version ≥ {@link BlockHeader#BINARY_MERKLE} use a byte
+ * tree: leaves are the raw 32-byte vote digests (decoded from their Base64
+ * form) and every inner node is H(left ‖ right) over raw bytes. Each level
+ * is stored as one flat byte array. A cached 100-vote tree holds roughly
+ * 20 KB (64-bit JVM, compressed oops): ~6.5 KB of level arrays, ~9 KB for
+ * the Base64 leaf strings and the list copy that keeps them, and ~4 KB for
+ * the leaf-index HashMap.
+ *
+ * Older blocks keep the legacy text tree (hex(H(leftText + rightText))) so
+ * their stored merkleRoot still matches.
+ *
+ * Built trees are cached per block hash. A proof is then a walk up the
+ * cached levels — O(log n) lookups and no hashing. Trees are put in the
+ * cache at seal time, so receipt checks right after a block is mined are hits.
+ */
+@Component
+public class MerkleTree {
+
+    static final String EMPTY_MARKER = "EMPTY_MERKLE_ROOT";
+
+    private final BlockchainConfig blockchainConfig;
+    private final Cache<String, Tree> trees;
+
+    public MerkleTree(BlockchainConfig blockchainConfig) {
+        this.blockchainConfig = blockchainConfig;
+        this.trees = Caffeine.newBuilder()
+                .maximumSize(blockchainConfig.getMerkleCacheSize())
+                .build();
+    }
+
+    // ── Building ──────────────────────────────────────────────────────────────
+
+    /** Builds the current-version (byte) tree over {@code voteHashes}, in block order. */
+    public Tree build(List<String> voteHashes) {
+        return new BinaryTree(voteHashes, newDigest());
+    }
+
+    /** Makes a freshly sealed block's tree available to proof requests. */
+    public void remember(String blockHash, Tree tree) {
+        trees.put(blockHash, tree);
+    }
+
+    // ── Proofs ────────────────────────────────────────────────────────────────
+
+    /**
+     * Inclusion proof for {@code voteHash} in {@code block}, or null when the
+     * vote is not part of the block. Must run inside a transaction on a cache
+     * miss, since the block's vote hashes are loaded lazily.
+     */
+    public MerkleProof proof(Block block, String voteHash) {
+        Tree tree = trees.get(block.getBlockHash(), k -> treeFor(block, newDigest()));
+        int index = tree.indexOf(voteHash);
+        if (index < 0) return null;
+        return tree.proof(index);
+    }
+
+    /**
+     * Same as {@link #proof(Block, String)} when the leaf position is already
+     * known from the block-membership index; skips the leaf lookup. Returns
+     * null if that leaf does not hold {@code voteHash}.
+     */
+    public MerkleProof proof(Block block, String voteHash, int leafIndex) {
+        Tree tree = trees.get(block.getBlockHash(), k -> treeFor(block, newDigest()));
+        if (!tree.holds(leafIndex, voteHash)) return null;
+        return tree.proof(leafIndex);
+    }
+
+    /**
+     * Recomputes a stored block's Merkle root from its vote hashes, with the
+     * tree layout its header version was sealed with. Used by chain audits.
+     */
+    public static String computeRoot(Block block, MessageDigest digest) {
+        return treeFor(block, digest).root();
+    }
+
+    private static Tree treeFor(Block block, MessageDigest digest) {
+        if (BlockHeader.versionOf(block) >= BlockHeader.BINARY_MERKLE) {
+            return new BinaryTree(block.getVoteHashes(), digest);
+        }
+        return new LegacyTree(block.getVoteHashes(), digest);
+    }
+
+    private MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance(blockchainConfig.getHashAlgorithm());
+        } catch (NoSuchAlgorithmException e) {
+            throw new BlockchainException("Hash algorithm not available");
+        }
+    }
+
+    // ── Tree implementations ──────────────────────────────────────────────────
+
+    public abstract static class Tree {
+
+        private final List<String>         voteHashes;
+        private final Map<String, Integer> leafIndex;
+
+        Tree(List<String> voteHashes) {
+            this.voteHashes = List.copyOf(voteHashes);
+            this.leafIndex  = new HashMap<>(voteHashes.size() * 2);
+            for (int i = 0; i < voteHashes.size(); i++) {
+                leafIndex.putIfAbsent(voteHashes.get(i), i);
+            }
+        }
+
+        public abstract String root();
+
+        abstract int version();
+
+        abstract int levelCount();
+
+        abstract int levelSize(int level);
+
+        abstract String node(int level, int index);
+
+        int indexOf(String voteHash) {
+            return leafIndex.getOrDefault(voteHash, -1);
+        }
+
+        boolean holds(int index, String voteHash) {
+            return index >= 0 && index < voteHashes.size() && voteHashes.get(index).equals(voteHash);
+        }
+
+        MerkleProof proof(int index) {
+            MerkleProof proof = new MerkleProof();
+            proof.setVoteHash(voteHashes.get(index));
+            proof.setLeafHash(node(0, index));
+            proof.setLeafIndex(index);
+            proof.setLeafCount(voteHashes.size());
+            proof.setMerkleRoot(root());
+            proof.setTreeVersion(version());
+
+            for (int level = 0; level < levelCount() - 1; level++) {
+                boolean isLeft  = (index & 1) == 0;
+                int sibling     = isLeft ? index + 1 : index - 1;
+                // An odd node out is paired with itself
+                if (sibling >= levelSize(level)) sibling = index;
+                proof.getPath().add(new MerkleProof.Step(
+                        node(level, sibling),
+                        isLeft ? MerkleProof.Side.RIGHT : MerkleProof.Side.LEFT));
+                index >>>= 1;
+            }
+            return proof;
+        }
+    }
+
+    /** Raw-digest tree; each level is one flat array of 32-byte nodes. */
+    static final class BinaryTree extends Tree {
+
+        private final int      width;
+        private final byte[][] levels;
+        private final String   root;
+
+        BinaryTree(List<String> voteHashes, MessageDigest digest) {
+            super(voteHashes);
+            this.width = digest.getDigestLength();
+
+            if (voteHashes.isEmpty()) {
+                this.levels = new byte[0][];
+                this.root   = BlockHeader.toHex(digest.digest(EMPTY_MARKER.getBytes(StandardCharsets.UTF_8)));
+                return;
+            }
+
+            int count = voteHashes.size();
+            byte[] leaves = new byte[count * width];
+            for (int i = 0; i < count; i++) {
+                System.arraycopy(leafDigest(voteHashes.get(i), digest), 0, leaves, i * width, width);
+            }
+
+            int depth = 1;
+            for (int n = count; n > 1; n = (n + 1) >>> 1) depth++;
+            this.levels = new byte[depth][];
+            this.levels[0] = leaves;
+
+            for (int level = 1; level < depth; level++) {
+                byte[] below = levels[level - 1];
+                int belowCount = below.length / width;
+                byte[] current = new byte[((belowCount + 1) >>> 1) * width];
+                for (int i = 0; i < belowCount; i += 2) {
+                    int right = (i + 1 < belowCount) ? i + 1 : i;
+                    digest.update(below, i * width, width);
+                    digest.update(below, right * width, width);
+                    System.arraycopy(digest.digest(), 0, current, (i >>> 1) * width, width);
+                }
+                levels[level] = current;
+            }
+            this.root = node(depth - 1, 0);
+        }
+
+        /** Vote hashes are Base64 digests; anything else is hashed to fit the leaf width. */
+        private byte[] leafDigest(String voteHash, MessageDigest digest) {
+            try {
+                byte[] raw = Base64.getDecoder().decode(voteHash);
+                if (raw.length == width) return raw;
+            } catch (IllegalArgumentException ignored) {
+                // not Base64 — fall through
+            }
+            return digest.digest(voteHash.getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Override public String root()            { return root; }
+        @Override int version()                    { return BlockHeader.BINARY_MERKLE; }
+        @Override int levelCount()                 { return levels.length; }
+        @Override int levelSize(int level)         { return levels[level].length / width; }
+
+        @Override
+        String node(int level, int index) {
+            int from = index * width;
+            return BlockHeader.toHex(Arrays.copyOfRange(levels[level], from, from + width));
+        }
+    }
+
+    /** Text tree used by blocks mined before header version 3. */
+    static final class LegacyTree extends Tree {
+
+        private final String[][] levels;
+        private final String     root;
+
+        LegacyTree(List<String> voteHashes, MessageDigest digest) {
+            super(voteHashes);
+
+            if (voteHashes.isEmpty()) {
+                this.levels = new String[0][];
+                this.root   = hashText(EMPTY_MARKER, digest);
+                return;
+            }
+
+            int depth = 1;
+            for (int n = voteHashes.size(); n > 1; n = (n + 1) >>> 1) depth++;
+            this.levels = new String[depth][];
+            this.levels[0] = voteHashes.toArray(new String[0]);
+
+            for (int level = 1; level < depth; level++) {
+                String[] below = levels[level - 1];
+                String[] current = new String[(below.length + 1) >>> 1];
+                for (int i = 0; i < below.length; i += 2) {
+                    String right = (i + 1 < below.length) ? below[i + 1] : below[i];
+                    current[i >>> 1] = hashText(below[i] + right, digest);
+                }
+                levels[level] = current;
+            }
+            this.root = levels[depth - 1][0];
+        }
+
+        private static String hashText(String input, MessageDigest digest) {
+            return BlockHeader.toHex(digest.digest(input.getBytes(StandardCharsets.UTF_8)));
+        }
+
+        @Override public String root()            { return root; }
+        @Override int version()                    { return BlockHeader.LEGACY_TEXT; }
+        @Override int levelCount()                 { return levels.length; }
+        @Override int levelSize(int level)         { return levels[level].length; }
+        @Override String node(int level, int index) { return levels[level][index]; }
+    }
+}
@@ -0,0 +1,108 @@
+package danjel.votingbackend.service.blockchain;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded lock-free ring buffer for many producers and exactly one consumer.
+ *
+ * Each slot carries a sequence number (the classic Vyukov layout):
+ *   - slot free for ticket t   ⇔ sequence == t
+ *   - slot published for t     ⇔ sequence == t + 1
+ * Producers claim a ticket with one CAS on the tail and publish by bumping
+ * the slot sequence. The consumer is the only writer of the head, so it
+ * reads slots and releases them without any CAS.
+ *
+ * Capacity is rounded up to a power of two so the slot index is a mask.
+ */
+public final class MpscRingBuffer<E> {
+
+    private final int                     mask;
+    private final AtomicReferenceArray<E> slots;
+    private final AtomicLongArray         sequences;
+    private final AtomicLong              tail = new AtomicLong();
+    private volatile long                 head;   // written by the consumer only
+
+    public MpscRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(1, requestedCapacity - 1)) << 1;
+        this.mask      = capacity - 1;
+        this.slots     = new AtomicReferenceArray<>(capacity);
+        this.sequences = new AtomicLongArray(capacity);
+        for (int i = 0; i < capacity; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    // ── Producers ─────────────────────────────────────────────────────────────
+
+    /** Enqueues {@code element}; false if the buffer is full. */
+    public boolean offer(E element) {
+        while (true) {
+            long ticket = tail.get();
+            int  index  = (int) ticket & mask;
+            long diff   = sequences.get(index) - ticket;
+
+            if (diff == 0) {
+                if (tail.compareAndSet(ticket, ticket + 1)) {
+                    slots.lazySet(index, element);
+                    sequences.set(index, ticket + 1);   // publish
+                    return true;
+                }
+            } else if (diff < 0) {
+                return false;                          // consumer has not freed this slot yet
+            }
+            // diff > 0: another producer took this ticket; reload the tail
+        }
+    }
+
+    /** Enqueues {@code element}, spinning and then parking briefly while the buffer is full. */
+    public void put(E element) {
+        int spins = 0;
+        while (!offer(element)) {
+            if (++spins < 100) {
+                Thread.onSpinWait();
+            } else {
+                LockSupport.parkNanos(50_000);
+            }
+        }
+    }
+
+    // ── Consumer ──────────────────────────────────────────────────────────────
+
+    /**
+     * Hands up to {@code limit} published elements to {@code sink}, oldest
+     * first, and returns how many were taken. Consumer thread only.
+     */
+    public int drain(Consumer<? super E> sink, int limit) {
+        long current = head;
+        int taken = 0;
+        while (taken < limit) {
+            int index = (int) current & mask;
+            if (sequences.get(index) != current + 1) break;   // not yet published
+
+            E element = slots.get(index);
+            slots.lazySet(index, null);
+            sequences.set(index, current + mask + 1);          // free for the next lap
+            head = ++current;
+            taken++;
+            sink.accept(element);
+        }
+        return taken;
+    }
+
+    public boolean isEmpty() {
+        return sequences.get((int) head & mask) != head + 1;
+    }
+
+    /** Approximate number of queued elements; exact only when producers are idle. */
+    public int size() {
+        return (int) Math.max(0, tail.get() - head);
+    }
+
+    public int capacity() {
+        return mask + 1;
+    }
+}
@@ -0,0 +1,398 @@
+package danjel.votingbackend.service.blockchain;
+
+import danjel.votingbackend.config.BlockchainConfig;
+import danjel.votingbackend.exception.BlockchainException;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.zip.CRC32;
+
+/**
+ * Write-ahead log of votes that are queued for a block but not yet anchored.
+ *
+ * One memory-mapped, append-only file. Each record is
+ * <pre>
+ *   int length | int crc32(payload) | payload
+ *   payload = short len + electionId UTF-8 | short len + voteId UTF-8
+ * </pre>
+ * followed by a zero int that marks the current end of the log; the next
+ * append overwrites that terminator. A torn record fails its CRC and ends
+ * replay there.
+ *
+ * Durability uses group commit. Appenders write into the mapping and wait
+ * until a single flusher thread has forced the pages to disk. Every append
+ * that lands during a force rides on the next one, so one fsync covers all
+ * votes that arrived in that window.
+ *
+ * The log also keeps the set of ids it holds that are not yet anchored:
+ * ids are added on append and dropped by {@link #remove} once their block
+ * commits (or their vote is quarantined or rolled back). When the log fills
+ * up it is compacted from that set, under its own lock and without asking
+ * any other component — so an append never waits on a sequencer.
+ */
+@Component
+public class PendingVoteLog {
+
+    private static final Logger logger = LoggerFactory.getLogger(PendingVoteLog.class);
+
+    private static final String FILE_NAME   = "pending-votes.wal";
+    private static final int    HEADER_SIZE = 8;   // length + crc
+    private static final int    TERMINATOR  = 4;
+    private static final long   WAIT_SLICE_MS = 100;
+
+    private final BlockchainConfig blockchainConfig;
+
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private final Object        syncMonitor = new Object();
+    private final AtomicLong    appendedSeq = new AtomicLong();
+    private volatile long       durableSeq;
+    private volatile boolean    running;
+    private volatile boolean    replayed;   // writes before replay would start at offset 0
+
+    // Unanchored ids per election, in append order; guarded by writeLock
+    private final Map<String, LinkedHashSet<String>> unanchored = new LinkedHashMap<>();
+
+    private FileChannel               channel;
+    private volatile MappedByteBuffer buffer;   // replaced only when the log grows
+    private int                       position; // guarded by writeLock
+    private Thread                    flusher;
+
+    public PendingVoteLog(BlockchainConfig blockchainConfig) {
+        this.blockchainConfig = blockchainConfig;
+    }
+
+    @PostConstruct
+    void open() {
+        try {
+            Path dir = Path.of(blockchainConfig.getWalDirectory());
+            Files.createDirectories(dir);
+            channel = FileChannel.open(dir.resolve(FILE_NAME),
+                    StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            long size = Math.max(channel.size(), blockchainConfig.getWalSizeBytes());
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+        } catch (IOException e) {
+            throw new BlockchainException("Failed to open pending-vote WAL", e);
+        }
+
+        running = true;
+        flusher = new Thread(this::flushLoop, "wal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // ── Replay ────────────────────────────────────────────────────────────────
+
+    /**
+     * Reads every intact record, in append order, grouped by election.
+     * Leaves the write position at the end of the last intact record and
+     * opens the log for writing.
+     */
+    public Map<String, LinkedHashSet<String>> replay() {
+        Map<String, LinkedHashSet<String>> pending = new LinkedHashMap<>();
+        writeLock.lock();
+        try {
+            int pos = 0;
+            CRC32 crc = new CRC32();
+            while (pos + HEADER_SIZE <= buffer.capacity()) {
+                int length = buffer.getInt(pos);
+                // Compared without adding to length, which a torn header can set to anything
+                if (length <= 0 || length > buffer.capacity() - pos - HEADER_SIZE) break;
+
+                byte[] payload = new byte[length];
+                buffer.get(pos + HEADER_SIZE, payload);
+                crc.reset();
+                crc.update(payload);
+                if ((int) crc.getValue() != buffer.getInt(pos + 4)) {
+                    logger.warn("WAL: torn record at offset {}, truncating replay there", pos);
+                    break;
+                }
+
+                int electionLength = ((payload[0] & 0xFF) << 8) | (payload[1] & 0xFF);
+                String electionId  = new String(payload, 2, electionLength, StandardCharsets.UTF_8);
+                int voteOffset     = 2 + electionLength;
+                int voteLength     = ((payload[voteOffset] & 0xFF) << 8) | (payload[voteOffset + 1] & 0xFF);
+                String voteId      = new String(payload, voteOffset + 2, voteLength, StandardCharsets.UTF_8);
+
+                pending.computeIfAbsent(electionId, k -> new LinkedHashSet<>()).add(voteId);
+                pos += HEADER_SIZE + length;
+            }
+            position = pos;
+            terminate();
+            unanchored.clear();
+            pending.forEach((electionId, ids) -> unanchored.put(electionId, new LinkedHashSet<>(ids)));
+            replayed = true;
+        } finally {
+            writeLock.unlock();
+        }
+        return pending;
+    }
+
+    // ── Append ────────────────────────────────────────────────────────────────
+
+    /**
+     * Durably records that {@code voteId} is waiting for a block.
+     * Blocks until the record has been forced to disk by the flusher.
+     * If the log is full it is first compacted to the ids not yet removed.
+     */
+    public void append(String electionId, String voteId) {
+        appendAll(Map.of(electionId, List.of(voteId)));
+    }
+
+    /**
+     * Records several votes, grouped by election, and waits for a single
+     * force covering all of them.
+     */
+    public void appendAll(Map<String, ? extends Collection<String>> voteIds) {
+        List<byte[]> payloads = new ArrayList<>();
+        int recordBytes = 0;
+        for (Map.Entry<String, ? extends Collection<String>> election : voteIds.entrySet()) {
+            for (String voteId : election.getValue()) {
+                byte[] payload = encode(election.getKey(), voteId);
+                payloads.add(payload);
+                recordBytes += HEADER_SIZE + payload.length;
+            }
+        }
+        if (payloads.isEmpty()) return;
+        long seq;
+
+        writeLock.lock();
+        try {
+            checkReplayed();
+            if (!fits(recordBytes - HEADER_SIZE)) {   // room for every record plus the terminator
+                rewriteLocked(copyOfUnanchored());
+            }
+            for (byte[] payload : payloads) {
+                ensureCapacity(payload.length);
+                writeRecord(payload);
+            }
+            terminate();
+            voteIds.forEach((electionId, ids) ->
+                    unanchored.computeIfAbsent(electionId, k -> new LinkedHashSet<>()).addAll(ids));
+            seq = appendedSeq.incrementAndGet();
+        } finally {
+            writeLock.unlock();
+        }
+
+        awaitDurable(seq);
+    }
+
+    /**
+     * Replaces the log contents, and the unanchored set, with exactly
+     * {@code pending}. Used after startup replay so entries that were
+     * already anchored, or never committed, do not accumulate.
+     */
+    public void rewrite(Map<String, ? extends Collection<String>> pending) {
+        long seq;
+        writeLock.lock();
+        try {
+            checkReplayed();
+            unanchored.clear();
+            pending.forEach((electionId, ids) -> {
+                if (!ids.isEmpty()) unanchored.put(electionId, new LinkedHashSet<>(ids));
+            });
+            rewriteLocked(copyOfUnanchored());
+            seq = appendedSeq.incrementAndGet();
+        } finally {
+            writeLock.unlock();
+        }
+        awaitDurable(seq);
+    }
+
+    /** Rewrites the log to the ids not yet removed, dropping removed records from the file. */
+    public void compact() {
+        long seq;
+        writeLock.lock();
+        try {
+            checkReplayed();
+            rewriteLocked(copyOfUnanchored());
+            seq = appendedSeq.incrementAndGet();
+        } finally {
+            writeLock.unlock();
+        }
+        awaitDurable(seq);
+    }
+
+    /**
+     * Marks votes as no longer pending — anchored in a committed block,
+     * quarantined, or rolled back. Their records stay in the file until the
+     * next compaction, which leaves them out.
+     */
+    public void remove(String electionId, Collection<String> voteIds) {
+        writeLock.lock();
+        try {
+            LinkedHashSet<String> ids = unanchored.get(electionId);
+            if (ids == null) return;
+            ids.removeAll(voteIds);
+            if (ids.isEmpty()) unanchored.remove(electionId);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    // ── Shutdown ──────────────────────────────────────────────────────────────
+
+    @PreDestroy
+    void close() {
+        running = false;
+        synchronized (syncMonitor) {
+            syncMonitor.notifyAll();
+        }
+        try {
+            flusher.join(1_000);
+            buffer.force();
+            channel.close();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.warn("WAL: failed to close cleanly: {}", e.getMessage());
+        }
+    }
+
+    // ── Internals (callers hold writeLock) ────────────────────────────────────
+
+    /** Until replay has found the end of the log, any write would overwrite unread records. */
+    private void checkReplayed() {
+        if (!replayed) {
+            throw new BlockchainException("Pending-vote WAL has not been replayed yet");
+        }
+    }
+
+    private void rewriteLocked(Map<String, ? extends Collection<String>> pending) {
+        position = 0;
+        int records = 0;
+        for (Map.Entry<String, ? extends Collection<String>> election : pending.entrySet()) {
+            for (String voteId : election.getValue()) {
+                byte[] payload = encode(election.getKey(), voteId);
+                ensureCapacity(payload.length);
+                writeRecord(payload);
+                records++;
+            }
+        }
+        terminate();
+        logger.info("WAL compacted  records={}  bytes={}", records, position);
+    }
+
+    /** Rewriting encodes from its argument, so it is handed a copy rather than the live set. */
+    private Map<String, List<String>> copyOfUnanchored() {
+        Map<String, List<String>> copy = new LinkedHashMap<>();
+        unanchored.forEach((electionId, ids) -> copy.put(electionId, new ArrayList<>(ids)));
+        return copy;
+    }
+
+    private boolean fits(int payloadLength) {
+        return position + HEADER_SIZE + payloadLength + TERMINATOR <= buffer.capacity();
+    }
+
+    /** Grows the mapping when even a compacted log cannot take another record. */
+    private void ensureCapacity(int payloadLength) {
+        if (fits(payloadLength)) return;
+        try {
+            buffer.force();
+            long newSize = (long) buffer.capacity() * 2;
+            if (newSize > Integer.MAX_VALUE) {
+                throw new BlockchainException("Pending-vote WAL exceeded 2 GB");
+            }
+            buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, newSize);
+            logger.warn("WAL grown to {} bytes", newSize);
+        } catch (IOException e) {
+            throw new BlockchainException("Failed to grow pending-vote WAL", e);
+        }
+    }
+
+    private void writeRecord(byte[] payload) {
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        buffer.putInt(position, payload.length);
+        buffer.putInt(position + 4, (int) crc.getValue());
+        buffer.put(position + HEADER_SIZE, payload);
+        position += HEADER_SIZE + payload.length;
+    }
+
+    private void terminate() {
+        if (position + TERMINATOR <= buffer.capacity()) {
+            buffer.putInt(position, 0);
+        }
+    }
+
+    private static byte[] encode(String electionId, String voteId) {
+        byte[] election = electionId.getBytes(StandardCharsets.UTF_8);
+        byte[] vote     = voteId.getBytes(StandardCharsets.UTF_8);
+        byte[] payload  = new byte[4 + election.length + vote.length];
+        payload[0] = (byte) (election.length >>> 8);
+        payload[1] = (byte) election.length;
+        System.arraycopy(election, 0, payload, 2, election.length);
+        int voteOffset = 2 + election.length;
+        payload[voteOffset]     = (byte) (vote.length >>> 8);
+        payload[voteOffset + 1] = (byte) vote.length;
+        System.arraycopy(vote, 0, payload, voteOffset + 2, vote.length);
+        return payload;
+    }
+
+    // ── Group commit ──────────────────────────────────────────────────────────
+
+    private void awaitDurable(long seq) {
+        synchronized (syncMonitor) {
+            syncMonitor.notifyAll();   // wake the flusher if it is idle
+            while (durableSeq < seq && running) {
+                try {
+                    syncMonitor.wait(WAIT_SLICE_MS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new BlockchainException("Interrupted while waiting for WAL sync", e);
+                }
+            }
+        }
+    }
+
+    private void flushLoop() {
+        while (running) {
+            long target;
+            synchronized (syncMonitor) {
+                while (running && appendedSeq.get() == durableSeq) {
+                    try {
+                        syncMonitor.wait();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+                target = appendedSeq.get();
+            }
+
+            try {
+                buffer.force();
+            } catch (RuntimeException e) {
+                // Leave durableSeq behind; appenders keep waiting and the next round retries
+                logger.error("WAL: fsync failed: {}", e.getMessage());
+                try {
+                    Thread.sleep(WAIT_SLICE_MS);
+                } catch (InterruptedException ie) {
+                    return;
+                }
+                continue;
+            }
+
+            synchronized (syncMonitor) {
+                durableSeq = target;
+                syncMonitor.notifyAll();
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package danjel.votingbackend.utils;
+
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * A 32-byte digest (SHA-256 output) as a value.
+ *
+ * The application passes hashes around as text — vote and voter hashes in
+ * Base64, block hashes and Merkle roots in lowercase hex — but the database
+ * stores the raw bytes (bytea) through the converters in model.converter.
+ * This type is the single place that parses and formats those encodings,
+ * so a value read back from the database renders exactly as it was written.
+ * Repositories keep taking and returning the text forms; Hibernate runs
+ * query parameters through the same converters.
+ *
+ * Existing databases need a one-time column migration (ddl-auto=update does
+ * not change column types):
+ *
+ *   ALTER TABLE votes
+ *     ALTER COLUMN voter_hash                TYPE bytea USING decode(voter_hash, 'base64'),
+ *     ALTER COLUMN vote_hash                 TYPE bytea USING decode(vote_hash, 'base64'),
+ *     ALTER COLUMN blockchain_transaction_id TYPE bytea USING decode(blockchain_transaction_id, 'hex'),
+ *     ALTER COLUMN previous_block_hash       TYPE bytea USING decode(previous_block_hash, 'hex'),
+ *     ALTER COLUMN current_block_hash        TYPE bytea USING decode(current_block_hash, 'hex');
+ *   ALTER TABLE blocks
+ *     ALTER COLUMN block_hash    TYPE bytea USING decode(block_hash, 'hex'),
+ *     ALTER COLUMN previous_hash TYPE bytea USING decode(previous_hash, 'hex'),
+ *     ALTER COLUMN merkle_root   TYPE bytea USING decode(merkle_root, 'hex');
+ *   ALTER TABLE block_vote_hashes
+ *     ALTER COLUMN vote_hash TYPE bytea USING decode(vote_hash, 'base64');
+ *   ALTER TABLE chain_checkpoints
+ *     ALTER COLUMN block_hash TYPE bytea USING decode(block_hash, 'hex');
+ *
+ * block_vote_index.vote_hash is intentionally left as Base64 text: it is the
+ * primary key of BlockVoteEntry, and JPA does not apply converters to @Id
+ * attributes. It needs no migration.
+ */
+public final class Hash256 {
+
+    public static final int LENGTH = 32;
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final byte[] bytes;
+
+    private Hash256(byte[] bytes) {
+        this.bytes = bytes;
+    }
+
+    public static Hash256 of(byte[] bytes) {
+        if (bytes == null || bytes.length != LENGTH) {
+            throw new IllegalArgumentException("Expected a " + LENGTH + "-byte digest, got "
+                    + (bytes == null ? "null" : bytes.length + " bytes"));
+        }
+        return new Hash256(bytes.clone());
+    }
+
+    public static Hash256 fromHex(String hex) {
+        return of(HEX.parseHex(hex));
+    }
+
+    public static Hash256 fromBase64(String base64) {
+        return of(Base64.getDecoder().decode(base64));
+    }
+
+    public byte[] toBytes() {
+        return bytes.clone();
+    }
+
+    public String toHex() {
+        return HEX.formatHex(bytes);
+    }
+
+    public String toBase64() {
+        return Base64.getEncoder().encodeToString(bytes);
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        return this == other || (other instanceof Hash256 hash && Arrays.equals(bytes, hash.bytes));
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bytes);
+    }
+
+    @Override
+    public String toString() {
+        return toHex();
+    }
+}
@@ -1,9 +1,25 @@
 package danjel.votingbackend.utils.enums;
 
+/**
+ * Lifecycle of an election.
+ *
+ * CLOSING was added after the elections table was first created. Hibernate
+ * creates a check constraint listing the enum values and ddl-auto=update
+ * does not widen it, so an existing database needs:
+ *
+ *   ALTER TABLE elections DROP CONSTRAINT IF EXISTS elections_status_check;
+ */
 public enum ElectionStatus {
     CREATED,
     CANDIDATES_IMPORTED,
     STARTED,
+    /** No longer accepting votes; votes already accepted are still being cast. */
+    CLOSING,
     CLOSED,
-    RESULTS_PUBLISHED
-}
\ No newline at end of file
+    RESULTS_PUBLISHED;
+
+    /** Votes may still be cast: the election is running or draining accepted votes. */
+    public boolean isOpen() {
+        return this == STARTED || this == CLOSING;
+    }
+}
@@ -0,0 +1,8 @@
+package danjel.votingbackend.utils.enums;
+
+/** Progress of a vote accepted for asynchronous casting. */
+public enum IntakeStatus {
+    PENDING,
+    CAST,
+    REJECTED
+}
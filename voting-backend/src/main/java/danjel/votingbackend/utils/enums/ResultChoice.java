@@ -0,0 +1,8 @@
+package danjel.votingbackend.utils.enums;
+
+/** What a regional result row counts: all votes, one party, or one candidate. */
+public enum ResultChoice {
+    TOTAL,
+    PARTY,
+    CANDIDATE
+}
@@ -0,0 +1,82 @@
+package danjel.votingbackend.service;
+
+import danjel.votingbackend.repository.AdminRepository;
+import danjel.votingbackend.repository.VoterRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class AccountRevocationListTest {
+
+    private final VoterRepository voterRepository = mock(VoterRepository.class);
+    private final AdminRepository adminRepository = mock(AdminRepository.class);
+    private final AccountRevocationList revocations = new AccountRevocationList(voterRepository, adminRepository);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void refreshLoadsDisabledVotersAndRevokedAdmins() {
+        when(voterRepository.findDisabledNationalIds()).thenReturn(List.of("N1"));
+        when(adminRepository.findRevokedEmails()).thenReturn(List.of("admin@example.com"));
+
+        revocations.refresh();
+
+        assertThat(revocations.isRevoked("VOTER", "N1")).isTrue();
+        assertThat(revocations.isRevoked("VOTER", "N2")).isFalse();
+        assertThat(revocations.isRevoked("ADMIN", "admin@example.com")).isTrue();
+        assertThat(revocations.isRevoked("ADMIN", "other@example.com")).isFalse();
+    }
+
+    @Test
+    void voterAndAdminSubjectsAreKeptApart() {
+        when(voterRepository.findDisabledNationalIds()).thenReturn(List.of("shared"));
+        when(adminRepository.findRevokedEmails()).thenReturn(List.of());
+
+        revocations.refresh();
+
+        assertThat(revocations.isRevoked("VOTER", "shared")).isTrue();
+        assertThat(revocations.isRevoked("ADMIN", "shared")).isFalse();
+    }
+
+    @Test
+    void refreshDropsAccountsThatWereReEnabled() {
+        when(voterRepository.findDisabledNationalIds()).thenReturn(List.of("N1"));
+        when(adminRepository.findRevokedEmails()).thenReturn(List.of());
+        revocations.refresh();
+
+        when(voterRepository.findDisabledNationalIds()).thenReturn(List.of());
+        revocations.refresh();
+
+        assertThat(revocations.isRevoked("VOTER", "N1")).isFalse();
+    }
+
+    @Test
+    void adminRevocationWaitsForTheCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        revocations.revokeAdminAfterCommit("admin@example.com");
+        assertThat(revocations.isRevoked("ADMIN", "admin@example.com")).isFalse();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(revocations.isRevoked("ADMIN", "admin@example.com")).isTrue();
+    }
+
+    @Test
+    void adminRevocationOutsideATransactionAppliesAtOnce() {
+        revocations.revokeAdminAfterCommit("admin@example.com");
+
+        assertThat(revocations.isRevoked("ADMIN", "admin@example.com")).isTrue();
+    }
+}
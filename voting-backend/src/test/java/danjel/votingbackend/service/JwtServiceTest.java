@@ -0,0 +1,84 @@
+package danjel.votingbackend.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwtException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Claims cache of {@link JwtService#parseClaims}: a hit returns the claims
+ * verified earlier, and an entry expires after the cache TTL or at the
+ * token's own expiry, whichever comes first.
+ */
+class JwtServiceTest {
+
+    private static final String SECRET =
+            "dGVzdC1zZWNyZXQta2V5LWZvci1qd3Qtc2VydmljZS10ZXN0cy0wMTIzNDU2Nzg5";
+
+    private static final UserDetails USER =
+            User.withUsername("N1").password("unused").authorities(List.of()).build();
+
+    @Test
+    void verifiedClaimsAreReused() {
+        JwtService jwt = jwtService(60_000, 60_000);
+        String token = jwt.generateToken(USER);
+
+        Claims first = jwt.parseClaims(token);
+        assertThat(first.getSubject()).isEqualTo("N1");
+        assertThat(jwt.parseClaims(token)).isSameAs(first);
+    }
+
+    @Test
+    void cachedClaimsAreVerifiedAgainAfterTheTtl() throws InterruptedException {
+        JwtService jwt = jwtService(60_000, 200);
+        String token = jwt.generateToken(USER);
+
+        Claims first = jwt.parseClaims(token);
+        Thread.sleep(400);
+
+        Claims second = jwt.parseClaims(token);
+        assertThat(second).isNotSameAs(first);
+        assertThat(second.getSubject()).isEqualTo("N1");
+    }
+
+    @Test
+    void cachedClaimsNeverOutliveTheirToken() throws InterruptedException {
+        // Token expiry (second precision) well inside the cache TTL
+        JwtService jwt = jwtService(2_000, 60_000);
+        String token = jwt.generateToken(USER);
+
+        assertThat(jwt.parseClaims(token).getSubject()).isEqualTo("N1");
+        Thread.sleep(3_100);
+
+        assertThatThrownBy(() -> jwt.parseClaims(token)).isInstanceOf(ExpiredJwtException.class);
+    }
+
+    @Test
+    void invalidTokensAreNotCached() {
+        JwtService jwt = jwtService(60_000, 60_000);
+        String tampered = jwt.generateToken(USER) + "x";
+
+        assertThatThrownBy(() -> jwt.parseClaims(tampered)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> jwt.parseClaims(tampered)).isInstanceOf(JwtException.class);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private static JwtService jwtService(long expirationMs, long claimsCacheTtlMs) {
+        JwtService jwt = new JwtService();
+        ReflectionTestUtils.setField(jwt, "secretKey", SECRET);
+        ReflectionTestUtils.setField(jwt, "jwtExpiration", expirationMs);
+        ReflectionTestUtils.setField(jwt, "refreshExpiration", expirationMs);
+        ReflectionTestUtils.setField(jwt, "claimsCacheTtlMs", claimsCacheTtlMs);
+        jwt.init();
+        return jwt;
+    }
+}
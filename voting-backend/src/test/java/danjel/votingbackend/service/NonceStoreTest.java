@@ -0,0 +1,126 @@
+package danjel.votingbackend.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class NonceStoreTest {
+
+    private static final int  TTL_MINUTES = 5;
+    private static final long MINUTE      = 60_000L;
+    private static final long T0          = 1_000_000L * MINUTE;   // start of a minute
+
+    private final NonceStore store = new NonceStore(TTL_MINUTES);
+
+    @Test
+    void duplicateIsRejectedWithinTtl() {
+        assertThat(store.add(1, 2, T0)).isTrue();
+        assertThat(store.add(1, 2, T0)).isFalse();
+        assertThat(store.add(1, 2, T0 + TTL_MINUTES * MINUTE + MINUTE - 1)).isFalse();
+    }
+
+    @Test
+    void nonceIsAcceptedAgainAfterTtlPlusOneMinute() {
+        assertThat(store.add(1, 2, T0 + MINUTE - 1)).isTrue();   // end of its minute
+        assertThat(store.add(1, 2, T0 + (TTL_MINUTES + 1) * MINUTE)).isTrue();
+        assertThat(store.add(1, 2, T0 + (TTL_MINUTES + 1) * MINUTE)).isFalse();
+    }
+
+    @Test
+    void removedNonceCanBeAddedAgain() {
+        store.add(7, 8, T0);
+        store.add(9, 10, T0 + MINUTE);
+
+        store.remove(7, 8, T0 + 2 * MINUTE);
+
+        assertThat(store.add(7, 8, T0 + 2 * MINUTE)).isTrue();
+        assertThat(store.add(7, 8, T0 + 2 * MINUTE)).isFalse();
+        assertThat(store.add(9, 10, T0 + 2 * MINUTE)).isFalse();
+    }
+
+    @Test
+    void allZeroNonceIsTracked() {
+        assertThat(store.add(0, 0, T0)).isTrue();
+        assertThat(store.add(0, 0, T0)).isFalse();
+        assertThat(store.add(0, 1, T0)).isTrue();
+        assertThat(store.size()).isEqualTo(2);
+
+        store.remove(0, 0, T0);
+        assertThat(store.size()).isEqualTo(1);
+        assertThat(store.add(0, 0, T0)).isTrue();
+        assertThat(store.add(0, 1, T0)).isFalse();
+    }
+
+    @Test
+    void tablesGrowUnderBurstAndShrinkOnceTheSlotIsReused() {
+        long baseline = store.capacity();
+        Random random = new Random(42);
+
+        List<long[]> burst = randomKeys(random, 50_000);
+        for (long[] key : burst) assertThat(store.add(key[0], key[1], T0)).isTrue();
+        assertThat(store.capacity()).isGreaterThan(baseline);
+        for (long[] key : burst) assertThat(store.add(key[0], key[1], T0 + MINUTE)).isFalse();
+
+        // The burst minute's slot comes round twice: cleared and reused at its
+        // grown size, then shrunk once a quiet minute is recycled
+        long cycle = (TTL_MINUTES + 1) * MINUTE;
+        List<long[]> quiet = randomKeys(random, 2_000);
+        for (long[] key : quiet) assertThat(store.add(key[0], key[1], T0 + cycle)).isTrue();
+        for (long[] key : quiet) assertThat(store.add(key[0], key[1], T0 + cycle)).isFalse();
+        assertThat(store.capacity()).isGreaterThan(baseline);
+
+        List<long[]> later = randomKeys(random, 2_000);
+        for (long[] key : later) assertThat(store.add(key[0], key[1], T0 + 2 * cycle)).isTrue();
+        for (long[] key : later) assertThat(store.add(key[0], key[1], T0 + 2 * cycle)).isFalse();
+        for (long[] key : quiet) assertThat(store.add(key[0], key[1], T0 + 2 * cycle + MINUTE)).isTrue();
+        assertThat(store.capacity()).isEqualTo(baseline);
+    }
+
+    @Test
+    void deleteKeepsWrappedClustersReachable() {
+        // Keys of one stripe whose home slots sit at the end of the table, so
+        // their probe sequences wrap around to slot 0
+        int mask = NonceStore.INITIAL_CAPACITY - 1;
+        List<long[]> cluster = new ArrayList<>();
+        Random random = new Random(7);
+        while (cluster.size() < 12) {
+            long msb = random.nextLong(), lsb = random.nextLong();
+            long hash = NonceStore.mix(msb, lsb);
+            int home = (int) hash & mask;
+            if ((hash >>> 60) == 0 && (home >= mask - 2 || home <= 1)) {
+                cluster.add(new long[]{msb, lsb});
+            }
+        }
+
+        Set<Integer> present = new HashSet<>();
+        for (int step = 0; step < 2_000; step++) {
+            int k = random.nextInt(cluster.size());
+            long[] key = cluster.get(k);
+            if (random.nextBoolean()) {
+                assertThat(store.add(key[0], key[1], T0)).isEqualTo(present.add(k));
+            } else {
+                store.remove(key[0], key[1], T0);
+                present.remove(k);
+            }
+            for (int i = 0; i < cluster.size(); i++) {
+                long[] other = cluster.get(i);
+                if (present.contains(i)) {
+                    assertThat(store.add(other[0], other[1], T0)).as("key %d after step %d", i, step).isFalse();
+                }
+            }
+        }
+        assertThat(store.size()).isEqualTo(present.size());
+    }
+
+    private static List<long[]> randomKeys(Random random, int count) {
+        List<long[]> keys = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) keys.add(new long[]{random.nextLong(), random.nextLong()});
+        return keys;
+    }
+}
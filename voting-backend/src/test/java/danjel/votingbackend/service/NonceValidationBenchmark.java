@@ -0,0 +1,119 @@
+package danjel.votingbackend.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Request-signature check of {@link NonceValidationService}, before and after
+ * the switch to a per-thread Mac. The *Mac benchmarks time the HMAC alone. The
+ * *Check benchmarks time the whole signature check. The old check built a new
+ * Mac per request, Base64-encoded the result and compared the strings
+ * byte-wise. The new check re-keys the per-thread Mac, decodes the received
+ * signature and compares raw bytes. Every benchmark signs the same
+ * "nonce:timestamp:path" message under the same device key.
+ *
+ * Not a unit test; run it by hand after test-compile:
+ *
+ *   mvn -q test-compile dependency:build-classpath -Dmdep.outputFile=target/cp.txt
+ *   java -cp target/test-classes:target/classes:$(cat target/cp.txt) \
+ *       danjel.votingbackend.service.NonceValidationBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@Threads(4)
+@State(Scope.Benchmark)
+public class NonceValidationBenchmark {
+
+    private final NonceValidationService service = new NonceValidationService();
+
+    private SecretKeySpec key;
+    private String        nonce;
+    private String        timestamp;
+    private String        path;
+    private String        signature;   // as sent by the device
+
+    @Setup
+    public void setUp() {
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        key       = new SecretKeySpec(secret, NonceValidationService.HMAC_ALGORITHM);
+        nonce     = UUID.randomUUID().toString();
+        timestamp = Long.toString(System.currentTimeMillis());
+        path      = "/api/v1/vote";
+        signature = Base64.getEncoder().encodeToString(service.computeHmac(nonce, timestamp, path, key));
+    }
+
+    /** The previous path: provider lookup, new engine and string concatenation per request. */
+    @Benchmark
+    public byte[] macPerRequest() throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(NonceValidationService.HMAC_ALGORITHM);
+        mac.init(key);
+        return mac.doFinal((nonce + ":" + timestamp + ":" + path).getBytes(StandardCharsets.UTF_8));
+    }
+
+    /** The current path, through the service. */
+    @Benchmark
+    public byte[] threadLocalMac() {
+        return service.computeHmac(nonce, timestamp, path, key);
+    }
+
+    /** The previous check: new Mac, Base64 encode, string comparison. */
+    @Benchmark
+    public boolean macPerRequestCheck() throws GeneralSecurityException {
+        Mac mac = Mac.getInstance(NonceValidationService.HMAC_ALGORITHM);
+        mac.init(key);
+        byte[] raw = mac.doFinal((nonce + ":" + timestamp + ":" + path).getBytes(StandardCharsets.UTF_8));
+        return safeEquals(Base64.getEncoder().encodeToString(raw), signature);
+    }
+
+    /** The current check, through the service. */
+    @Benchmark
+    public boolean threadLocalMacCheck() {
+        return service.signatureMatches(service.computeHmac(nonce, timestamp, path, key), signature);
+    }
+
+    /** The service's former constant-time string comparison, kept verbatim. */
+    private static boolean safeEquals(String a, String b) {
+        if (a == null || b == null) return false;
+        byte[] aBytes = a.getBytes(StandardCharsets.UTF_8);
+        byte[] bBytes = b.getBytes(StandardCharsets.UTF_8);
+        if (aBytes.length != bBytes.length) return false;
+
+        int result = 0;
+        for (int i = 0; i < aBytes.length; i++) {
+            result |= (aBytes[i] ^ bBytes[i]);
+        }
+        return result == 0;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(NonceValidationBenchmark.class.getSimpleName())
+                .build())
+                .run();
+    }
+}
@@ -0,0 +1,225 @@
+package danjel.votingbackend.service;
+
+import danjel.votingbackend.dto.BatchVoteRequest.SignedBallot;
+import danjel.votingbackend.dto.BatchVoteResponse;
+import danjel.votingbackend.dto.VoteResponse;
+import danjel.votingbackend.model.Candidate;
+import danjel.votingbackend.model.Election;
+import danjel.votingbackend.model.Vote;
+import danjel.votingbackend.model.Voter;
+import danjel.votingbackend.repository.CandidateRepository;
+import danjel.votingbackend.repository.ElectionRepository;
+import danjel.votingbackend.repository.PartyRepository;
+import danjel.votingbackend.repository.VoteRepository;
+import danjel.votingbackend.repository.VoterRepository;
+import danjel.votingbackend.service.ElectionBallotCache.Ballot;
+import danjel.votingbackend.service.ElectionBallotCache.CandidateEntry;
+import danjel.votingbackend.utils.enums.AlbanianCounty;
+import danjel.votingbackend.utils.enums.AlbanianMunicipality;
+import danjel.votingbackend.utils.enums.ElectionStatus;
+import danjel.votingbackend.utils.enums.ElectionType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Partial failure of {@link VotingService#castVotes(List)}: rejected ballots,
+ * rows skipped by ON CONFLICT DO NOTHING, and SUCCESS_NO_INFO counts resolved
+ * by reading the ids back. Repositories and JDBC are mocked; the batch INSERT
+ * reports whatever row counts the test hands it.
+ */
+class VotingServiceBatchTest {
+
+    private static final String ELECTION_ID  = "e1";
+    private static final String CANDIDATE_ID = "c1";
+
+    private final VoterRepository     voterRepository     = mock(VoterRepository.class);
+    private final ElectionRepository  electionRepository  = mock(ElectionRepository.class);
+    private final CandidateRepository candidateRepository = mock(CandidateRepository.class);
+    private final BlockchainService   blockchainService   = mock(BlockchainService.class);
+    private final ElectionBallotCache ballotCache         = mock(ElectionBallotCache.class);
+    private final VoterKeyCache       voterKeyCache       = mock(VoterKeyCache.class);
+    private final JdbcTemplate        jdbcTemplate        = mock(JdbcTemplate.class);
+
+    private VotingService service;
+
+    /** Votes handed to the batch INSERT, in order. */
+    private final List<Vote> written = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        service = new VotingService(mock(VoteRepository.class), voterRepository, electionRepository,
+                candidateRepository, mock(PartyRepository.class), blockchainService,
+                mock(LiveTallyService.class), mock(TurnoutTimelineService.class),
+                mock(ElectionVoteCounter.class), ballotCache, voterKeyCache, jdbcTemplate, 2);
+        ReflectionTestUtils.setField(service, "secretSalt", "test-salt");
+
+        when(ballotCache.ballot(ELECTION_ID)).thenReturn(new Ballot(ELECTION_ID, "Test election",
+                ElectionStatus.STARTED, ElectionType.PARLIAMENTARY,
+                LocalDateTime.now().minusDays(1), LocalDateTime.now().plusDays(1),
+                Map.of(CANDIDATE_ID, new CandidateEntry(CANDIDATE_ID, null, true, null, null, "Test Candidate")),
+                Map.of()));
+        when(electionRepository.getReferenceById(ELECTION_ID)).thenReturn(election());
+        when(candidateRepository.getReferenceById(CANDIDATE_ID)).thenReturn(candidate());
+        when(voterKeyCache.verify(anyString(), anyString(), any(), any())).thenReturn(true);
+        when(voterRepository.findAllById(any())).thenAnswer(inv -> {
+            Collection<String> ids = inv.getArgument(0);
+            return ids.stream().filter(id -> id.startsWith("voter")).map(VotingServiceBatchTest::voter).toList();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.shutdown();
+    }
+
+    @Test
+    void invalidBallotsAreRejectedWhileTheRestAreCast() {
+        rowCounts(1, 1);
+
+        BatchVoteResponse response = service.castVotes(List.of(
+                ballot("voter1", CANDIDATE_ID),
+                ballot("unknown", CANDIDATE_ID),
+                ballot("voter3", "no-such-candidate"),
+                ballot("voter4", CANDIDATE_ID)));
+
+        assertThat(response.getAccepted()).isEqualTo(2);
+        assertThat(response.getRejected()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(VoteResponse::isSuccess)
+                .containsExactly(true, false, false, true);
+        assertThat(response.getResults().get(1).getMessage()).isEqualTo("Voter not found");
+        assertThat(response.getResults().get(2).getMessage()).isEqualTo("Candidate not found in this election");
+
+        // Only the valid ballots reach the INSERT and the blockchain
+        assertThat(written).hasSize(2);
+        assertThat(handedToBlockchain()).containsExactlyElementsOf(written);
+    }
+
+    @Test
+    void rowsSkippedByOnConflictAreReportedAsAlreadyVoted() {
+        // The second and third rows hit the voter/election constraint
+        rowCounts(1, 0, 0);
+
+        BatchVoteResponse response = service.castVotes(List.of(
+                ballot("voter1", CANDIDATE_ID),
+                ballot("voter2", CANDIDATE_ID),
+                ballot("voter2", CANDIDATE_ID)));
+
+        assertThat(response.getAccepted()).isEqualTo(1);
+        assertThat(response.getRejected()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(VoteResponse::isSuccess)
+                .containsExactly(true, false, false);
+        assertThat(response.getResults().subList(1, 3)).extracting(VoteResponse::getMessage)
+                .containsOnly("You have already voted in this election");
+        assertThat(handedToBlockchain()).containsExactly(written.get(0));
+    }
+
+    @Test
+    void successNoInfoIsResolvedByReadingIdsBack() throws Exception {
+        rowCounts(Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO);
+        // Of the three rows only the first and last were written
+        doAnswer(inv -> {
+            RowCallbackHandler handler = inv.getArgument(1);
+            for (Vote vote : List.of(written.get(0), written.get(2))) {
+                ResultSet rs = mock(ResultSet.class);
+                when(rs.getString(1)).thenReturn(vote.getId());
+                handler.processRow(rs);
+            }
+            return null;
+        }).when(jdbcTemplate).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+
+        BatchVoteResponse response = service.castVotes(List.of(
+                ballot("voter1", CANDIDATE_ID),
+                ballot("voter2", CANDIDATE_ID),
+                ballot("voter3", CANDIDATE_ID)));
+
+        assertThat(response.getAccepted()).isEqualTo(2);
+        assertThat(response.getResults()).extracting(VoteResponse::isSuccess)
+                .containsExactly(true, false, true);
+        assertThat(handedToBlockchain()).containsExactly(written.get(0), written.get(2));
+    }
+
+    @Test
+    void rowCountsNeedNoReadBack() {
+        rowCounts(1);
+
+        service.castVotes(List.of(ballot("voter1", CANDIDATE_ID)));
+
+        verify(jdbcTemplate, never()).query(any(PreparedStatementCreator.class), any(RowCallbackHandler.class));
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    /** Makes the batch INSERT record its votes and report {@code counts} as one JDBC batch. */
+    @SuppressWarnings("unchecked")
+    private void rowCounts(int... counts) {
+        when(jdbcTemplate.batchUpdate(anyString(), any(Collection.class), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class))).thenAnswer(inv -> {
+            Collection<Vote> votes = inv.getArgument(1);
+            written.addAll(votes);
+            return new int[][]{counts};
+        });
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Vote> handedToBlockchain() {
+        ArgumentCaptor<List<Vote>> captor = ArgumentCaptor.forClass(List.class);
+        verify(blockchainService).addVotesToBlockchain(captor.capture());
+        return captor.getValue();
+    }
+
+    private static SignedBallot ballot(String voterId, String candidateId) {
+        SignedBallot ballot = new SignedBallot();
+        ballot.setVoterId(voterId);
+        ballot.setElectionId(ELECTION_ID);
+        ballot.setCandidateId(candidateId);
+        ballot.setEncryptedVoteData("encrypted-" + voterId);
+        ballot.setDigitalSignature("c2lnbmF0dXJl");
+        return ballot;
+    }
+
+    private static Voter voter(String id) {
+        Voter voter = new Voter("N" + id, "Test", "Voter", LocalDate.now().minusYears(30),
+                LocalDate.now().plusYears(5), AlbanianCounty.values()[0], AlbanianMunicipality.values()[0],
+                "public-key");
+        voter.setId(id);
+        return voter;
+    }
+
+    private static Election election() {
+        Election election = new Election();
+        election.setId(ELECTION_ID);
+        return election;
+    }
+
+    private static Candidate candidate() {
+        Candidate candidate = new Candidate();
+        candidate.setId(CANDIDATE_ID);
+        return candidate;
+    }
+}
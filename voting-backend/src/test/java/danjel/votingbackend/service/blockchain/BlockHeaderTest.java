@@ -0,0 +1,123 @@
+package danjel.votingbackend.service.blockchain;
+
+import danjel.votingbackend.exception.BlockchainException;
+import danjel.votingbackend.model.Block;
+import org.junit.jupiter.api.Test;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Expected hashes were computed independently with Python's hashlib over
+ * the layouts documented on {@link BlockHeader}.
+ */
+class BlockHeaderTest {
+
+    private static final String        PREVIOUS    = "00".repeat(32);
+    private static final String        MERKLE_ROOT = "d31a37ef6ac14a2db1470c4316beb5592e6afd4465022339adafda76a18ffabe";
+    private static final LocalDateTime TIMESTAMP   = LocalDateTime.of(2024, 1, 1, 0, 0, 0, 123_000_000);   // 1704067200123 ms UTC
+    private static final long          NONCE       = 42L;
+
+    // ── Hashes ────────────────────────────────────────────────────────────────
+
+    @Test
+    void legacyTextHeaderMatchesKnownVector() throws Exception {
+        String expected = "a3240f2d398a957a72cc87af9af02fd7a0ffa07fea2dd3160d5a15d4670509f8";
+
+        assertThat(BlockHeader.computeHash(block(null), sha256())).isEqualTo(expected);
+        assertThat(BlockHeader.computeHash(block(BlockHeader.LEGACY_TEXT), sha256())).isEqualTo(expected);
+    }
+
+    @Test
+    void binaryHeadersMatchKnownVectors() throws Exception {
+        assertThat(BlockHeader.computeHash(block(BlockHeader.BINARY), sha256()))
+                .isEqualTo("e668859a30f409708f5cfb52936982200dbe1563658dd027d8a1344bef7f911d");
+        assertThat(BlockHeader.computeHash(block(BlockHeader.BINARY_MERKLE), sha256()))
+                .isEqualTo("0628950c7bf26f66ec5a341a861781b3b1d87b0ea32d9210145087962b7154a5");
+    }
+
+    @Test
+    void minerLayoutHashesTheSameAsComputeHash() throws Exception {
+        Block block = block(BlockHeader.CURRENT_VERSION);
+
+        byte[] header = Arrays.copyOf(BlockHeader.binaryPrefix(block), BlockHeader.BINARY_LENGTH);
+        BlockHeader.writeNonce(NONCE, header, BlockHeader.NONCE_OFFSET);
+
+        assertThat(header).hasSize(89);
+        assertThat(header[0]).isEqualTo((byte) BlockHeader.CURRENT_VERSION);
+        assertThat(Arrays.copyOfRange(header, BlockHeader.NONCE_OFFSET, BlockHeader.BINARY_LENGTH))
+                .containsExactly(0, 0, 0, 0, 0, 0, 0, 42);
+        assertThat(BlockHeader.toHex(sha256().digest(header)))
+                .isEqualTo(BlockHeader.computeHash(block, sha256()));
+    }
+
+    @Test
+    void computeHashResetsTheDigest() throws Exception {
+        MessageDigest digest = sha256();
+        digest.update(new byte[]{1, 2, 3});
+
+        assertThat(BlockHeader.computeHash(block(BlockHeader.BINARY_MERKLE), digest))
+                .isEqualTo("0628950c7bf26f66ec5a341a861781b3b1d87b0ea32d9210145087962b7154a5");
+    }
+
+    @Test
+    void binaryHeaderRejectsMalformedDigests() {
+        Block shortRoot = block(BlockHeader.BINARY_MERKLE);
+        shortRoot.setMerkleRoot("abcd");
+        Block notHex = block(BlockHeader.BINARY_MERKLE);
+        notHex.setPreviousHash("zz".repeat(32));
+
+        assertThatThrownBy(() -> BlockHeader.binaryPrefix(shortRoot)).isInstanceOf(BlockchainException.class);
+        assertThatThrownBy(() -> BlockHeader.binaryPrefix(notHex)).isInstanceOf(BlockchainException.class);
+    }
+
+    // ── Difficulty ────────────────────────────────────────────────────────────
+
+    @Test
+    void difficultyCountsLeadingZeroNibbles() {
+        byte[] twoZeros = {0x00, 0x1F, (byte) 0xFF};
+        assertThat(BlockHeader.meetsDifficulty(twoZeros, 2)).isTrue();
+        assertThat(BlockHeader.meetsDifficulty(twoZeros, 3)).isFalse();
+
+        byte[] fiveZeros = {0x00, 0x00, 0x0A};
+        assertThat(BlockHeader.meetsDifficulty(fiveZeros, 4)).isTrue();
+        assertThat(BlockHeader.meetsDifficulty(fiveZeros, 5)).isTrue();
+        assertThat(BlockHeader.meetsDifficulty(fiveZeros, 6)).isFalse();
+
+        assertThat(BlockHeader.meetsDifficulty(new byte[]{0x0A}, 1)).isTrue();
+        assertThat(BlockHeader.meetsDifficulty(new byte[]{0x10}, 1)).isFalse();
+    }
+
+    @Test
+    void difficultyMatchesHexPrefixCheck() {
+        byte[][] digests = {{0x00, 0x00, 0x00}, {0x01, 0x00}, {0x00, 0x10}, {(byte) 0xF0}, {0x00, 0x00, (byte) 0x80}};
+        for (byte[] digest : digests) {
+            String hex = BlockHeader.toHex(digest);
+            for (int difficulty = 0; difficulty <= hex.length(); difficulty++) {
+                assertThat(BlockHeader.meetsDifficulty(digest, difficulty))
+                        .as("%s at difficulty %d", hex, difficulty)
+                        .isEqualTo(hex.startsWith("0".repeat(difficulty)));
+            }
+        }
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private static Block block(Integer headerVersion) {
+        Block block = new Block(7L, PREVIOUS, null);
+        block.setMerkleRoot(MERKLE_ROOT);
+        block.setTimestamp(TIMESTAMP);
+        block.setNonce(NONCE);
+        block.setHeaderVersion(headerVersion);
+        return block;
+    }
+
+    private static MessageDigest sha256() throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance("SHA-256");
+    }
+}
@@ -0,0 +1,103 @@
+package danjel.votingbackend.service.blockchain;
+
+import danjel.votingbackend.config.BlockchainConfig;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class BlockSealingPolicyTest {
+
+    private BlockchainConfig   config;
+    private BlockSealingPolicy policy;
+
+    @BeforeEach
+    void setUp() {
+        config = new BlockchainConfig();
+        config.setBlockSize(100);
+        config.setMinBlockSize(10);
+        config.setMaxBlockSize(1000);
+        config.setBlockTimeTargetMs(10_000);
+        config.setAdaptiveBlockSize(true);
+        policy = new BlockSealingPolicy(config);
+    }
+
+    @Test
+    void unknownElectionGetsDefaultsWithoutState() {
+        assertThat(policy.targetBlockSize("nobody")).isEqualTo(100);
+        assertThat(policy.ingestRate("nobody")).isZero();
+
+        // Reading created nothing for the sampler to update
+        long start = System.currentTimeMillis();
+        policy.sampleRates(start + 1_000, Map.of("nobody", 5_000));
+        assertThat(policy.targetBlockSize("nobody")).isEqualTo(100);
+    }
+
+    @Test
+    void rateIsSmoothedAcrossSamples() {
+        long t = System.currentTimeMillis();
+        policy.onVotesQueued("e1", 10);
+        policy.sampleRates(t + 1_000, Map.of());
+        double first = policy.ingestRate("e1");
+
+        policy.onVotesQueued("e1", 10);
+        policy.sampleRates(t + 2_000, Map.of());
+        double second = policy.ingestRate("e1");
+
+        // ~10 votes/s measured each time; the average only approaches it
+        assertThat(first).isGreaterThan(0).isLessThan(10);
+        assertThat(second).isGreaterThan(first).isLessThan(10);
+        assertThat(second).isCloseTo(0.3 * 10 + 0.7 * first, within(0.5));
+    }
+
+    @Test
+    void targetIsClampedToMinAndMax() {
+        long t = System.currentTimeMillis();
+        policy.onVoteQueued("slow");
+        policy.onVotesQueued("fast", 1_000_000);
+        policy.sampleRates(t + 1_000, Map.of());
+
+        assertThat(policy.targetBlockSize("slow")).isEqualTo(10);
+        assertThat(policy.targetBlockSize("fast")).isEqualTo(1000);
+    }
+
+    @Test
+    void backlogBeyondTwiceTheRateTargetJumpsToTheBacklog() {
+        long t = System.currentTimeMillis();
+        policy.onVoteQueued("e1");
+        policy.sampleRates(t + 1_000, Map.of("e1", 500));
+        assertThat(policy.targetBlockSize("e1")).isEqualTo(500);
+
+        // Still clamped to the maximum
+        policy.sampleRates(t + 2_000, Map.of("e1", 50_000));
+        assertThat(policy.targetBlockSize("e1")).isEqualTo(1000);
+    }
+
+    @Test
+    void fixedSizeWhenAdaptiveSizingIsOff() {
+        config.setAdaptiveBlockSize(false);
+        policy.onVotesQueued("e1", 1_000_000);
+        policy.sampleRates(System.currentTimeMillis() + 1_000, Map.of("e1", 50_000));
+
+        assertThat(policy.targetBlockSize("e1")).isEqualTo(100);
+    }
+
+    @Test
+    void sealDeadlineIsOneBlockTimeAfterTheOldestVote() {
+        assertThat(policy.sealDeadline(5_000)).isEqualTo(15_000);
+    }
+
+    @Test
+    void forgetDropsTheElectionsState() {
+        policy.onVotesQueued("e1", 1_000_000);
+        policy.sampleRates(System.currentTimeMillis() + 1_000, Map.of());
+        assertThat(policy.targetBlockSize("e1")).isEqualTo(1000);
+
+        policy.forget("e1");
+        assertThat(policy.targetBlockSize("e1")).isEqualTo(100);
+        assertThat(policy.ingestRate("e1")).isZero();
+    }
+}
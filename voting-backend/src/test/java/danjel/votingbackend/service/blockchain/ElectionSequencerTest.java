@@ -0,0 +1,138 @@
+package danjel.votingbackend.service.blockchain;
+
+import danjel.votingbackend.config.BlockchainConfig;
+import danjel.votingbackend.model.Vote;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Failure isolation of {@link ElectionSequencer}, driven through flush() with a
+ * stub sealer. Retries wait out the sequencer's real back-off, so each test
+ * takes a few seconds.
+ */
+class ElectionSequencerTest {
+
+    private static final long FLUSH_TIMEOUT_S = 30;
+
+    private final List<List<String>> attempts    = new CopyOnWriteArrayList<>();
+    private final List<List<String>> blocks      = new CopyOnWriteArrayList<>();
+    private final List<String>       quarantined = new CopyOnWriteArrayList<>();
+
+    private ElectionSequencer sequencer;
+
+    @AfterEach
+    void tearDown() {
+        if (sequencer != null) sequencer.stop();
+    }
+
+    @Test
+    void transientFailureIsRetriedAndThenSeals() throws Exception {
+        sequencer = start(batch -> attempts.size() == 1);
+        submit("v1", "v2", "v3");
+
+        flush();
+
+        assertThat(attempts).containsExactly(
+                List.of("v1", "v2", "v3"),
+                List.of("v1", "v2", "v3"));
+        assertThat(blocks).containsExactly(List.of("v1", "v2", "v3"));
+        assertThat(quarantined).isEmpty();
+    }
+
+    @Test
+    void failingBatchIsHalvedDownToASingleSuspect() throws Exception {
+        sequencer = start(batch -> batch.contains("bad"));
+        submit("bad", "v2", "v3", "v4");
+
+        flush();
+
+        // Three tries at full size, then halves, then the suspect on its own
+        assertThat(attempts.subList(0, 6)).containsExactly(
+                List.of("bad", "v2", "v3", "v4"),
+                List.of("bad", "v2", "v3", "v4"),
+                List.of("bad", "v2", "v3", "v4"),
+                List.of("bad", "v2"),
+                List.of("bad"),
+                List.of("v2", "v3", "v4"));
+        assertThat(blocks.get(0)).containsExactly("v2", "v3", "v4");
+    }
+
+    @Test
+    void suspectThatSealsOnItsOwnIsKept() throws Exception {
+        // "bad" fails until it is retried after another block has sealed
+        sequencer = start(batch -> batch.contains("bad") && blocks.isEmpty());
+        submit("bad", "v2");
+
+        flush();
+
+        assertThat(blocks).containsExactly(List.of("v2"), List.of("bad"));
+        assertThat(quarantined).isEmpty();
+        assertThat(sequencer.backlog()).isZero();
+    }
+
+    @Test
+    void suspectThatFailsItsLastTryIsQuarantined() throws Exception {
+        sequencer = start(batch -> batch.contains("bad"));
+        submit("bad", "v2");
+
+        flush();
+
+        assertThat(blocks).containsExactly(List.of("v2"));
+        assertThat(quarantined).containsExactly("bad");
+        assertThat(attempts.get(attempts.size() - 1)).containsExactly("bad");
+        assertThat(sequencer.backlog()).isZero();
+    }
+
+    @Test
+    void secondSoloFailureStallsWithoutQuarantining() {
+        sequencer = start(batch -> true);
+        submit("v1", "v2");
+
+        assertThatThrownBy(this::flush)
+                .isInstanceOf(ExecutionException.class)
+                .hasMessageContaining("Failed to seal pending votes");
+
+        assertThat(blocks).isEmpty();
+        assertThat(quarantined).isEmpty();
+        assertThat(attempts.get(attempts.size() - 1)).containsExactly("v2");
+        assertThat(sequencer.backlog()).isEqualTo(2);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    /** Starts a sequencer whose seals fail whenever {@code fails} matches the batch's vote ids. */
+    private ElectionSequencer start(Predicate<List<String>> fails) {
+        ElectionSequencer.BlockSealer sealer = (electionId, tip, votes) -> {
+            List<String> ids = votes.stream().map(Vote::getId).toList();
+            attempts.add(ids);
+            if (fails.test(ids)) throw new IllegalStateException("seal failed");
+            blocks.add(ids);
+            return new ElectionSequencer.Tip(tip.blockNumber() + 1, "hash-" + (tip.blockNumber() + 1));
+        };
+        return new ElectionSequencer("e1", 64, new BlockSealingPolicy(new BlockchainConfig()),
+                electionId -> new ElectionSequencer.Tip(0, "genesis"),
+                sealer,
+                (electionId, vote, cause) -> quarantined.add(vote.getId()));
+    }
+
+    private void submit(String... voteIds) {
+        for (String voteId : voteIds) {
+            Vote vote = new Vote();
+            vote.setId(voteId);
+            sequencer.submit(vote);
+        }
+    }
+
+    private void flush() throws Exception {
+        sequencer.flush().get(FLUSH_TIMEOUT_S, TimeUnit.SECONDS);
+    }
+}
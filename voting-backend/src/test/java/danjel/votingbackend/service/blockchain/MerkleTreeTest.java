@@ -0,0 +1,171 @@
+package danjel.votingbackend.service.blockchain;
+
+import danjel.votingbackend.config.BlockchainConfig;
+import danjel.votingbackend.dto.MerkleProof;
+import danjel.votingbackend.model.Block;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Expected values were computed independently with Python's hashlib over
+ * the documented layouts; the vote hashes are Base64 SHA-256 of "a".."e".
+ */
+class MerkleTreeTest {
+
+    private static final String A = "ypeBEsobvcr6wjGzmiPcTaeG7/gUfE5yuYB3ha/uSLs=";
+    private static final String B = "PiPoFgA5WUoziU9lZOGxNIu9egCI1CxKy3PurtWcAJ0=";
+    private static final String C = "Ln0sA6lQeuJl7PW1NWiFpTOTogKdJBOUmXJloaJa78Y=";
+    private static final String D = "GKw+c0PwFokMUQ6T+TUmEWnZ4/VlQ2Qpgw+vCTT0+OQ=";
+    private static final String E = "P3m7e0NbBTIWUdrv03TNxoHcBvqmXjdOODN7iMoEbeo=";
+
+    private static final HexFormat HEX = HexFormat.of();
+
+    private final MerkleTree merkleTree = new MerkleTree(new BlockchainConfig());
+
+    // ── Roots ─────────────────────────────────────────────────────────────────
+
+    @Test
+    void byteTreeRootsMatchKnownVectors() {
+        assertThat(merkleTree.build(List.of(A)).root())
+                .isEqualTo("ca978112ca1bbdcafac231b39a23dc4da786eff8147c4e72b9807785afee48bb");
+        assertThat(merkleTree.build(List.of(A, B)).root())
+                .isEqualTo("e5a01fee14e0ed5c48714f22180f25ad8365b53f9779f79dc4a3d7e93963f94a");
+        // Odd leaf count: C is paired with itself
+        assertThat(merkleTree.build(List.of(A, B, C)).root())
+                .isEqualTo("d31a37ef6ac14a2db1470c4316beb5592e6afd4465022339adafda76a18ffabe");
+        assertThat(merkleTree.build(List.of(A, B, C, D, E)).root())
+                .isEqualTo("dd14d0ba516bb654a3052b76f051db026f4e322d0be081468fab99440f9e7305");
+    }
+
+    @Test
+    void emptyTreeHashesTheMarker() {
+        assertThat(merkleTree.build(List.of()).root())
+                .isEqualTo("5f26863c674571ad4bee128a220fdb0d7c801a22614875857006fcfaea4c606d");
+    }
+
+    @Test
+    void nonBase64LeafIsHashedToDigestWidth() {
+        assertThat(merkleTree.build(List.of("not-base64!")).root())
+                .isEqualTo("a970764d4e2153fdddd8ef95d0ed64064df4102acc3fc65f3b870cdc13e3559b");
+    }
+
+    @Test
+    void legacyBlocksKeepTheTextTree() throws Exception {
+        for (Integer version : new Integer[]{null, BlockHeader.LEGACY_TEXT, BlockHeader.BINARY}) {
+            Block block = block("legacy-" + version, version, A, B, C);
+            assertThat(MerkleTree.computeRoot(block, sha256()))
+                    .isEqualTo("29cea983e9472cd8907bb8131192d605ec7b7d3615bc648eb353b683d85b49d7");
+        }
+        Block current = block("current", BlockHeader.BINARY_MERKLE, A, B, C);
+        assertThat(MerkleTree.computeRoot(current, sha256()))
+                .isEqualTo("d31a37ef6ac14a2db1470c4316beb5592e6afd4465022339adafda76a18ffabe");
+    }
+
+    // ── Proofs ────────────────────────────────────────────────────────────────
+
+    @Test
+    void proofForOddLastLeafMatchesKnownPath() {
+        Block block = block("five", BlockHeader.BINARY_MERKLE, A, B, C, D, E);
+
+        MerkleProof proof = merkleTree.proof(block, E);
+
+        assertThat(proof.getLeafIndex()).isEqualTo(4);
+        assertThat(proof.getLeafCount()).isEqualTo(5);
+        assertThat(proof.getTreeVersion()).isEqualTo(BlockHeader.BINARY_MERKLE);
+        assertThat(proof.getPath()).extracting(MerkleProof.Step::getHash).containsExactly(
+                "3f79bb7b435b05321651daefd374cdc681dc06faa65e374e38337b88ca046dea",
+                "75de222d8adebd767f99a5fe35a5f3f58dbfa3d51ec28b54e9da4225ec8f170d",
+                "14ede5e8e97ad9372327728f5099b95604a39593cac3bd38a343ad76205213e7");
+        assertThat(proof.getPath()).extracting(MerkleProof.Step::getSide).containsExactly(
+                MerkleProof.Side.RIGHT, MerkleProof.Side.RIGHT, MerkleProof.Side.LEFT);
+    }
+
+    @Test
+    void everyByteTreeProofVerifiesAgainstTheRoot() throws Exception {
+        List<String> leaves = List.of(A, B, C, D, E);
+        for (int count = 1; count <= leaves.size(); count++) {
+            Block block = block("bytes-" + count, BlockHeader.BINARY_MERKLE,
+                    leaves.subList(0, count).toArray(new String[0]));
+            String root = MerkleTree.computeRoot(block, sha256());
+
+            for (int i = 0; i < count; i++) {
+                MerkleProof proof = merkleTree.proof(block, leaves.get(i));
+                assertThat(proof.getMerkleRoot()).isEqualTo(root);
+                assertThat(foldBytes(proof)).as("leaf %d of %d", i, count).isEqualTo(root);
+            }
+        }
+    }
+
+    @Test
+    void everyLegacyProofVerifiesAgainstTheRoot() throws Exception {
+        List<String> leaves = List.of(A, B, C, D, E);
+        Block block = block("text", null, leaves.toArray(new String[0]));
+        String root = MerkleTree.computeRoot(block, sha256());
+
+        for (String leaf : leaves) {
+            MerkleProof proof = merkleTree.proof(block, leaf);
+            assertThat(proof.getTreeVersion()).isEqualTo(BlockHeader.LEGACY_TEXT);
+            assertThat(foldText(proof)).isEqualTo(root);
+        }
+    }
+
+    @Test
+    void proofIsNullForVotesNotInTheBlock() {
+        Block block = block("absent", BlockHeader.BINARY_MERKLE, A, B, C);
+
+        assertThat(merkleTree.proof(block, D)).isNull();
+        assertThat(merkleTree.proof(block, A, 1)).isNull();
+        assertThat(merkleTree.proof(block, A, 7)).isNull();
+        assertThat(merkleTree.proof(block, B, 1).getLeafIndex()).isEqualTo(1);
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private static Block block(String blockHash, Integer headerVersion, String... voteHashes) {
+        Block block = new Block(1L, "00".repeat(32), null);
+        block.setBlockHash(blockHash);
+        block.setHeaderVersion(headerVersion);
+        for (String voteHash : voteHashes) block.addVoteHash(voteHash);
+        return block;
+    }
+
+    /** Verifies a version 3 proof the way a client would: raw-byte hashing. */
+    private static String foldBytes(MerkleProof proof) throws NoSuchAlgorithmException {
+        MessageDigest digest = sha256();
+        byte[] running = HEX.parseHex(proof.getLeafHash());
+        for (MerkleProof.Step step : proof.getPath()) {
+            byte[] sibling = HEX.parseHex(step.getHash());
+            if (step.getSide() == MerkleProof.Side.LEFT) {
+                digest.update(sibling);
+                digest.update(running);
+            } else {
+                digest.update(running);
+                digest.update(sibling);
+            }
+            running = digest.digest();
+        }
+        return HEX.formatHex(running);
+    }
+
+    /** Verifies a legacy proof: concatenated text, hex-encoded results. */
+    private static String foldText(MerkleProof proof) throws NoSuchAlgorithmException {
+        MessageDigest digest = sha256();
+        String running = proof.getLeafHash();
+        for (MerkleProof.Step step : proof.getPath()) {
+            String input = step.getSide() == MerkleProof.Side.LEFT ? step.getHash() + running : running + step.getHash();
+            running = HEX.formatHex(digest.digest(input.getBytes(StandardCharsets.UTF_8)));
+        }
+        return running;
+    }
+
+    private static MessageDigest sha256() throws NoSuchAlgorithmException {
+        return MessageDigest.getInstance("SHA-256");
+    }
+}
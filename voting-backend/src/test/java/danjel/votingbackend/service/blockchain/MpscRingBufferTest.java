@@ -0,0 +1,109 @@
+package danjel.votingbackend.service.blockchain;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MpscRingBufferTest {
+
+    @Test
+    void capacityIsRoundedUpToPowerOfTwo() {
+        assertThat(new MpscRingBuffer<>(8).capacity()).isEqualTo(8);
+        assertThat(new MpscRingBuffer<>(9).capacity()).isEqualTo(16);
+        assertThat(new MpscRingBuffer<>(2).capacity()).isEqualTo(2);
+        assertThat(new MpscRingBuffer<>(1).capacity()).isEqualTo(2);
+    }
+
+    @Test
+    void offerFailsWhenFullAndSucceedsOnceDrained() {
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(4);
+        assertThat(ring.isEmpty()).isTrue();
+
+        for (int i = 0; i < 4; i++) assertThat(ring.offer(i)).isTrue();
+        assertThat(ring.offer(4)).isFalse();
+        assertThat(ring.size()).isEqualTo(4);
+
+        List<Integer> out = new ArrayList<>();
+        assertThat(ring.drain(out::add, 1)).isEqualTo(1);
+        assertThat(ring.offer(4)).isTrue();
+        assertThat(ring.offer(5)).isFalse();
+
+        assertThat(ring.drain(out::add, Integer.MAX_VALUE)).isEqualTo(4);
+        assertThat(out).containsExactly(0, 1, 2, 3, 4);
+        assertThat(ring.isEmpty()).isTrue();
+        assertThat(ring.size()).isZero();
+        assertThat(ring.drain(out::add, Integer.MAX_VALUE)).isZero();
+    }
+
+    @Test
+    void slotsAreReusedAcrossManyLaps() {
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(4);
+        List<Integer> out = new ArrayList<>();
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(ring.offer(i)).isTrue();
+            if (i % 2 == 1) ring.drain(out::add, 2);
+        }
+        ring.drain(out::add, Integer.MAX_VALUE);
+
+        assertThat(out).hasSize(1_000);
+        for (int i = 0; i < out.size(); i++) assertThat(out.get(i)).isEqualTo(i);
+    }
+
+    @Test
+    void drainHonoursLimit() {
+        MpscRingBuffer<Integer> ring = new MpscRingBuffer<>(8);
+        for (int i = 0; i < 5; i++) ring.offer(i);
+
+        List<Integer> out = new ArrayList<>();
+        assertThat(ring.drain(out::add, 3)).isEqualTo(3);
+        assertThat(out).containsExactly(0, 1, 2);
+        assertThat(ring.isEmpty()).isFalse();
+    }
+
+    @Test
+    void multipleProducersKeepPerProducerOrderAndLoseNothing() throws Exception {
+        int producers = 4;
+        int perProducer = 50_000;
+        MpscRingBuffer<long[]> ring = new MpscRingBuffer<>(64);   // small, so producers hit the full boundary
+
+        ExecutorService pool = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int seq = 0; seq < perProducer; seq++) ring.put(new long[]{producer, seq});
+            });
+        }
+        start.countDown();
+
+        long[] next = new long[producers];
+        int[] received = {0};
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(30);
+        while (received[0] < producers * perProducer && System.nanoTime() < deadline) {
+            ring.drain(message -> {
+                int producer = (int) message[0];
+                assertThat(message[1]).as("order of producer %d", producer).isEqualTo(next[producer]);
+                next[producer]++;
+                received[0]++;
+            }, 256);
+        }
+        pool.shutdown();
+        assertThat(pool.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThat(received[0]).isEqualTo(producers * perProducer);
+        assertThat(next).containsOnly(perProducer);
+        assertThat(ring.isEmpty()).isTrue();
+    }
+}
@@ -0,0 +1,186 @@
+package danjel.votingbackend.service.blockchain;
+
+import danjel.votingbackend.config.BlockchainConfig;
+import danjel.votingbackend.exception.BlockchainException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class PendingVoteLogTest {
+
+    /** Record of a two-character election id and vote id: length, crc, 2 + 2 + 2 + 2 bytes. */
+    private static final int RECORD_SIZE = 16;
+
+    @TempDir
+    Path dir;
+
+    /** Most recently opened log; earlier ones are closed by the test itself. */
+    private PendingVoteLog last;
+
+    @AfterEach
+    void closeLast() {
+        if (last != null) last.close();
+    }
+
+    @Test
+    void replayReturnsAppendedVotesInOrderGroupedByElection() {
+        PendingVoteLog log = open(4096);
+        assertThat(log.replay()).isEmpty();
+        log.append("e1", "v1");
+        log.appendAll(ordered("e2", List.of("v2", "v3"), "e1", List.of("v4")));
+        log.close();
+
+        Map<String, LinkedHashSet<String>> replayed = open(4096).replay();
+
+        assertThat(replayed).containsOnlyKeys("e1", "e2");
+        assertThat(replayed.get("e1")).containsExactly("v1", "v4");
+        assertThat(replayed.get("e2")).containsExactly("v2", "v3");
+    }
+
+    @Test
+    void writesAreRefusedUntilReplayed() {
+        PendingVoteLog log = open(4096);
+
+        assertThatThrownBy(() -> log.append("e1", "v1")).isInstanceOf(BlockchainException.class);
+        assertThatThrownBy(() -> log.rewrite(Map.of())).isInstanceOf(BlockchainException.class);
+    }
+
+    @Test
+    void tornRecordEndsReplayAndIsOverwrittenByTheNextAppend() throws IOException {
+        PendingVoteLog log = open(4096);
+        log.replay();
+        for (String vote : List.of("v1", "v2", "v3")) log.append("e1", vote);
+        log.close();
+
+        // Flip a payload byte of the third record, as a write torn by a crash would leave it
+        corrupt(2 * RECORD_SIZE + 8 + 5, (byte) 0x7F);
+
+        PendingVoteLog reopened = open(4096);
+        assertThat(reopened.replay().get("e1")).containsExactly("v1", "v2");
+        reopened.append("e1", "v4");
+        reopened.close();
+
+        assertThat(open(4096).replay().get("e1")).containsExactly("v1", "v2", "v4");
+    }
+
+    @Test
+    void partialRecordRunningPastTheEndIsIgnored() throws IOException {
+        PendingVoteLog log = open(4096);
+        log.replay();
+        log.append("e1", "v1");
+        log.close();
+
+        // A header whose length points beyond the mapped file
+        writeInt(RECORD_SIZE, Integer.MAX_VALUE - 16);
+
+        PendingVoteLog reopened = open(4096);
+        assertThat(reopened.replay().get("e1")).containsExactly("v1");
+        reopened.append("e1", "v2");
+        reopened.close();
+
+        assertThat(open(4096).replay().get("e1")).containsExactly("v1", "v2");
+    }
+
+    @Test
+    void fullLogIsCompactedToTheIdsNotYetRemoved() {
+        // Room for three records and the terminator
+        PendingVoteLog log = open(3 * RECORD_SIZE + 4);
+        log.replay();
+        for (String vote : List.of("v1", "v2", "v3")) log.append("e1", vote);
+
+        // v1 and v2 were sealed in the meantime, so only v3 is still pending
+        log.remove("e1", List.of("v1", "v2"));
+        log.append("e1", "v4");
+        log.close();
+
+        assertThat(open(3 * RECORD_SIZE + 4).replay().get("e1")).containsExactly("v3", "v4");
+    }
+
+    @Test
+    void logGrowsWhenEvenTheCompactedLogDoesNotFit() {
+        PendingVoteLog log = open(3 * RECORD_SIZE + 4);
+        log.replay();
+        for (String vote : List.of("v1", "v2", "v3")) log.append("e1", vote);
+
+        log.append("e1", "v4");
+        log.append("e1", "v5");
+        log.close();
+
+        assertThat(open(3 * RECORD_SIZE + 4).replay().get("e1")).containsExactly("v1", "v2", "v3", "v4", "v5");
+    }
+
+    @Test
+    void compactDropsRemovedIds() {
+        PendingVoteLog log = open(4096);
+        log.replay();
+        log.appendAll(ordered("e1", List.of("v1", "v2"), "e2", List.of("v3")));
+
+        log.remove("e1", List.of("v1"));
+        log.remove("e2", List.of("v3"));
+        log.compact();
+        log.close();
+
+        Map<String, LinkedHashSet<String>> replayed = open(4096).replay();
+        assertThat(replayed.get("e1")).containsExactly("v2");
+        assertThat(replayed).doesNotContainKey("e2");
+    }
+
+    @Test
+    void rewriteReplacesTheLogContents() {
+        PendingVoteLog log = open(4096);
+        log.replay();
+        for (String vote : List.of("v1", "v2", "v3")) log.append("e1", vote);
+
+        log.rewrite(Map.of("e2", List.of("v9")));
+        log.append("e1", "v4");
+        log.close();
+
+        Map<String, LinkedHashSet<String>> replayed = open(4096).replay();
+        assertThat(replayed.get("e2")).containsExactly("v9");
+        assertThat(replayed.get("e1")).containsExactly("v4");
+    }
+
+    // ── Helpers ───────────────────────────────────────────────────────────────
+
+    private PendingVoteLog open(long sizeBytes) {
+        BlockchainConfig config = new BlockchainConfig();
+        config.setWalDirectory(dir.toString());
+        config.setWalSizeBytes(sizeBytes);
+        PendingVoteLog log = new PendingVoteLog(config);
+        log.open();
+        last = log;
+        return log;
+    }
+
+    private static Map<String, List<String>> ordered(String e1, List<String> v1, String e2, List<String> v2) {
+        Map<String, List<String>> map = new LinkedHashMap<>();
+        map.put(e1, v1);
+        map.put(e2, v2);
+        return map;
+    }
+
+    private void corrupt(long offset, byte value) throws IOException {
+        try (FileChannel file = FileChannel.open(dir.resolve("pending-votes.wal"), StandardOpenOption.WRITE)) {
+            file.write(ByteBuffer.wrap(new byte[]{value}), offset);
+        }
+    }
+
+    private void writeInt(long offset, int value) throws IOException {
+        try (FileChannel file = FileChannel.open(dir.resolve("pending-votes.wal"), StandardOpenOption.WRITE)) {
+            file.write(ByteBuffer.allocate(4).putInt(0, value), offset);
+        }
+    }
+}